@@ -0,0 +1,38 @@
+package com.dev.smartbin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The hourly battery drainage job over the whole fleet. Batteries are reset to 25% before every iteration,
+ * so the iteration crosses the low battery threshold and includes the notification scan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatteryJobBenchmark {
+
+    @Setup(Level.Iteration)
+    public void resetBatteries(SmartBinBenchmarkState state) {
+        state.jdbcTemplate.update("UPDATE smart_bin SET smartbin_battery_status = 25");
+    }
+
+    @Benchmark
+    public void scheduleBatteryDrainagePerHour(SmartBinBenchmarkState state) {
+        state.smartBinService.scheduleBatteryDrainagePerHour();
+    }
+}
@@ -0,0 +1,33 @@
+package com.dev.smartbin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Device authentication against the master catalogue seeded at startup. A successful check is dominated by the
+ * password hash; an unknown device falls through the in-memory index to a repository lookup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeviceAuthBenchmark {
+
+    @Benchmark
+    public Boolean authenticateDevice(SmartBinBenchmarkState state) {
+        return state.masterBinService.authenticateDevice("SB_1234", "SB_1234");
+    }
+
+    @Benchmark
+    public Boolean authenticateUnknownDevice(SmartBinBenchmarkState state) {
+        return state.masterBinService.authenticateDevice("SB_UNKNOWN", "SB_UNKNOWN");
+    }
+}
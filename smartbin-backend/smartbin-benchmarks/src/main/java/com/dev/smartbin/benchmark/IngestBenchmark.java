@@ -0,0 +1,68 @@
+package com.dev.smartbin.benchmark;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fill reading ingestion. {@code addGarbageToBin} stays below the overflow threshold, so the immediate
+ * action check is a no-op; {@code addGarbageToBinWithAction} alternates every bin between 60% and 90%,
+ * so each reading opens or closes an immediate action (the takeNecessaryAction path).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IngestBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    public String addGarbageToBin(SmartBinBenchmarkState state, Cursor cursor) {
+        int reading = cursor.next++;
+        return state.smartBinService.addGarbageToBin(state.deviceId(reading), reading % 70);
+    }
+
+    @Benchmark
+    public String addGarbageToBinWithAction(SmartBinBenchmarkState state, Cursor cursor) {
+        int reading = cursor.next++;
+        int fillPercent = (reading / state.binCount) % 2 == 0 ? 90 : 60;
+        return state.smartBinService.addGarbageToBin(state.deviceId(reading), fillPercent);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<FillReadingResultDTO> addGarbageToBinBatch(SmartBinBenchmarkState state, Cursor cursor) {
+        List<FillReadingDTO> readings = new ArrayList<>(BATCH_SIZE);
+        Date now = new Date();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            int reading = cursor.next++;
+            FillReadingDTO fillReading = new FillReadingDTO();
+            fillReading.setDeviceId(state.deviceId(reading));
+            fillReading.setFillPercent(reading % 70);
+            fillReading.setTimestamp(now);
+            readings.add(fillReading);
+        }
+        return state.smartBinService.addGarbageToBinBatch(readings);
+    }
+}
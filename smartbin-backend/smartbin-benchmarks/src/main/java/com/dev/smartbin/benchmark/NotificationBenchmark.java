@@ -0,0 +1,34 @@
+package com.dev.smartbin.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notification creation. Notifications without a bin always pass suppression, so {@code addNotification}
+ * is bounded by the background writer once the queue is full; {@code addRepeatedBinNotification}
+ * repeats the same bin alert and measures the suppression path.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationBenchmark {
+
+    @Benchmark
+    public void addNotification(SmartBinBenchmarkState state) {
+        state.smartBinService.addNotification("Benchmark notification", "medium", "information", null);
+    }
+
+    @Benchmark
+    public void addRepeatedBinNotification(SmartBinBenchmarkState state) {
+        state.smartBinService.addNotification("Benchmark battery notification", "high", "battery", state.bins[0]);
+    }
+}
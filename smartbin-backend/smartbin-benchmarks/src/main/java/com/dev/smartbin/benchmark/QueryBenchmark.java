@@ -0,0 +1,48 @@
+package com.dev.smartbin.benchmark;
+
+import com.dev.smartbin.DTO.RegionSummaryDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
+import com.dev.smartbin.Service.SmartBinService;
+import com.dev.smartbin.Service.SpatialBinIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The dashboard's read paths: the first page of bins, the first page of notifications,
+ * a 1 km radius search and the per-region summary.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    @Benchmark
+    public List<SmartBinDTO> getSmartBinPage(SmartBinBenchmarkState state) {
+        return state.smartBinService.getSmartBinPage(0, 50, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public SmartBinService.NotificationPage getNotificationPage(SmartBinBenchmarkState state) {
+        return state.smartBinService.getNotificationPage(null, 50, null, null, null);
+    }
+
+    @Benchmark
+    public SpatialBinIndex.Page findBinsWithinRadius(SmartBinBenchmarkState state) {
+        return state.smartBinService.findBinsWithinRadius(19.05, 72.9, 1, 0, 50);
+    }
+
+    @Benchmark
+    public List<RegionSummaryDTO> getRegionSummaries(SmartBinBenchmarkState state) {
+        return state.smartBinService.getRegionSummaries();
+    }
+}
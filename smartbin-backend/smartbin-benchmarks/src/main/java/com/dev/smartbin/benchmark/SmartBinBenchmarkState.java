@@ -0,0 +1,73 @@
+package com.dev.smartbin.benchmark;
+
+import com.dev.smartbin.Model.SmartBin;
+import com.dev.smartbin.Service.MasterBinService;
+import com.dev.smartbin.Service.SmartBinService;
+import com.dev.smartbin.SmartbinApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+
+/**
+ * Boots the application once per fork against the in-memory database of the {@code bench} profile
+ * and onboards {@code binCount} bins spread over four regions around Mumbai.
+ */
+@State(Scope.Benchmark)
+public class SmartBinBenchmarkState {
+
+    private static final String[] REGIONS = {"East", "West", "North", "South"};
+
+    @Param("1000")
+    public int binCount;
+
+    public ConfigurableApplicationContext context;
+    public SmartBinService smartBinService;
+    public MasterBinService masterBinService;
+    public JdbcTemplate jdbcTemplate;
+    public SmartBin[] bins;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(SmartbinApplication.class)
+                .profiles("bench")
+                .web(WebApplicationType.NONE)
+                .run();
+        smartBinService = context.getBean(SmartBinService.class);
+        masterBinService = context.getBean(MasterBinService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        SplittableRandom random = new SplittableRandom(42);
+        bins = new SmartBin[binCount];
+        for (int i = 0; i < binCount; i++) {
+            SmartBin smartBin = new SmartBin();
+            smartBin.setDevice_id(String.format("SB_B%06d", i));
+            smartBin.setRegion(REGIONS[i % REGIONS.length]);
+            smartBin.setSmartbin_location("Mumbai");
+            smartBin.setSmartbin_status("Active");
+            smartBin.setInstallationStatus("Installed");
+            smartBin.setIs_smartbin_Onboarded(true);
+            smartBin.setSmartbin_batteryStatus(100);
+            smartBin.setLatitude(18.9 + random.nextDouble() * 0.3);
+            smartBin.setLongitude(72.8 + random.nextDouble() * 0.2);
+            bins[i] = smartBinService.saveSmartBinData(smartBin);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public String deviceId(int index) {
+        return bins[Math.floorMod(index, binCount)].getDevice_id();
+    }
+}
@@ -0,0 +1,248 @@
+package com.dev.smartbin.benchmark;
+
+import com.dev.smartbin.Service.TelemetryFrame;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load client for the binary telemetry listener. It registers a fleet of bins over HTTP, then streams fill
+ * readings from several connections as fast as the server takes them and reports the send rate. With a
+ * {@code base-url} it follows {@code /smartbin/telemetry/stats} until the ingest queue has drained, so the
+ * applied rate is reported end to end.
+ * <p>
+ * Options are {@code key=value}: host, port, transport (tcp or udp), devices, messages, connections,
+ * frames-per-datagram, base-url (empty to skip registration and server stats).
+ */
+public final class TelemetryLoadClient {
+
+    private TelemetryLoadClient() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0].replaceFirst("^--", ""), option.length > 1 ? option[1] : "");
+        }
+        String host = options.getOrDefault("host", "localhost");
+        int port = Integer.parseInt(options.getOrDefault("port", "7070"));
+        boolean udp = "udp".equalsIgnoreCase(options.getOrDefault("transport", "tcp"));
+        int devices = Integer.parseInt(options.getOrDefault("devices", "1000"));
+        long messages = Long.parseLong(options.getOrDefault("messages", "1000000"));
+        int connections = Math.min(devices, Integer.parseInt(options.getOrDefault("connections", "4")));
+        int framesPerDatagram = Integer.parseInt(options.getOrDefault("frames-per-datagram", "32"));
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+
+        String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+        byte[][] deviceIds = new byte[devices][];
+        for (int i = 0; i < devices; i++) {
+            deviceIds[i] = ("TLM_" + runId + "_" + i).getBytes(StandardCharsets.US_ASCII);
+        }
+        HttpClient httpClient = HttpClient.newHttpClient();
+        Map<String, Long> before = Map.of();
+        if (!baseUrl.isEmpty()) {
+            register(httpClient, baseUrl, deviceIds);
+            before = fetchStats(httpClient, baseUrl);
+        }
+
+        InetSocketAddress address = new InetSocketAddress(host, port);
+        LongAdder sent = new LongAdder();
+        List<Thread> senders = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            int connection = c;
+            long share = messages / connections + (c < messages % connections ? 1 : 0);
+            Thread sender = new Thread(() -> {
+                try {
+                    if (udp) {
+                        sendDatagrams(address, deviceIds, connection, connections, share, framesPerDatagram, sent);
+                    } else {
+                        sendStream(address, deviceIds, connection, connections, share, sent);
+                    }
+                } catch (IOException e) {
+                    System.err.println("connection " + connection + " failed: " + e);
+                }
+            }, "telemetry-load-" + c);
+            sender.start();
+            senders.add(sender);
+        }
+        for (Thread sender : senders) {
+            sender.join();
+        }
+        double sendSeconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("sent %d %s frames from %d devices over %d connections in %.2f s: %.0f msgs/s%n",
+                sent.sum(), udp ? "UDP" : "TCP", devices, connections, sendSeconds, sent.sum() / sendSeconds);
+
+        if (!baseUrl.isEmpty()) {
+            Map<String, Long> stats = awaitDrained(httpClient, baseUrl);
+            double appliedSeconds = (System.nanoTime() - start) / 1e9;
+            Map<String, Long> run = new LinkedHashMap<>();
+            for (Map.Entry<String, Long> stat : stats.entrySet()) {
+                run.put(stat.getKey(), stat.getValue() - before.getOrDefault(stat.getKey(), 0L));
+            }
+            System.out.printf("server received %d, applied %d in %.2f s: %.0f msgs/s end to end%n",
+                    run.get(udp ? "udpQueued" : "tcpQueued"), run.get("applied"), appliedSeconds,
+                    run.get("applied") / appliedSeconds);
+            System.out.println("server stats for this run " + run);
+        }
+    }
+
+    /**
+     * Sends this connection's share of the readings, cycling through its slice of the devices.
+     */
+    private static void sendStream(InetSocketAddress address, byte[][] deviceIds, int connection, int connections,
+                                   long messages, LongAdder sent) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            Readings readings = new Readings(deviceIds, connection, connections);
+            long written = 0;
+            while (written < messages) {
+                buffer.clear();
+                int frames = 0;
+                while (written + frames < messages && readings.encodeNext(buffer)) {
+                    frames++;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                written += frames;
+                sent.add(frames);
+            }
+        }
+    }
+
+    private static void sendDatagrams(InetSocketAddress address, byte[][] deviceIds, int connection, int connections,
+                                      long messages, int framesPerDatagram, LongAdder sent) throws IOException {
+        try (DatagramChannel channel = DatagramChannel.open()) {
+            channel.connect(address);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(framesPerDatagram * TelemetryFrame.MAX_FRAME_BYTES);
+            Readings readings = new Readings(deviceIds, connection, connections);
+            long written = 0;
+            while (written < messages) {
+                buffer.clear();
+                int frames = 0;
+                while (frames < framesPerDatagram && written + frames < messages && readings.encodeNext(buffer)) {
+                    frames++;
+                }
+                buffer.flip();
+                channel.write(buffer);
+                written += frames;
+                sent.add(frames);
+            }
+        }
+    }
+
+    /**
+     * Round-robins over the devices of one connection, each filling by a few percent per reading
+     * and being emptied once full, while its battery slowly drains.
+     */
+    private static final class Readings {
+        private final byte[][] deviceIds;
+        private final int[] fill;
+        private final int first;
+        private final int step;
+        private int next;
+        private long sequence;
+
+        private Readings(byte[][] deviceIds, int first, int step) {
+            this.deviceIds = deviceIds;
+            this.fill = new int[deviceIds.length];
+            this.first = first;
+            this.step = step;
+            this.next = first;
+        }
+
+        private boolean encodeNext(ByteBuffer buffer) {
+            if (next >= deviceIds.length) {
+                return false;
+            }
+            int fillPercent = fill[next] + 1 + next % 3;
+            if (fillPercent > 100) {
+                fillPercent = 0;
+            }
+            int battery = 100 - (int) (sequence / deviceIds.length % 100);
+            if (!TelemetryFrame.encode(buffer, deviceIds[next], fillPercent, battery, 0)) {
+                return false;
+            }
+            fill[next] = fillPercent;
+            sequence++;
+            next += step;
+            if (next >= deviceIds.length) {
+                next = first;
+            }
+            return true;
+        }
+    }
+
+    private static void register(HttpClient httpClient, String baseUrl, byte[][] deviceIds) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < deviceIds.length; i++) {
+            String deviceId = new String(deviceIds[i], StandardCharsets.US_ASCII);
+            String body = "{\"device_id\":\"" + deviceId + "\",\"region\":\"East\",\"smartbin_location\":\"Load test\","
+                    + "\"smartbin_status\":\"Active\",\"installationStatus\":\"Installed\",\"smartbin_batteryStatus\":100,"
+                    + "\"latitude\":" + (19.0 + i % 100 * 0.001) + ",\"longitude\":" + (72.8 + i / 100 % 100 * 0.001) + "}";
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/smartbin/save"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Registering " + deviceId + " failed with HTTP " + response.statusCode());
+            }
+        }
+        System.out.printf("registered %d devices in %.1f s%n", deviceIds.length, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Polls the server until everything it queued has been applied (or stops moving for ten seconds).
+     */
+    private static Map<String, Long> awaitDrained(HttpClient httpClient, String baseUrl) throws Exception {
+        long lastApplied = -1;
+        long idleSince = System.nanoTime();
+        while (true) {
+            Map<String, Long> stats = fetchStats(httpClient, baseUrl);
+            long applied = stats.getOrDefault("applied", 0L) + stats.getOrDefault("failed", 0L);
+            if (stats.getOrDefault("queueDepth", 0L) == 0 && applied >= stats.getOrDefault("queued", 0L)) {
+                return stats;
+            }
+            if (applied != lastApplied) {
+                lastApplied = applied;
+                idleSince = System.nanoTime();
+            } else if (System.nanoTime() - idleSince > Duration.ofSeconds(10).toNanos()) {
+                return stats;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    private static Map<String, Long> fetchStats(HttpClient httpClient, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/smartbin/telemetry/stats"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        String json = httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (String entry : json.replaceAll("[{}\"\\s]", "").split(",")) {
+            String[] field = entry.split(":", 2);
+            if (field.length == 2) {
+                stats.put(field[0], Long.parseLong(field[1]));
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,25 @@
+package com.dev.smartbin.Controller;
+
+import com.dev.smartbin.Service.DashboardEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@CrossOrigin
+@RestController
+@RequestMapping(path = "/dashboard")
+public class DashboardStreamController {
+
+    @Autowired
+    private DashboardEventBroadcaster dashboardEventBroadcaster;
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDashboardEvents() {
+        return dashboardEventBroadcaster.subscribe();
+    }
+
+}
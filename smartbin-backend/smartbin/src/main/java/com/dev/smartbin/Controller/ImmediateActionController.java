@@ -1,12 +1,16 @@
 package com.dev.smartbin.Controller;
 
 
+import com.dev.smartbin.DTO.CollectionPlanDTO;
 import com.dev.smartbin.Model.ImmediateActionBin;
 import com.dev.smartbin.Service.SmartBinService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -19,9 +23,48 @@ public class ImmediateActionController {
     @Autowired
     private SmartBinService smartBinService;
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private static final long MAX_TIME_BUDGET_MS = 10_000;
+
+    /**
+     * Open immediate actions of active bins. The cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
     @GetMapping(path = "/find")
-    public List<ImmediateActionBin> getAllImmediateActionBin() {
-        return smartBinService.getAllImmediateActionActiveSmartBin();
+    public ResponseEntity<List<ImmediateActionBin>> getAllImmediateActionBin(@RequestParam(required = false) String cursor,
+                                                                             @RequestParam(defaultValue = "200") int size,
+                                                                             @RequestParam(defaultValue = "severity") String orderBy) {
+        SmartBinService.ImmediateActionPage page;
+        try {
+            page = smartBinService.getImmediateActionActiveSmartBin(cursor,
+                    Math.max(1, Math.min(size, MAX_PAGE_SIZE)), orderBy);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(List.of());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.actions());
+    }
+
+    /**
+     * Pickup routes from the depot over the current actionable bins; {@code capacity} is the number of bins
+     * a truck empties per trip.
+     */
+    @GetMapping(path = "/routes")
+    public CollectionPlanDTO getCollectionRoutes(@RequestParam double depotLat,
+                                                 @RequestParam double depotLon,
+                                                 @RequestParam(defaultValue = "20") int capacity,
+                                                 @RequestParam(defaultValue = "800") long timeBudgetMs) {
+        return smartBinService.planCollectionRoutes(depotLat, depotLon, Math.max(1, capacity),
+                Math.max(0, Math.min(timeBudgetMs, MAX_TIME_BUDGET_MS)));
     }
 
 
@@ -1,6 +1,7 @@
 package com.dev.smartbin.Controller;
 
 
+import com.dev.smartbin.DTO.DeviceCredentialsDTO;
 import com.dev.smartbin.Model.MasterBins;
 import com.dev.smartbin.Repository.MasterBinRepo;
 import com.dev.smartbin.Service.MasterBinService;
@@ -22,6 +23,20 @@ public class MasterBinController {
         return masterBinService.findAllBin();
     }
 
+    @PostMapping(path = "/authenticate")
+    public Boolean authenticateDevice(@RequestBody DeviceCredentialsDTO credentials) {
+        return masterBinService.authenticateDevice(credentials.getDevice_id(), credentials.getPassword());
+    }
+
+    @DeleteMapping(path = "/delete/{deviceId}")
+    public String deleteMasterBin(@PathVariable String deviceId) {
+        return masterBinService.deleteMasterBin(deviceId);
+    }
+
+    /**
+     * @deprecated sends the password in the URL; use POST /masterbins/authenticate instead.
+     */
+    @Deprecated
     @GetMapping(path = "/authenticate/{deviceId}/{password}")
     public Boolean authenticateDevice(@PathVariable String deviceId, @PathVariable String password) {
         return masterBinService.authenticateDevice(deviceId, password);
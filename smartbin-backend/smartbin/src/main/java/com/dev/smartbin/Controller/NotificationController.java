@@ -1,27 +1,92 @@
 package com.dev.smartbin.Controller;
 
-import com.dev.smartbin.Model.ImmediateActionBin;
-import com.dev.smartbin.Model.Notification;
+import com.dev.smartbin.DTO.MarkNotificationsReadDTO;
+import com.dev.smartbin.DTO.NotificationEventDTO;
 import com.dev.smartbin.Service.SmartBinService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin
 @RestController
 @RequestMapping(path = "/notification")
 public class NotificationController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private SmartBinService smartBinService;
 
+    /**
+     * Unread-first, newest-first notifications. The cursor for the next page is returned in the
+     * {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
     @GetMapping(path = "/find")
-    public List<Notification> getAllNotification() {
-        return smartBinService.getAllNotification();
+    public ResponseEntity<List<NotificationEventDTO>> getNotifications(@RequestParam(required = false) String cursor,
+                                                                       @RequestParam(defaultValue = "50") int limit,
+                                                                       @RequestParam(required = false) String severity,
+                                                                       @RequestParam(required = false) String type,
+                                                                       @RequestParam(required = false) String deviceId) {
+        SmartBinService.NotificationPage page;
+        try {
+            page = smartBinService.getNotificationPage(cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)),
+                    severity, type, deviceId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(List.of());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.notifications());
+    }
+
+    @GetMapping(path = "/unread/count")
+    public Map<String, Long> getUnreadNotificationCount() {
+        return Map.of("unread", smartBinService.getUnreadNotificationCount());
+    }
+
+    @PostMapping(path = "/markRead")
+    public ResponseEntity<Map<String, Integer>> markNotificationsRead(@RequestBody MarkNotificationsReadDTO request) {
+        if (ObjectUtils.isEmpty(request.getIds()) && request.getBefore() == null) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("updated", 0));
+        }
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(Map.of("updated", smartBinService.markNotificationsRead(request)));
+    }
+
+    @GetMapping(path = "/pipeline/stats")
+    public Map<String, Number> getNotificationPipelineStats() {
+        return smartBinService.getNotificationPipelineStats();
+    }
+
+    @GetMapping(path = "/compaction/stats")
+    public Map<String, Long> getNotificationCompactionStats() {
+        return smartBinService.getNotificationCompactionStats();
+    }
+
+    @GetMapping(path = "/suppression/stats")
+    public Map<String, Object> getNotificationSuppressionStats() {
+        return smartBinService.getNotificationSuppressionStats();
     }
 
 }
@@ -0,0 +1,95 @@
+package com.dev.smartbin.Controller;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many bin, device and onboarding requests run at once so they never queue up on the connection pool. This matters
+ * most with virtual threads ({@code spring.threads.virtual.enabled}), where the Tomcat thread pool no longer
+ * bounds concurrency. A request that cannot get a permit within the wait gets 503 with Retry-After.
+ * With asynchronous ingest the fill reading endpoints only enqueue, so they bypass the bulkhead.
+ */
+@Component
+public class RequestBulkhead implements HandlerInterceptor, WebMvcConfigurer, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestBulkhead.class);
+
+    private static final String PERMIT_ATTRIBUTE = RequestBulkhead.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitMs;
+    private final boolean asyncIngest;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RequestBulkhead(@Value("${smartbin.bulkhead.max-concurrent:16}") int maxConcurrent,
+                           @Value("${smartbin.bulkhead.max-wait-ms:1000}") long maxWaitMs,
+                           @Value("${smartbin.ingest.mode:SYNC}") String ingestMode,
+                           @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMs = maxWaitMs;
+        this.asyncIngest = "ASYNC".equalsIgnoreCase(ingestMode);
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            logger.warn("spring.threads.virtual.enabled needs Java 21, requests stay on platform threads");
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        var registration = registry.addInterceptor(this)
+                .addPathPatterns("/smartbin/**", "/masterbins/**", "/deviceOnboardRequest/**");
+        if (asyncIngest) {
+            registration.excludePathPatterns("/smartbin/AddGarbageToBin/**");
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+        if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, retry later");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.bulkhead.in-flight", permits, semaphore -> maxConcurrent - semaphore.availablePermits())
+                .register(registry);
+        Gauge.builder("smartbin.bulkhead.waiting", permits, Semaphore::getQueueLength).register(registry);
+        FunctionCounter.builder("smartbin.bulkhead.rejected", rejected, LongAdder::sum).register(registry);
+    }
+}
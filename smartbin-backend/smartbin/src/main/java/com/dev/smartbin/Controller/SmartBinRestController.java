@@ -1,8 +1,18 @@
 package com.dev.smartbin.Controller;
 
 
+import com.dev.smartbin.DTO.BinHistoryPointDTO;
+import com.dev.smartbin.DTO.BinLocationDTO;
+import com.dev.smartbin.DTO.FillForecastDTO;
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import com.dev.smartbin.DTO.RegionSummaryDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
 import com.dev.smartbin.Model.SmartBin;
+import com.dev.smartbin.Service.BinStateEngine;
+import com.dev.smartbin.Service.ReadingHistoryStore;
 import com.dev.smartbin.Service.SmartBinService;
+import com.dev.smartbin.Service.SpatialBinIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +20,7 @@ import org.springframework.util.ObjectUtils;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @CrossOrigin
 @RestController
@@ -24,13 +35,137 @@ public class SmartBinRestController {
         return smartBinService.saveSmartBinData(smartBin);
     }
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Cursor-paged bin listing. The body is the page itself; when more rows may follow, the id to pass
+     * as {@code after} for the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
     @GetMapping(path = "/find")
-    public List<SmartBin> getSmartBinData() {
-        return smartBinService.getSmartBinData();
+    public ResponseEntity<List<SmartBinDTO>> getSmartBinData(@RequestParam(defaultValue = "0") long after,
+                                                             @RequestParam(defaultValue = "500") int limit,
+                                                             @RequestParam(required = false) String region,
+                                                             @RequestParam(required = false) String status,
+                                                             @RequestParam(required = false) Boolean onboarded,
+                                                             @RequestParam(required = false) Integer minFill,
+                                                             @RequestParam(required = false) Integer maxFill) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<SmartBinDTO> page = smartBinService.getSmartBinPage(after, pageSize, region, status, onboarded, minFill, maxFill);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Bins within {@code radiusKm} of a point, nearest first, served from the in-memory spatial index.
+     * The offset of the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
+    @GetMapping(path = "/near")
+    public ResponseEntity<List<BinLocationDTO>> findBinsWithinRadius(@RequestParam double lat,
+                                                                     @RequestParam double lon,
+                                                                     @RequestParam double radiusKm,
+                                                                     @RequestParam(defaultValue = "0") int offset,
+                                                                     @RequestParam(defaultValue = "500") int limit) {
+        return toPageResponse(smartBinService.findBinsWithinRadius(lat, lon, Math.max(0, radiusKm), Math.max(0, offset),
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    /**
+     * Bins inside a bounding box in id order; the id to pass as {@code after} for the next page is returned
+     * in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    @CrossOrigin(exposedHeaders = NEXT_CURSOR_HEADER)
+    @GetMapping(path = "/within")
+    public ResponseEntity<List<BinLocationDTO>> findBinsWithinBoundingBox(@RequestParam double minLat,
+                                                                          @RequestParam double minLon,
+                                                                          @RequestParam double maxLat,
+                                                                          @RequestParam double maxLon,
+                                                                          @RequestParam(defaultValue = "0") long after,
+                                                                          @RequestParam(defaultValue = "500") int limit) {
+        return toPageResponse(smartBinService.findBinsWithinBoundingBox(minLat, minLon, maxLat, maxLon, after,
+                Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    private static ResponseEntity<List<BinLocationDTO>> toPageResponse(SpatialBinIndex.Page page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.bins());
+    }
+
+    @GetMapping(path = "/regions/summary")
+    public List<RegionSummaryDTO> getRegionSummaries() {
+        return smartBinService.getRegionSummaries();
+    }
+
+    @GetMapping(path = "/cache/stats")
+    public Map<String, Long> getDeviceRegistryCacheStats() {
+        return smartBinService.getDeviceRegistryCacheStats();
+    }
+
+    @GetMapping(path = "/telemetry/stats")
+    public Map<String, Long> getTelemetryStats() {
+        return smartBinService.getTelemetryStats();
+    }
+
+    @GetMapping(path = "/gateway/stats")
+    public Map<String, Long> getTopicGatewayStats() {
+        return smartBinService.getTopicGatewayStats();
+    }
+
+    @GetMapping(path = "/history/{deviceId}")
+    public ResponseEntity<List<BinHistoryPointDTO>> getSmartBinHistory(@PathVariable String deviceId,
+                                                                       @RequestParam(defaultValue = "30") int days,
+                                                                       @RequestParam(required = false) ReadingHistoryStore.Resolution resolution) {
+        return smartBinService.getSmartBinHistory(deviceId, Math.max(1, days), resolution)
+                .map(history -> ResponseEntity.status(HttpStatus.OK).body(history))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(List.of()));
+    }
+
+    @GetMapping(path = "/history/stats")
+    public Map<String, Long> getReadingHistoryStats() {
+        return smartBinService.getReadingHistoryStats();
+    }
+
+    /**
+     * Bins predicted to overflow within {@code withinHours}, soonest first.
+     */
+    @GetMapping(path = "/forecast")
+    public List<FillForecastDTO> getOverflowForecast(@RequestParam(defaultValue = "24") double withinHours,
+                                                     @RequestParam(required = false) String region,
+                                                     @RequestParam(defaultValue = "100") int limit) {
+        return smartBinService.getOverflowForecast(withinHours, region, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
     }
 
+    @GetMapping(path = "/forecast/{deviceId}")
+    public ResponseEntity<FillForecastDTO> getFillForecast(@PathVariable String deviceId) {
+        return smartBinService.getFillForecast(deviceId)
+                .map(forecast -> ResponseEntity.status(HttpStatus.OK).body(forecast))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    /**
+     * Applies the reading and answers 200, or with asynchronous ingest answers 202 once it is queued
+     * (503 when the ingest queue is full).
+     */
     @PostMapping(path = "/AddGarbageToBin/{deviceId}/{fillPercent}")
     public ResponseEntity<?> addGarbageToBin(@PathVariable String deviceId, @PathVariable int fillPercent) {
+        if (smartBinService.isAsyncIngest()) {
+            FillReadingDTO reading = new FillReadingDTO();
+            reading.setDeviceId(deviceId);
+            reading.setFillPercent(fillPercent);
+            FillReadingResultDTO result = smartBinService.submitFillReadings(List.of(reading)).get(0);
+            return ResponseEntity
+                    .status(submitStatus(List.of(result)))
+                    .body(result.getMessage());
+        }
         String response = smartBinService.addGarbageToBin(deviceId, fillPercent);
         if (ObjectUtils.isEmpty(response)) {
             return ResponseEntity
@@ -43,4 +178,36 @@ public class SmartBinRestController {
         }
     }
 
+    @PostMapping(path = "/AddGarbageToBin/batch")
+    public ResponseEntity<List<FillReadingResultDTO>> addGarbageToBinBatch(@RequestBody List<FillReadingDTO> readings) {
+        if (ObjectUtils.isEmpty(readings)) {
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(List.of());
+        }
+        if (smartBinService.isAsyncIngest()) {
+            List<FillReadingResultDTO> results = smartBinService.submitFillReadings(readings);
+            return ResponseEntity
+                    .status(submitStatus(results))
+                    .body(results);
+        }
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(smartBinService.addGarbageToBinBatch(readings));
+    }
+
+    /**
+     * 202 when anything was queued, 503 when readings were only turned away by a full queue, otherwise 400.
+     */
+    private static HttpStatus submitStatus(List<FillReadingResultDTO> results) {
+        boolean queueFull = false;
+        for (FillReadingResultDTO result : results) {
+            if (BinStateEngine.QUEUED.equals(result.getStatus())) {
+                return HttpStatus.ACCEPTED;
+            }
+            queueFull |= BinStateEngine.QUEUE_FULL.equals(result.getMessage());
+        }
+        return queueFull ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.BAD_REQUEST;
+    }
+
 }
@@ -0,0 +1,108 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Date;
+
+public class BinHistoryPointDTO {
+
+    private Date bucketStart;
+    private Integer minFill;
+    private Integer maxFill;
+    private Double avgFill;
+    private Integer minBattery;
+    private Integer maxBattery;
+    private Double avgBattery;
+    private int samples;
+
+    public BinHistoryPointDTO() {
+    }
+
+    public BinHistoryPointDTO(Date bucketStart, Integer minFill, Integer maxFill, Double avgFill,
+                              Integer minBattery, Integer maxBattery, Double avgBattery, int samples) {
+        this.bucketStart = bucketStart;
+        this.minFill = minFill;
+        this.maxFill = maxFill;
+        this.avgFill = avgFill;
+        this.minBattery = minBattery;
+        this.maxBattery = maxBattery;
+        this.avgBattery = avgBattery;
+        this.samples = samples;
+    }
+
+    public Date getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Date bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Integer getMinFill() {
+        return minFill;
+    }
+
+    public void setMinFill(Integer minFill) {
+        this.minFill = minFill;
+    }
+
+    public Integer getMaxFill() {
+        return maxFill;
+    }
+
+    public void setMaxFill(Integer maxFill) {
+        this.maxFill = maxFill;
+    }
+
+    public Double getAvgFill() {
+        return avgFill;
+    }
+
+    public void setAvgFill(Double avgFill) {
+        this.avgFill = avgFill;
+    }
+
+    public Integer getMinBattery() {
+        return minBattery;
+    }
+
+    public void setMinBattery(Integer minBattery) {
+        this.minBattery = minBattery;
+    }
+
+    public Integer getMaxBattery() {
+        return maxBattery;
+    }
+
+    public void setMaxBattery(Integer maxBattery) {
+        this.maxBattery = maxBattery;
+    }
+
+    public Double getAvgBattery() {
+        return avgBattery;
+    }
+
+    public void setAvgBattery(Double avgBattery) {
+        this.avgBattery = avgBattery;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public String toString() {
+        return "BinHistoryPointDTO{" +
+                "bucketStart=" + bucketStart +
+                ", minFill=" + minFill +
+                ", maxFill=" + maxFill +
+                ", avgFill=" + avgFill +
+                ", minBattery=" + minBattery +
+                ", maxBattery=" + maxBattery +
+                ", avgBattery=" + avgBattery +
+                ", samples=" + samples +
+                '}';
+    }
+}
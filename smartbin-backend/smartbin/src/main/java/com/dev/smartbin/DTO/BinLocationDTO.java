@@ -0,0 +1,86 @@
+package com.dev.smartbin.DTO;
+
+public class BinLocationDTO {
+
+    private long id;
+    private String deviceId;
+    private String region;
+    private double latitude;
+    private double longitude;
+    private Double distanceKm;
+
+    public BinLocationDTO() {
+    }
+
+    public BinLocationDTO(long id, String deviceId, String region, double latitude, double longitude, Double distanceKm) {
+        this.id = id;
+        this.deviceId = deviceId;
+        this.region = region;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distanceKm = distanceKm;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * Distance from the query point, only set for radius queries.
+     */
+    public Double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(Double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    @Override
+    public String toString() {
+        return "BinLocationDTO{" +
+                "id=" + id +
+                ", deviceId='" + deviceId + '\'' +
+                ", region='" + region + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", distanceKm=" + distanceKm +
+                '}';
+    }
+}
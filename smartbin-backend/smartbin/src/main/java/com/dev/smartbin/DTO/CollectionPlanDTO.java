@@ -0,0 +1,81 @@
+package com.dev.smartbin.DTO;
+
+import java.util.List;
+
+public class CollectionPlanDTO {
+
+    private List<CollectionRouteDTO> routes;
+    private List<String> unroutedDeviceIds;
+    private double totalDistanceKm;
+    private long elapsedMillis;
+    private boolean budgetExhausted;
+
+    public CollectionPlanDTO() {
+    }
+
+    public CollectionPlanDTO(List<CollectionRouteDTO> routes, List<String> unroutedDeviceIds, double totalDistanceKm,
+                             long elapsedMillis, boolean budgetExhausted) {
+        this.routes = routes;
+        this.unroutedDeviceIds = unroutedDeviceIds;
+        this.totalDistanceKm = totalDistanceKm;
+        this.elapsedMillis = elapsedMillis;
+        this.budgetExhausted = budgetExhausted;
+    }
+
+    public List<CollectionRouteDTO> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<CollectionRouteDTO> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * Actionable bins that could not be routed because they have no coordinates.
+     */
+    public List<String> getUnroutedDeviceIds() {
+        return unroutedDeviceIds;
+    }
+
+    public void setUnroutedDeviceIds(List<String> unroutedDeviceIds) {
+        this.unroutedDeviceIds = unroutedDeviceIds;
+    }
+
+    public double getTotalDistanceKm() {
+        return totalDistanceKm;
+    }
+
+    public void setTotalDistanceKm(double totalDistanceKm) {
+        this.totalDistanceKm = totalDistanceKm;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * True when 2-opt improvement was cut short by the time budget; the routes are still complete.
+     */
+    public boolean isBudgetExhausted() {
+        return budgetExhausted;
+    }
+
+    public void setBudgetExhausted(boolean budgetExhausted) {
+        this.budgetExhausted = budgetExhausted;
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionPlanDTO{" +
+                "routes=" + routes +
+                ", unroutedDeviceIds=" + unroutedDeviceIds +
+                ", totalDistanceKm=" + totalDistanceKm +
+                ", elapsedMillis=" + elapsedMillis +
+                ", budgetExhausted=" + budgetExhausted +
+                '}';
+    }
+}
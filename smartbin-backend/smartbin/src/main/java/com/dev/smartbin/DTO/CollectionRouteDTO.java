@@ -0,0 +1,66 @@
+package com.dev.smartbin.DTO;
+
+import java.util.List;
+
+/**
+ * One truck trip: leaves the depot, visits the stops in order and returns to the depot.
+ */
+public class CollectionRouteDTO {
+
+    private String region;
+    private int trip;
+    private List<RouteStopDTO> stops;
+    private double distanceKm;
+
+    public CollectionRouteDTO() {
+    }
+
+    public CollectionRouteDTO(String region, int trip, List<RouteStopDTO> stops, double distanceKm) {
+        this.region = region;
+        this.trip = trip;
+        this.stops = stops;
+        this.distanceKm = distanceKm;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public int getTrip() {
+        return trip;
+    }
+
+    public void setTrip(int trip) {
+        this.trip = trip;
+    }
+
+    public List<RouteStopDTO> getStops() {
+        return stops;
+    }
+
+    public void setStops(List<RouteStopDTO> stops) {
+        this.stops = stops;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+
+    @Override
+    public String toString() {
+        return "CollectionRouteDTO{" +
+                "region='" + region + '\'' +
+                ", trip=" + trip +
+                ", stops=" + stops.size() +
+                ", distanceKm=" + distanceKm +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package com.dev.smartbin.DTO;
+
+public class DeviceCredentialsDTO {
+
+    private String device_id;
+    private String password;
+
+    public String getDevice_id() {
+        return device_id;
+    }
+
+    public void setDevice_id(String device_id) {
+        this.device_id = device_id;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    @Override
+    public String toString() {
+        return "DeviceCredentialsDTO{" +
+                "device_id='" + device_id + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,97 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Date;
+
+public class FillForecastDTO {
+
+    private String deviceId;
+    private String region;
+    private int percentFilled;
+    private double fillRatePerHour;
+    private Double hoursToFull;
+    private Date predictedFullAt;
+    private int samples;
+
+    public FillForecastDTO() {
+    }
+
+    public FillForecastDTO(String deviceId, String region, int percentFilled, double fillRatePerHour,
+                           Double hoursToFull, Date predictedFullAt, int samples) {
+        this.deviceId = deviceId;
+        this.region = region;
+        this.percentFilled = percentFilled;
+        this.fillRatePerHour = fillRatePerHour;
+        this.hoursToFull = hoursToFull;
+        this.predictedFullAt = predictedFullAt;
+        this.samples = samples;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public int getPercentFilled() {
+        return percentFilled;
+    }
+
+    public void setPercentFilled(int percentFilled) {
+        this.percentFilled = percentFilled;
+    }
+
+    public double getFillRatePerHour() {
+        return fillRatePerHour;
+    }
+
+    public void setFillRatePerHour(double fillRatePerHour) {
+        this.fillRatePerHour = fillRatePerHour;
+    }
+
+    public Double getHoursToFull() {
+        return hoursToFull;
+    }
+
+    public void setHoursToFull(Double hoursToFull) {
+        this.hoursToFull = hoursToFull;
+    }
+
+    public Date getPredictedFullAt() {
+        return predictedFullAt;
+    }
+
+    public void setPredictedFullAt(Date predictedFullAt) {
+        this.predictedFullAt = predictedFullAt;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public void setSamples(int samples) {
+        this.samples = samples;
+    }
+
+    @Override
+    public String toString() {
+        return "FillForecastDTO{" +
+                "deviceId='" + deviceId + '\'' +
+                ", region='" + region + '\'' +
+                ", percentFilled=" + percentFilled +
+                ", fillRatePerHour=" + fillRatePerHour +
+                ", hoursToFull=" + hoursToFull +
+                ", predictedFullAt=" + predictedFullAt +
+                ", samples=" + samples +
+                '}';
+    }
+}
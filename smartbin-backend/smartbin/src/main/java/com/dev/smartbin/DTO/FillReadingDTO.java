@@ -0,0 +1,53 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Date;
+
+public class FillReadingDTO {
+
+    private String deviceId;
+    private Integer fillPercent;
+    private Integer battery;
+    private Date timestamp;
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public Integer getFillPercent() {
+        return fillPercent;
+    }
+
+    public void setFillPercent(Integer fillPercent) {
+        this.fillPercent = fillPercent;
+    }
+
+    public Integer getBattery() {
+        return battery;
+    }
+
+    public void setBattery(Integer battery) {
+        this.battery = battery;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return "FillReadingDTO{" +
+                "deviceId='" + deviceId + '\'' +
+                ", fillPercent=" + fillPercent +
+                ", battery=" + battery +
+                ", timestamp=" + timestamp +
+                '}';
+    }
+}
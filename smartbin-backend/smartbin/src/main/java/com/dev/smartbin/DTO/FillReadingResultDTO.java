@@ -0,0 +1,61 @@
+package com.dev.smartbin.DTO;
+
+public class FillReadingResultDTO {
+
+    private String deviceId;
+    private Integer fillPercent;
+    private String status;
+    private String message;
+
+    public FillReadingResultDTO() {
+    }
+
+    public FillReadingResultDTO(String deviceId, Integer fillPercent, String status, String message) {
+        this.deviceId = deviceId;
+        this.fillPercent = fillPercent;
+        this.status = status;
+        this.message = message;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public Integer getFillPercent() {
+        return fillPercent;
+    }
+
+    public void setFillPercent(Integer fillPercent) {
+        this.fillPercent = fillPercent;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "FillReadingResultDTO{" +
+                "deviceId='" + deviceId + '\'' +
+                ", fillPercent=" + fillPercent +
+                ", status='" + status + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package com.dev.smartbin.DTO;
+
+public class ImmediateActionEventDTO {
+
+    private long id;
+    private String deviceId;
+    private String region;
+    private String location;
+    private String immediateAction_status;
+    private int percentFilled;
+
+    public ImmediateActionEventDTO() {
+    }
+
+    public ImmediateActionEventDTO(long id, String deviceId, String region, String location,
+                                   String immediateAction_status, int percentFilled) {
+        this.id = id;
+        this.deviceId = deviceId;
+        this.region = region;
+        this.location = location;
+        this.immediateAction_status = immediateAction_status;
+        this.percentFilled = percentFilled;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public String getImmediateAction_status() {
+        return immediateAction_status;
+    }
+
+    public void setImmediateAction_status(String immediateAction_status) {
+        this.immediateAction_status = immediateAction_status;
+    }
+
+    public int getPercentFilled() {
+        return percentFilled;
+    }
+
+    public void setPercentFilled(int percentFilled) {
+        this.percentFilled = percentFilled;
+    }
+
+    @Override
+    public String toString() {
+        return "ImmediateActionEventDTO{" +
+                "id=" + id +
+                ", deviceId='" + deviceId + '\'' +
+                ", immediateAction_status='" + immediateAction_status + '\'' +
+                ", percentFilled=" + percentFilled +
+                '}';
+    }
+}
@@ -0,0 +1,37 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Bulk mark-as-read request: either explicit notification ids, or every notification created before a timestamp.
+ */
+public class MarkNotificationsReadDTO {
+
+    private List<Long> ids;
+    private Date before;
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Date getBefore() {
+        return before;
+    }
+
+    public void setBefore(Date before) {
+        this.before = before;
+    }
+
+    @Override
+    public String toString() {
+        return "MarkNotificationsReadDTO{" +
+                "ids=" + ids +
+                ", before=" + before +
+                '}';
+    }
+}
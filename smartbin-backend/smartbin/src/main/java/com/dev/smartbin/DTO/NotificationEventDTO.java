@@ -0,0 +1,124 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Date;
+
+public class NotificationEventDTO {
+
+    private long id;
+    private String type;
+    private String message;
+    private String severity;
+    private Date createdAt;
+    private boolean read;
+    private String deviceId;
+    private String location;
+    private int occurrenceCount;
+    private Date lastSeenAt;
+
+    public NotificationEventDTO() {
+    }
+
+    public NotificationEventDTO(long id, String type, String message, String severity, Date createdAt,
+                                boolean read, String deviceId, String location, int occurrenceCount, Date lastSeenAt) {
+        this.id = id;
+        this.type = type;
+        this.message = message;
+        this.severity = severity;
+        this.createdAt = createdAt;
+        this.read = read;
+        this.deviceId = deviceId;
+        this.location = location;
+        this.occurrenceCount = occurrenceCount;
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(int occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public Date getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Date lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationEventDTO{" +
+                "id=" + id +
+                ", type='" + type + '\'' +
+                ", severity='" + severity + '\'' +
+                ", deviceId='" + deviceId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,123 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Map;
+
+public class RegionSummaryDTO {
+
+    private String region;
+    private long binCount;
+    private Map<String, Long> countByStatus;
+    private long onboardedCount;
+    private double avgFill;
+    private int maxFill;
+    private long criticalFillCount;
+    private long lowBatteryCount;
+    private long openActionCount;
+
+    public RegionSummaryDTO() {
+    }
+
+    public RegionSummaryDTO(String region, long binCount, Map<String, Long> countByStatus, long onboardedCount,
+                            double avgFill, int maxFill, long criticalFillCount, long lowBatteryCount,
+                            long openActionCount) {
+        this.region = region;
+        this.binCount = binCount;
+        this.countByStatus = countByStatus;
+        this.onboardedCount = onboardedCount;
+        this.avgFill = avgFill;
+        this.maxFill = maxFill;
+        this.criticalFillCount = criticalFillCount;
+        this.lowBatteryCount = lowBatteryCount;
+        this.openActionCount = openActionCount;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public long getBinCount() {
+        return binCount;
+    }
+
+    public void setBinCount(long binCount) {
+        this.binCount = binCount;
+    }
+
+    public Map<String, Long> getCountByStatus() {
+        return countByStatus;
+    }
+
+    public void setCountByStatus(Map<String, Long> countByStatus) {
+        this.countByStatus = countByStatus;
+    }
+
+    public long getOnboardedCount() {
+        return onboardedCount;
+    }
+
+    public void setOnboardedCount(long onboardedCount) {
+        this.onboardedCount = onboardedCount;
+    }
+
+    public double getAvgFill() {
+        return avgFill;
+    }
+
+    public void setAvgFill(double avgFill) {
+        this.avgFill = avgFill;
+    }
+
+    public int getMaxFill() {
+        return maxFill;
+    }
+
+    public void setMaxFill(int maxFill) {
+        this.maxFill = maxFill;
+    }
+
+    /**
+     * Bins at or above the Critical fill level (95%).
+     */
+    public long getCriticalFillCount() {
+        return criticalFillCount;
+    }
+
+    public void setCriticalFillCount(long criticalFillCount) {
+        this.criticalFillCount = criticalFillCount;
+    }
+
+    public long getLowBatteryCount() {
+        return lowBatteryCount;
+    }
+
+    public void setLowBatteryCount(long lowBatteryCount) {
+        this.lowBatteryCount = lowBatteryCount;
+    }
+
+    public long getOpenActionCount() {
+        return openActionCount;
+    }
+
+    public void setOpenActionCount(long openActionCount) {
+        this.openActionCount = openActionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RegionSummaryDTO{" +
+                "region='" + region + '\'' +
+                ", binCount=" + binCount +
+                ", countByStatus=" + countByStatus +
+                ", onboardedCount=" + onboardedCount +
+                ", avgFill=" + avgFill +
+                ", maxFill=" + maxFill +
+                ", criticalFillCount=" + criticalFillCount +
+                ", lowBatteryCount=" + lowBatteryCount +
+                ", openActionCount=" + openActionCount +
+                '}';
+    }
+}
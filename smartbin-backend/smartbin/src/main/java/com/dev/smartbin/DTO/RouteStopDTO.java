@@ -0,0 +1,108 @@
+package com.dev.smartbin.DTO;
+
+/**
+ * One actionable bin on a collection route; built directly by JPQL from Immediate_Action_Bin and Smart_Bin.
+ */
+public class RouteStopDTO {
+
+    private long actionId;
+    private String deviceId;
+    private String region;
+    private Double latitude;
+    private Double longitude;
+    private String immediateAction_status;
+    private int severityRank;
+    private int percentFilled;
+
+    public RouteStopDTO() {
+    }
+
+    public RouteStopDTO(long actionId, String deviceId, String region, Double latitude, Double longitude,
+                        String immediateAction_status, int severityRank, int percentFilled) {
+        this.actionId = actionId;
+        this.deviceId = deviceId;
+        this.region = region;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.immediateAction_status = immediateAction_status;
+        this.severityRank = severityRank;
+        this.percentFilled = percentFilled;
+    }
+
+    public long getActionId() {
+        return actionId;
+    }
+
+    public void setActionId(long actionId) {
+        this.actionId = actionId;
+    }
+
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    public String getImmediateAction_status() {
+        return immediateAction_status;
+    }
+
+    public void setImmediateAction_status(String immediateAction_status) {
+        this.immediateAction_status = immediateAction_status;
+    }
+
+    public int getSeverityRank() {
+        return severityRank;
+    }
+
+    public void setSeverityRank(int severityRank) {
+        this.severityRank = severityRank;
+    }
+
+    public int getPercentFilled() {
+        return percentFilled;
+    }
+
+    public void setPercentFilled(int percentFilled) {
+        this.percentFilled = percentFilled;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteStopDTO{" +
+                "actionId=" + actionId +
+                ", deviceId='" + deviceId + '\'' +
+                ", region='" + region + '\'' +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
+                ", immediateAction_status='" + immediateAction_status + '\'' +
+                ", percentFilled=" + percentFilled +
+                '}';
+    }
+}
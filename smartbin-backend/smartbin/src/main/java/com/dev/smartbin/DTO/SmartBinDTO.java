@@ -1,4 +1,148 @@
 package com.dev.smartbin.DTO;
 
+import com.dev.smartbin.Model.SmartBin;
+
+/**
+ * Read-only projection of a SmartBin row, built directly by JPQL so list queries never hydrate entities.
+ * Property names match the SmartBin entity JSON.
+ */
 public class SmartBinDTO {
+
+    private long id;
+    private String device_id;
+    private String region;
+    private String smartbin_location;
+    private String installationStatus;
+    private String smartbin_status;
+    private Integer smartbin_batteryStatus;
+    private boolean is_smartbin_Onboarded;
+    private int percent_filled;
+    private Double latitude;
+    private Double longitude;
+
+    public SmartBinDTO() {
+    }
+
+    public SmartBinDTO(long id, String device_id, String region, String smartbin_location, String installationStatus,
+                       String smartbin_status, Integer smartbin_batteryStatus, boolean is_smartbin_Onboarded,
+                       int percent_filled, Double latitude, Double longitude) {
+        this.id = id;
+        this.device_id = device_id;
+        this.region = region;
+        this.smartbin_location = smartbin_location;
+        this.installationStatus = installationStatus;
+        this.smartbin_status = smartbin_status;
+        this.smartbin_batteryStatus = smartbin_batteryStatus;
+        this.is_smartbin_Onboarded = is_smartbin_Onboarded;
+        this.percent_filled = percent_filled;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public static SmartBinDTO fromSmartBin(SmartBin smartBin) {
+        return new SmartBinDTO(smartBin.getId(), smartBin.getDevice_id(), smartBin.getRegion(),
+                smartBin.getSmartbin_location(), smartBin.getInstallationStatus(), smartBin.getSmartbin_status(),
+                smartBin.getSmartbin_batteryStatus(), smartBin.isIs_smartbin_Onboarded(), smartBin.getPercent_filled(),
+                smartBin.getLatitude(), smartBin.getLongitude());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getDevice_id() {
+        return device_id;
+    }
+
+    public void setDevice_id(String device_id) {
+        this.device_id = device_id;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public String getSmartbin_location() {
+        return smartbin_location;
+    }
+
+    public void setSmartbin_location(String smartbin_location) {
+        this.smartbin_location = smartbin_location;
+    }
+
+    public String getInstallationStatus() {
+        return installationStatus;
+    }
+
+    public void setInstallationStatus(String installationStatus) {
+        this.installationStatus = installationStatus;
+    }
+
+    public String getSmartbin_status() {
+        return smartbin_status;
+    }
+
+    public void setSmartbin_status(String smartbin_status) {
+        this.smartbin_status = smartbin_status;
+    }
+
+    public Integer getSmartbin_batteryStatus() {
+        return smartbin_batteryStatus;
+    }
+
+    public void setSmartbin_batteryStatus(Integer smartbin_batteryStatus) {
+        this.smartbin_batteryStatus = smartbin_batteryStatus;
+    }
+
+    public boolean isIs_smartbin_Onboarded() {
+        return is_smartbin_Onboarded;
+    }
+
+    public void setIs_smartbin_Onboarded(boolean is_smartbin_Onboarded) {
+        this.is_smartbin_Onboarded = is_smartbin_Onboarded;
+    }
+
+    public int getPercent_filled() {
+        return percent_filled;
+    }
+
+    public void setPercent_filled(int percent_filled) {
+        this.percent_filled = percent_filled;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
+    @Override
+    public String toString() {
+        return "SmartBinDTO{" +
+                "id=" + id +
+                ", device_id='" + device_id + '\'' +
+                ", region='" + region + '\'' +
+                ", smartbin_location='" + smartbin_location + '\'' +
+                ", smartbin_status='" + smartbin_status + '\'' +
+                ", percent_filled=" + percent_filled +
+                '}';
+    }
 }
@@ -0,0 +1,39 @@
+package com.dev.smartbin.DTO;
+
+import java.util.Date;
+
+/**
+ * Payload of a {@code bins/{deviceId}/fill} or {@code bins/{deviceId}/battery} message, e.g.
+ * {@code {"seq": 42, "value": 87, "timestamp": 1760000000000}}. The sequence number increases with every
+ * message a device publishes on the topic; the timestamp is optional.
+ */
+public class TopicReadingDTO {
+
+    private Long seq;
+    private Integer value;
+    private Date timestamp;
+
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public Integer getValue() {
+        return value;
+    }
+
+    public void setValue(Integer value) {
+        this.value = value;
+    }
+
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Date timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,85 @@
+package com.dev.smartbin.Model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Append-only raw reading. Rows are only ever inserted (in JDBC batches) and removed by the retention job;
+ * a reading carries whichever of fill or battery was measured.
+ */
+@Entity
+@Table(name = "Bin_Reading", indexes = {
+        @Index(name = "ix_bin_reading_bin_time", columnList = "smart_bin_id, reading_at"),
+        @Index(name = "ix_bin_reading_time", columnList = "reading_at")
+})
+public class BinReading {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bin_reading_id", updatable = false, nullable = false)
+    private long id;
+
+    @Column(name = "smart_bin_id", nullable = false)
+    private long smartBinId;
+
+    @Column(name = "reading_at", nullable = false)
+    private Date readingAt;
+
+    @Column(name = "percent_filled")
+    private Integer percentFilled;
+
+    @Column(name = "battery_status")
+    private Integer batteryStatus;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getSmartBinId() {
+        return smartBinId;
+    }
+
+    public void setSmartBinId(long smartBinId) {
+        this.smartBinId = smartBinId;
+    }
+
+    public Date getReadingAt() {
+        return readingAt;
+    }
+
+    public void setReadingAt(Date readingAt) {
+        this.readingAt = readingAt;
+    }
+
+    public Integer getPercentFilled() {
+        return percentFilled;
+    }
+
+    public void setPercentFilled(Integer percentFilled) {
+        this.percentFilled = percentFilled;
+    }
+
+    public Integer getBatteryStatus() {
+        return batteryStatus;
+    }
+
+    public void setBatteryStatus(Integer batteryStatus) {
+        this.batteryStatus = batteryStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "BinReading{" +
+                "id=" + id +
+                ", smartBinId=" + smartBinId +
+                ", readingAt=" + readingAt +
+                ", percentFilled=" + percentFilled +
+                ", batteryStatus=" + batteryStatus +
+                '}';
+    }
+}
@@ -0,0 +1,169 @@
+package com.dev.smartbin.Model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Downsampled readings of one bin for one time bucket. Sums and counts are kept instead of averages so
+ * a bucket can be merged with further readings by a single upsert.
+ */
+@Entity
+@Table(name = "Bin_Reading_Rollup", indexes = {
+        @Index(name = "ux_bin_reading_rollup_bucket", columnList = "smart_bin_id, resolution_seconds, bucket_start", unique = true),
+        @Index(name = "ix_bin_reading_rollup_retention", columnList = "resolution_seconds, bucket_start")
+})
+public class BinReadingRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "bin_reading_rollup_id", updatable = false, nullable = false)
+    private long id;
+
+    @Column(name = "smart_bin_id", nullable = false)
+    private long smartBinId;
+
+    @Column(name = "resolution_seconds", nullable = false)
+    private int resolutionSeconds;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Date bucketStart;
+
+    @Column(name = "min_fill")
+    private Integer minFill;
+
+    @Column(name = "max_fill")
+    private Integer maxFill;
+
+    @Column(name = "fill_sum", nullable = false)
+    private long fillSum;
+
+    @Column(name = "fill_count", nullable = false)
+    private int fillCount;
+
+    @Column(name = "min_battery")
+    private Integer minBattery;
+
+    @Column(name = "max_battery")
+    private Integer maxBattery;
+
+    @Column(name = "battery_sum", nullable = false)
+    private long batterySum;
+
+    @Column(name = "battery_count", nullable = false)
+    private int batteryCount;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public long getSmartBinId() {
+        return smartBinId;
+    }
+
+    public void setSmartBinId(long smartBinId) {
+        this.smartBinId = smartBinId;
+    }
+
+    public int getResolutionSeconds() {
+        return resolutionSeconds;
+    }
+
+    public void setResolutionSeconds(int resolutionSeconds) {
+        this.resolutionSeconds = resolutionSeconds;
+    }
+
+    public Date getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Date bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Integer getMinFill() {
+        return minFill;
+    }
+
+    public void setMinFill(Integer minFill) {
+        this.minFill = minFill;
+    }
+
+    public Integer getMaxFill() {
+        return maxFill;
+    }
+
+    public void setMaxFill(Integer maxFill) {
+        this.maxFill = maxFill;
+    }
+
+    public long getFillSum() {
+        return fillSum;
+    }
+
+    public void setFillSum(long fillSum) {
+        this.fillSum = fillSum;
+    }
+
+    public int getFillCount() {
+        return fillCount;
+    }
+
+    public void setFillCount(int fillCount) {
+        this.fillCount = fillCount;
+    }
+
+    public Integer getMinBattery() {
+        return minBattery;
+    }
+
+    public void setMinBattery(Integer minBattery) {
+        this.minBattery = minBattery;
+    }
+
+    public Integer getMaxBattery() {
+        return maxBattery;
+    }
+
+    public void setMaxBattery(Integer maxBattery) {
+        this.maxBattery = maxBattery;
+    }
+
+    public long getBatterySum() {
+        return batterySum;
+    }
+
+    public void setBatterySum(long batterySum) {
+        this.batterySum = batterySum;
+    }
+
+    public int getBatteryCount() {
+        return batteryCount;
+    }
+
+    public void setBatteryCount(int batteryCount) {
+        this.batteryCount = batteryCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BinReadingRollup{" +
+                "id=" + id +
+                ", smartBinId=" + smartBinId +
+                ", resolutionSeconds=" + resolutionSeconds +
+                ", bucketStart=" + bucketStart +
+                ", minFill=" + minFill +
+                ", maxFill=" + maxFill +
+                ", fillSum=" + fillSum +
+                ", fillCount=" + fillCount +
+                ", minBattery=" + minBattery +
+                ", maxBattery=" + maxBattery +
+                ", batterySum=" + batterySum +
+                ", batteryCount=" + batteryCount +
+                '}';
+    }
+}
@@ -3,10 +3,18 @@ package com.dev.smartbin.Model;
 
 import jakarta.persistence.*;
 
+import java.util.Date;
+
 @Entity
-@Table(name = "Immediate_Action_Bin")
+@Table(name = "Immediate_Action_Bin", indexes = {
+        @Index(name = "ix_immediate_action_priority",
+                columnList = "action_state, severity_rank DESC, created_at, immediate_action_bin_id")
+})
 public class ImmediateActionBin {
 
+    public static final String OPEN = "Open";
+    public static final String CLOSED = "Closed";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "immediate_action_bin_id", updatable = false, nullable = false)
@@ -15,8 +23,29 @@ public class ImmediateActionBin {
     @Column
     private String immediateAction_status;
 
+    /**
+     * Numeric form of immediateAction_status (Critical 3, High 2, Medium 1) so ordering by severity can use an index.
+     */
+    @Column(name = "severity_rank")
+    private int severityRank;
+
+    /**
+     * {@link #OPEN} while the bin needs collection, {@link #CLOSED} once its fill drops back; a bin keeps a single row.
+     */
+    @Column(name = "action_state")
+    private String actionState;
+
+    @Column(name = "created_at")
+    private Date createdAt;
+
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    @Column(name = "closed_at")
+    private Date closedAt;
+
     @OneToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name="smart_bin_id", referencedColumnName = "smart_bin_id")
+    @JoinColumn(name="smart_bin_id", referencedColumnName = "smart_bin_id", unique = true)
     private SmartBin smartBin;
 
     public long getId() {
@@ -35,6 +64,46 @@ public class ImmediateActionBin {
         this.immediateAction_status = immediateAction_status;
     }
 
+    public int getSeverityRank() {
+        return severityRank;
+    }
+
+    public void setSeverityRank(int severityRank) {
+        this.severityRank = severityRank;
+    }
+
+    public String getActionState() {
+        return actionState;
+    }
+
+    public void setActionState(String actionState) {
+        this.actionState = actionState;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Date getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(Date closedAt) {
+        this.closedAt = closedAt;
+    }
+
     public SmartBin getSmartBin() {
         return smartBin;
     }
@@ -48,6 +117,11 @@ public class ImmediateActionBin {
         return "ImmediateActionBin{" +
                 "id=" + id +
                 ", immediateAction_status='" + immediateAction_status + '\'' +
+                ", severityRank=" + severityRank +
+                ", actionState='" + actionState + '\'' +
+                ", createdAt=" + createdAt +
+                ", updatedAt=" + updatedAt +
+                ", closedAt=" + closedAt +
                 ", smartBin=" + smartBin +
                 '}';
     }
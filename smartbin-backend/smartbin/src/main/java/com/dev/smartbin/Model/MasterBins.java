@@ -1,11 +1,14 @@
 package com.dev.smartbin.Model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 import java.util.UUID;
 
 @Entity
-@Table(name="Master_Bin")
+@Table(name="Master_Bin", indexes = {
+        @Index(name = "ux_master_bin_device_id", columnList = "device_id", unique = true)
+})
 public class MasterBins {
 
     @Id
@@ -16,6 +19,10 @@ public class MasterBins {
     @Column
     private String device_id;
 
+    /**
+     * Salted PBKDF2 hash, see {@link com.dev.smartbin.Service.PasswordHasher}.
+     */
+    @JsonIgnore
     @Column
     private String device_password;
 
@@ -48,7 +55,6 @@ public class MasterBins {
         return "MasterBins{" +
                 "id=" + id +
                 ", device_id='" + device_id + '\'' +
-                ", device_password='" + device_password + '\'' +
                 '}';
     }
 }
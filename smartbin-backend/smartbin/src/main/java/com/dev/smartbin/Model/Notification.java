@@ -7,7 +7,13 @@ import org.springframework.data.annotation.CreatedDate;
 import java.util.Date;
 
 @Entity
-@Table(name = "Notification")
+@Table(name = "Notification", indexes = {
+        @Index(name = "ix_notification_read_id", columnList = "is_read, notification_id"),
+        @Index(name = "ix_notification_severity_read_id", columnList = "severity, is_read, notification_id"),
+        @Index(name = "ix_notification_type_read_id", columnList = "type, is_read, notification_id"),
+        @Index(name = "ix_notification_bin_read_id", columnList = "smart_bin_id, is_read, notification_id"),
+        @Index(name = "ix_notification_read_created", columnList = "is_read, createdAt")
+})
 public class Notification {
 
     @Id
@@ -32,6 +38,15 @@ public class Notification {
     @Column(name = "is_read", nullable = false, columnDefinition = "TINYINT(1)")
     private boolean read;
 
+    /**
+     * Number of identical alerts (same bin, type, severity and read state) collapsed into this row by compaction.
+     */
+    @Column(name = "occurrence_count", nullable = false)
+    private int occurrenceCount = 1;
+
+    @Column(name = "last_seen_at")
+    private Date lastSeenAt;
+
     @ManyToOne(cascade = CascadeType.ALL)
     @JoinColumn(name="smart_bin_id", referencedColumnName = "smart_bin_id")
     private SmartBin smartBin;
@@ -84,6 +99,22 @@ public class Notification {
         this.read = read;
     }
 
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(int occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public Date getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Date lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
     public SmartBin getSmartBin() {
         return smartBin;
     }
@@ -101,6 +132,8 @@ public class Notification {
                 ", severity='" + severity + '\'' +
                 ", createdAt=" + createdAt +
                 ", read=" + read +
+                ", occurrenceCount=" + occurrenceCount +
+                ", lastSeenAt=" + lastSeenAt +
                 ", smartBin=" + smartBin +
                 '}';
     }
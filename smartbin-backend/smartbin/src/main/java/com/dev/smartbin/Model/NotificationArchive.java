@@ -0,0 +1,130 @@
+package com.dev.smartbin.Model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Read notifications moved out of the Notification table by the compaction job. The bin is kept as a plain
+ * id so archived rows survive the bin being removed.
+ */
+@Entity
+@Table(name = "Notification_Archive", indexes = {
+        @Index(name = "ix_notification_archive_archived", columnList = "archived_at"),
+        @Index(name = "ix_notification_archive_bin", columnList = "smart_bin_id")
+})
+public class NotificationArchive {
+
+    @Id
+    @Column(name = "notification_id", updatable = false, nullable = false)
+    private long id;
+
+    @Column
+    private String type;
+
+    @Column
+    private String message;
+
+    @Column
+    private String severity;
+
+    @Column(name = "createdAt")
+    private Date createdAt;
+
+    @Column(name = "last_seen_at")
+    private Date lastSeenAt;
+
+    @Column(name = "occurrence_count", nullable = false)
+    private int occurrenceCount;
+
+    @Column(name = "smart_bin_id")
+    private Long smartBinId;
+
+    @Column(name = "archived_at", nullable = false)
+    private Date archivedAt;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getSeverity() {
+        return severity;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Date lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public int getOccurrenceCount() {
+        return occurrenceCount;
+    }
+
+    public void setOccurrenceCount(int occurrenceCount) {
+        this.occurrenceCount = occurrenceCount;
+    }
+
+    public Long getSmartBinId() {
+        return smartBinId;
+    }
+
+    public void setSmartBinId(Long smartBinId) {
+        this.smartBinId = smartBinId;
+    }
+
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(Date archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "NotificationArchive{" +
+                "id=" + id +
+                ", type='" + type + '\'' +
+                ", severity='" + severity + '\'' +
+                ", createdAt=" + createdAt +
+                ", occurrenceCount=" + occurrenceCount +
+                ", smartBinId=" + smartBinId +
+                ", archivedAt=" + archivedAt +
+                '}';
+    }
+}
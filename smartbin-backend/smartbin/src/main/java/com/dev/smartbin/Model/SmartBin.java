@@ -5,7 +5,10 @@ import jakarta.persistence.*;
 import java.util.UUID;
 
 @Entity
-@Table(name="Smart_Bin")
+@Table(name="Smart_Bin", indexes = {
+        @Index(name = "ux_smart_bin_device_id", columnList = "device_id", unique = true),
+        @Index(name = "ix_smart_bin_battery", columnList = "smartbin_batteryStatus, smart_bin_id")
+})
 public class SmartBin {
 
     @Id
@@ -28,8 +31,11 @@ public class SmartBin {
     @Column
     private String smartbin_status;
 
+    /**
+     * Battery charge in percent, numeric so drainage and low-battery scans run in the database.
+     */
     @Column
-    private String smartbin_batteryStatus;
+    private Integer smartbin_batteryStatus;
 
     @Column(
             name = "is_smartbin_onboarded",
@@ -42,6 +48,15 @@ public class SmartBin {
     @Column
     private int percent_filled;
 
+    /**
+     * WGS84 position of the bin, used for collection routing; smartbin_location stays the display address.
+     */
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
 //    /**
 //     * 1-to-1 relationship with DEVICE_ONBOARD_REQUEST
 //     * SmartBin is the parent entity
@@ -89,11 +104,11 @@ public class SmartBin {
         this.smartbin_status = smartbin_status;
     }
 
-    public String getSmartbin_batteryStatus() {
+    public Integer getSmartbin_batteryStatus() {
         return smartbin_batteryStatus;
     }
 
-    public void setSmartbin_batteryStatus(String smartbin_batteryStatus) {
+    public void setSmartbin_batteryStatus(Integer smartbin_batteryStatus) {
         this.smartbin_batteryStatus = smartbin_batteryStatus;
     }
 
@@ -122,6 +137,22 @@ public class SmartBin {
 //    }
 
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public String getRegion() {
         return region;
     }
@@ -138,9 +169,11 @@ public class SmartBin {
                 ", smartbin_location='" + smartbin_location + '\'' +
                 ", installationStatus='" + installationStatus + '\'' +
                 ", smartbin_status='" + smartbin_status + '\'' +
-                ", smartbin_batteryStatus='" + smartbin_batteryStatus + '\'' +
+                ", smartbin_batteryStatus=" + smartbin_batteryStatus +
                 ", is_smartbin_Onboarded=" + is_smartbin_Onboarded +
                 ", percent_filled=" + percent_filled +
+                ", latitude=" + latitude +
+                ", longitude=" + longitude +
                 '}';
     }
 }
@@ -1,11 +1,116 @@
 package com.dev.smartbin.Repository;
 
 
+import com.dev.smartbin.DTO.RouteStopDTO;
 import com.dev.smartbin.Model.ImmediateActionBin;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 public interface ImmediateActionBinRepo extends JpaRepository<ImmediateActionBin, Long> {
 
+    interface ImmediateActionState {
+        long getId();
+
+        int getSeverityRank();
+
+        String getActionState();
+    }
+
+    /**
+     * Keyset page of open actions, most severe first then oldest first, after the (rank, createdAt, id) cursor;
+     * served in index order by ix_immediate_action_priority.
+     */
+    @Query("""
+                SELECT a
+                FROM ImmediateActionBin a
+                JOIN FETCH a.smartBin s
+                WHERE a.actionState = 'Open' AND s.smartbin_status = :smartbin_status
+                  AND (a.severityRank < :after_rank
+                       OR (a.severityRank = :after_rank
+                           AND (a.createdAt > :after_created_at
+                                OR (a.createdAt = :after_created_at AND a.id > :after_id))))
+                ORDER BY a.severityRank DESC, a.createdAt, a.id
+            """)
+    List<ImmediateActionBin> findImmediateActionPageBySeverity(@Param("smartbin_status") String smartbin_status,
+                                                               @Param("after_rank") int after_rank,
+                                                               @Param("after_created_at") Date after_created_at,
+                                                               @Param("after_id") long after_id,
+                                                               Limit limit);
+
+    /**
+     * Keyset page of open actions, oldest first then most severe first, after the (rank, createdAt, id) cursor.
+     */
+    @Query("""
+                SELECT a
+                FROM ImmediateActionBin a
+                JOIN FETCH a.smartBin s
+                WHERE a.actionState = 'Open' AND s.smartbin_status = :smartbin_status
+                  AND (a.createdAt > :after_created_at
+                       OR (a.createdAt = :after_created_at
+                           AND (a.severityRank < :after_rank
+                                OR (a.severityRank = :after_rank AND a.id > :after_id))))
+                ORDER BY a.createdAt, a.severityRank DESC, a.id
+            """)
+    List<ImmediateActionBin> findImmediateActionPageByAge(@Param("smartbin_status") String smartbin_status,
+                                                          @Param("after_rank") int after_rank,
+                                                          @Param("after_created_at") Date after_created_at,
+                                                          @Param("after_id") long after_id,
+                                                          Limit limit);
+
+    @Query("""
+                SELECT new com.dev.smartbin.DTO.RouteStopDTO(
+                    a.id, s.device_id, s.region, s.latitude, s.longitude,
+                    a.immediateAction_status, a.severityRank, s.percent_filled)
+                FROM ImmediateActionBin a
+                JOIN a.smartBin s
+                WHERE a.actionState = 'Open' AND s.smartbin_status = :smartbin_status
+                ORDER BY a.severityRank DESC, a.createdAt, a.id
+            """)
+    List<RouteStopDTO> findRouteStopsBySmartBinStatus(@Param("smartbin_status") String smartbin_status, Limit limit);
+
+    @Query("SELECT a.smartBin.id FROM ImmediateActionBin a WHERE a.actionState = 'Open'")
+    List<Long> findOpenActionSmartBinIds();
+
+    @Query("""
+                SELECT a.id AS id, a.severityRank AS severityRank, a.actionState AS actionState
+                FROM ImmediateActionBin a
+                WHERE a.smartBin.id = :smart_bin_id
+            """)
+    Optional<ImmediateActionState> findImmediateActionStateBySmartBinId(@Param("smart_bin_id") long smart_bin_id);
+
+    /**
+     * Escalates or de-escalates an action in place; a closed action is re-opened with a fresh createdAt.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE ImmediateActionBin a
+                SET a.immediateAction_status = :status,
+                    a.severityRank = :severity_rank,
+                    a.createdAt = CASE WHEN a.actionState = 'Open' THEN a.createdAt ELSE :now END,
+                    a.updatedAt = :now,
+                    a.closedAt = NULL,
+                    a.actionState = 'Open'
+                WHERE a.id = :id
+            """)
+    int openImmediateAction(@Param("id") long id, @Param("status") String status,
+                            @Param("severity_rank") int severity_rank, @Param("now") Date now);
 
+    @Modifying
+    @Transactional
+    @Query("""
+                UPDATE ImmediateActionBin a
+                SET a.actionState = 'Closed', a.closedAt = :now, a.updatedAt = :now
+                WHERE a.id = :id
+            """)
+    int closeImmediateAction(@Param("id") long id, @Param("now") Date now);
 
 }
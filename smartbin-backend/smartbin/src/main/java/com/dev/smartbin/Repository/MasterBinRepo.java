@@ -2,10 +2,17 @@ package com.dev.smartbin.Repository;
 
 import com.dev.smartbin.Model.MasterBins;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface MasterBinRepo extends JpaRepository<MasterBins, Long> {
+
+    @Query("SELECT m FROM MasterBins m WHERE m.device_id = :device_id")
+    Optional<MasterBins> findMasterBinByDeviceId(@Param("device_id") String device_id);
+
 }
@@ -1,10 +1,63 @@
 package com.dev.smartbin.Repository;
 
+import com.dev.smartbin.DTO.NotificationEventDTO;
 import com.dev.smartbin.Model.Notification;
-import com.dev.smartbin.Model.SmartBin;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
 
 @Repository
 public interface NotificationRepo extends JpaRepository<Notification, Long> {
+
+    /**
+     * Newest-first page of either unread or read notifications below {@code before_id}; every filter
+     * combination is served by one of the (filter, is_read, notification_id) indexes.
+     */
+    @Query("""
+                SELECT new com.dev.smartbin.DTO.NotificationEventDTO(
+                    n.id, n.type, n.message, n.severity, n.createdAt, n.read, s.device_id, s.smartbin_location,
+                    n.occurrenceCount, n.lastSeenAt)
+                FROM Notification n
+                LEFT JOIN n.smartBin s
+                WHERE n.read = :read AND n.id < :before_id
+                  AND (:severity IS NULL OR n.severity = :severity)
+                  AND (:type IS NULL OR n.type = :type)
+                  AND (:smart_bin_id IS NULL OR n.smartBin.id = :smart_bin_id)
+                ORDER BY n.id DESC
+            """)
+    List<NotificationEventDTO> findNotificationPage(@Param("read") boolean read,
+                                                    @Param("before_id") long before_id,
+                                                    @Param("severity") String severity,
+                                                    @Param("type") String type,
+                                                    @Param("smart_bin_id") Long smart_bin_id,
+                                                    Limit limit);
+
+    @Query("SELECT COUNT(n) FROM Notification n WHERE n.read = false")
+    long countUnread();
+
+    @Query("SELECT MAX(n.id) FROM Notification n WHERE n.smartBin.id = :smart_bin_id AND n.type = :type")
+    Long findLastNotificationId(@Param("smart_bin_id") long smart_bin_id, @Param("type") String type);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.occurrenceCount = n.occurrenceCount + :occurrences WHERE n.id = :id")
+    int addOccurrences(@Param("id") long id, @Param("occurrences") int occurrences);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.read = true WHERE n.read = false AND n.id IN :ids")
+    int markReadByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.read = true WHERE n.read = false AND n.createdAt < :before")
+    int markReadBefore(@Param("before") Date before);
 }
@@ -1,11 +1,17 @@
 package com.dev.smartbin.Repository;
 
+import com.dev.smartbin.DTO.SmartBinDTO;
 import com.dev.smartbin.Model.SmartBin;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,4 +21,49 @@ public interface SmartBinRepo extends JpaRepository<SmartBin, Long> {
     @Query("SELECT s FROM SmartBin s WHERE s.device_id = :device_id")
     Optional<SmartBin> findSmartBinByDeviceId(@Param("device_id") String device_id);
 
+    @Query("SELECT s FROM SmartBin s WHERE s.device_id IN :device_ids")
+    List<SmartBin> findSmartBinsByDeviceIds(@Param("device_ids") Collection<String> device_ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SmartBin s SET s.smartbin_batteryStatus = s.smartbin_batteryStatus - 1 WHERE s.smartbin_batteryStatus > 0")
+    int drainBatteryByOnePercent();
+
+    /**
+     * Keyset page of bins under the battery threshold in (battery, id) order, after the given cursor;
+     * served in index order by ix_smart_bin_battery.
+     */
+    @Query("""
+                SELECT s
+                FROM SmartBin s
+                WHERE s.smartbin_batteryStatus < :threshold
+                  AND (s.smartbin_batteryStatus > :after_battery
+                       OR (s.smartbin_batteryStatus = :after_battery AND s.id > :after_id))
+                ORDER BY s.smartbin_batteryStatus, s.id
+            """)
+    List<SmartBin> findLowBatteryBinsAfter(@Param("threshold") int threshold, @Param("after_battery") int after_battery,
+                                           @Param("after_id") long after_id, Limit limit);
+
+    @Query("""
+                SELECT new com.dev.smartbin.DTO.SmartBinDTO(
+                    s.id, s.device_id, s.region, s.smartbin_location, s.installationStatus,
+                    s.smartbin_status, s.smartbin_batteryStatus, s.is_smartbin_Onboarded, s.percent_filled,
+                    s.latitude, s.longitude)
+                FROM SmartBin s
+                WHERE s.id > :after_id
+                  AND (:region IS NULL OR s.region = :region)
+                  AND (:status IS NULL OR s.smartbin_status = :status)
+                  AND (:onboarded IS NULL OR s.is_smartbin_Onboarded = :onboarded)
+                  AND (:min_fill IS NULL OR s.percent_filled >= :min_fill)
+                  AND (:max_fill IS NULL OR s.percent_filled <= :max_fill)
+                ORDER BY s.id
+            """)
+    List<SmartBinDTO> findSmartBinPage(@Param("after_id") long after_id,
+                                       @Param("region") String region,
+                                       @Param("status") String status,
+                                       @Param("onboarded") Boolean onboarded,
+                                       @Param("min_fill") Integer min_fill,
+                                       @Param("max_fill") Integer max_fill,
+                                       Limit limit);
+
 }
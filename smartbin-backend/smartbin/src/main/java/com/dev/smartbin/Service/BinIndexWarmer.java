@@ -0,0 +1,65 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.SmartBinDTO;
+import com.dev.smartbin.Repository.ImmediateActionBinRepo;
+import com.dev.smartbin.Repository.SmartBinRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loads the in-memory bin indexes at startup from a single keyset scan of smart_bin, each page feeding the
+ * spatial index, the fill forecaster and the region aggregates.
+ */
+@Component
+public class BinIndexWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinIndexWarmer.class);
+
+    private static final int WARM_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private SmartBinRepo smartBinRepo;
+
+    @Autowired
+    private ImmediateActionBinRepo immediateActionBinRepo;
+
+    @Autowired
+    private SpatialBinIndex spatialBinIndex;
+
+    @Autowired
+    private FillRateForecaster fillRateForecaster;
+
+    @Autowired
+    private RegionAggregates regionAggregates;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        long startedAt = System.currentTimeMillis();
+        Set<Long> openActionBinIds = new HashSet<>(immediateActionBinRepo.findOpenActionSmartBinIds());
+        long afterId = 0;
+        int scanned = 0;
+        List<SmartBinDTO> page;
+        do {
+            page = smartBinRepo.findSmartBinPage(afterId, null, null, null, null, null, Limit.of(WARM_CHUNK_SIZE));
+            for (SmartBinDTO smartBin : page) {
+                spatialBinIndex.warm(smartBin);
+                fillRateForecaster.warm(smartBin, startedAt);
+                regionAggregates.warm(smartBin, openActionBinIds.contains(smartBin.getId()));
+                afterId = smartBin.getId();
+            }
+            scanned += page.size();
+        } while (page.size() == WARM_CHUNK_SIZE);
+        logger.info("warm: scanned {} bins in {} ms, indexed {} locations, seeded {} forecasts, aggregated {} regions",
+                scanned, System.currentTimeMillis() - startedAt, spatialBinIndex.size(),
+                fillRateForecaster.getTrackedBinCount(), regionAggregates.getRegionCount());
+    }
+}
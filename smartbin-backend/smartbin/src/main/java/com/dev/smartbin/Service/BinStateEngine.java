@@ -0,0 +1,401 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import com.dev.smartbin.Model.SmartBin;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-device state engine all fill and battery readings go through. Devices are partitioned by deviceId hash
+ * over a fixed set of shards; each shard is a single writer with its own mailbox and thread, and owns the state
+ * of its bins (fill, battery and the bin itself), so readings of one device are applied strictly in order
+ * without locks while different shards apply theirs in parallel.
+ * <p>
+ * A shard drains its mailbox in batches and applies each batch with {@link SmartBinService#applyShardBatch},
+ * one transaction per batch that hands only the bins whose state changed to the {@link BinWriteBehindBuffer}.
+ * Synchronous callers wait for their readings to be applied; in {@link IngestMode#ASYNC} the REST endpoints,
+ * like the telemetry listener, only queue them. Changes to a bin made elsewhere must {@link #evict} it, which
+ * is ordered with its readings. A batch that fails is split and its halves applied separately, so a bad
+ * reading only fails itself and not the rest of its shard's batch.
+ */
+@Component
+public class BinStateEngine implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinStateEngine.class);
+
+    public static final String QUEUED = "QUEUED";
+    public static final String QUEUE_FULL = "Ingest Queue Full";
+
+    private static final String EVICT_ALL = "";
+
+    public enum IngestMode {
+        SYNC,
+        ASYNC
+    }
+
+    /**
+     * A reading to apply, or with {@code evict} set a bin (or every bin) whose state has to be reloaded.
+     */
+    private record Command(FillReadingDTO reading, CompletableFuture<FillReadingResultDTO> result, String evict) {
+    }
+
+    private static final class Shard {
+        private final LinkedBlockingQueue<Command> mailbox;
+        // detached bins by deviceId, only touched by the shard thread
+        private final Map<String, SmartBin> bins = new HashMap<>();
+
+        private Shard(int capacity) {
+            this.mailbox = new LinkedBlockingQueue<>(capacity);
+        }
+    }
+
+    @Autowired
+    @Lazy
+    private SmartBinService smartBinService;
+
+    @Autowired
+    private DeviceRegistryCache deviceRegistryCache;
+
+    // also makes the shards stop before the buffer's final flush
+    @Autowired
+    private BinWriteBehindBuffer binWriteBehindBuffer;
+
+    private final IngestMode mode;
+    private final int batchSize;
+    private final long submitTimeoutMs;
+    private final Shard[] shards;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder splitBatches = new LongAdder();
+
+    private volatile boolean running;
+
+    public BinStateEngine(@Value("${smartbin.ingest.mode:SYNC}") IngestMode mode,
+                          @Value("${smartbin.state.shards:0}") int shards,
+                          @Value("${smartbin.state.mailbox-capacity:100000}") int capacity,
+                          @Value("${smartbin.state.batch-size:500}") int batchSize,
+                          @Value("${smartbin.state.submit-timeout-ms:30000}") long submitTimeoutMs) {
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.submitTimeoutMs = submitTimeoutMs;
+        this.shards = new Shard[shardCount(shards)];
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = new Shard(Math.max(1, capacity / this.shards.length));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = shards[i];
+            Thread worker = new Thread(() -> drainLoop(shard), "bin-state-shard-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        logger.info("start: {} ingest over {} shards", mode, shards.length);
+    }
+
+    /**
+     * Stops taking commands, lets the shards apply what is already queued and fails whatever they did not get to.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        IllegalStateException stopped = new IllegalStateException("The bin state engine is stopped");
+        int abandoned = 0;
+        for (Shard shard : shards) {
+            List<Command> left = new ArrayList<>();
+            shard.mailbox.drainTo(left);
+            for (Command command : left) {
+                if (command.reading() != null) {
+                    abandoned++;
+                    if (command.result() != null) {
+                        command.result().completeExceptionally(stopped);
+                    }
+                }
+            }
+        }
+        if (abandoned > 0) {
+            failed.add(abandoned);
+            logger.warn("stop: {} fill readings were not applied", abandoned);
+        }
+    }
+
+    public boolean isAsync() {
+        return mode == IngestMode.ASYNC;
+    }
+
+    /**
+     * Queues a validated reading without waiting, returning false when its shard's mailbox is full or the engine is stopped.
+     */
+    public boolean offer(FillReadingDTO reading) {
+        if (running && shardOf(reading.getDeviceId()).mailbox.offer(new Command(reading, null, null))) {
+            queued.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Applies the readings and waits for them, returning the results in the order of the readings.
+     * Readings without a timestamp are stamped with the time they were submitted.
+     *
+     * @throws IllegalStateException when the engine is stopped or the readings are not applied within
+     *                               {@code smartbin.state.submit-timeout-ms}
+     */
+    public List<FillReadingResultDTO> submit(List<FillReadingDTO> readings) {
+        if (!running) {
+            throw new IllegalStateException("The bin state engine is stopped");
+        }
+        long deadline = System.currentTimeMillis() + submitTimeoutMs;
+        Date submittedAt = new Date();
+        List<CompletableFuture<FillReadingResultDTO>> futures = new ArrayList<>(readings.size());
+        for (FillReadingDTO reading : readings) {
+            if (reading.getTimestamp() == null) {
+                reading.setTimestamp(submittedAt);
+            }
+            CompletableFuture<FillReadingResultDTO> result = new CompletableFuture<>();
+            put(shardOf(reading.getDeviceId()), new Command(reading, result, null), deadline);
+            futures.add(result);
+        }
+        List<FillReadingResultDTO> results = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<FillReadingResultDTO> future : futures) {
+                results.add(future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS));
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Timed out waiting for the bin state engine", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the bin state engine", e);
+        }
+        return results;
+    }
+
+    /**
+     * Drops the shard's state of a bin changed outside the engine, after the readings already queued for it.
+     */
+    public void evict(String deviceId) {
+        // once stopped there is no state left to reload
+        if (running && deviceId != null) {
+            put(shardOf(deviceId), new Command(null, null, deviceId), System.currentTimeMillis() + submitTimeoutMs);
+        }
+    }
+
+    public void evictAll() {
+        long deadline = System.currentTimeMillis() + submitTimeoutMs;
+        for (Shard shard : shards) {
+            if (running) {
+                put(shard, new Command(null, null, EVICT_ALL), deadline);
+            }
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("shards", (long) shards.length);
+        stats.put("queueDepth", queueDepth());
+        stats.put("queued", queued.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("applied", applied.sum());
+        stats.put("failed", failed.sum());
+        stats.put("batches", batches.sum());
+        stats.put("splitBatches", splitBatches.sum());
+        binWriteBehindBuffer.getStats().forEach((name, value) -> stats.put("writeBehind." + name, value));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.ingest.queue.depth", this, BinStateEngine::queueDepth).register(registry);
+        Gauge.builder("smartbin.ingest.shards", shards, all -> all.length).register(registry);
+        FunctionCounter.builder("smartbin.ingest.queued", queued, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.ingest.rejected", rejected, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.ingest.applied", applied, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.ingest.failed", failed, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.ingest.batches", batches, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.ingest.batches.split", splitBatches, LongAdder::sum).register(registry);
+    }
+
+    private long queueDepth() {
+        long depth = 0;
+        for (Shard shard : shards) {
+            depth += shard.mailbox.size();
+        }
+        return depth;
+    }
+
+    private Shard shardOf(String deviceId) {
+        return shards[shardIndex(deviceId, shards.length)];
+    }
+
+    /**
+     * Number of shards for {@code smartbin.state.shards}, one per processor when it is not set.
+     */
+    static int shardCount(int configured) {
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Shard of a device; per-device state kept elsewhere can be striped the same way, so that each shard thread
+     * only ever writes its own stripe.
+     */
+    static int shardIndex(String deviceId, int shards) {
+        return deviceId == null ? 0 : Math.floorMod(deviceId.hashCode(), shards);
+    }
+
+    private static void put(Shard shard, Command command, long deadline) {
+        try {
+            if (!shard.mailbox.offer(command, Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Timed out queueing for the bin state engine");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing for the bin state engine", e);
+        }
+    }
+
+    private void drainLoop(Shard shard) {
+        List<Command> batch = new ArrayList<>(batchSize);
+        while (running || !shard.mailbox.isEmpty()) {
+            try {
+                Command first = shard.mailbox.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                shard.mailbox.drainTo(batch, batchSize - 1);
+                process(shard, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Applies the readings of the batch, splitting it at evictions so they take effect exactly where they were queued.
+     */
+    private void process(Shard shard, List<Command> batch) {
+        int from = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            String evict = batch.get(i).evict();
+            if (evict == null) {
+                continue;
+            }
+            apply(shard, batch.subList(from, i));
+            from = i + 1;
+            if (evict.equals(EVICT_ALL)) {
+                shard.bins.clear();
+            } else {
+                shard.bins.remove(evict);
+            }
+        }
+        apply(shard, batch.subList(from, batch.size()));
+    }
+
+    /**
+     * Applies the commands in one transaction. When it fails the halves are applied on their own, down to single
+     * readings, so only the readings that fail by themselves are failed; when the database is unreachable the whole
+     * batch is failed at once instead.
+     */
+    private void apply(Shard shard, List<Command> commands) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        List<FillReadingDTO> readings = new ArrayList<>(commands.size());
+        for (Command command : commands) {
+            readings.add(command.reading());
+        }
+        List<FillReadingResultDTO> results;
+        try {
+            results = smartBinService.applyShardBatch(readings, shard.bins);
+        } catch (RuntimeException e) {
+            // the in-memory state may be ahead of the rolled back transaction, reload it on the next reading
+            for (FillReadingDTO reading : readings) {
+                shard.bins.remove(reading.getDeviceId());
+                deviceRegistryCache.invalidate(reading.getDeviceId());
+            }
+            if (commands.size() > 1 && !isUnavailable(e)) {
+                splitBatches.increment();
+                int half = commands.size() / 2;
+                apply(shard, commands.subList(0, half));
+                apply(shard, commands.subList(half, commands.size()));
+            } else {
+                fail(commands, e);
+            }
+            return;
+        }
+        batches.increment();
+        applied.add(readings.size());
+        for (int i = 0; i < commands.size(); i++) {
+            if (commands.get(i).result() != null) {
+                commands.get(i).result().complete(results.get(i));
+            }
+        }
+    }
+
+    private void fail(List<Command> commands, RuntimeException e) {
+        failed.add(commands.size());
+        List<String> dropped = new ArrayList<>();
+        for (Command command : commands) {
+            if (command.result() != null) {
+                command.result().completeExceptionally(e);
+            } else {
+                dropped.add(command.reading().getDeviceId());
+            }
+        }
+        if (!dropped.isEmpty()) {
+            // queued without a caller waiting, nobody else learns about it
+            logger.error("apply: dropped {} fill readings of devices {}", dropped.size(), dropped, e);
+        }
+    }
+
+    private static boolean isUnavailable(RuntimeException e) {
+        return e instanceof CannotCreateTransactionException || e instanceof DataAccessResourceFailureException;
+    }
+}
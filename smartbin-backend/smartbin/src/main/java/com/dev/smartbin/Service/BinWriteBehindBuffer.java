@@ -0,0 +1,222 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.SmartBinDTO;
+import com.dev.smartbin.Model.SmartBin;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind for the hot columns of a bin, {@code percent_filled} and {@code smartbin_battery_status}.
+ * Committed updates are coalesced per bin, so a bin reporting many times between flushes is written once,
+ * and dirty bins are written with one JDBC batch UPDATE per column set every flush interval, as soon as
+ * max-dirty bins are waiting, and on shutdown. Reads of bins go through {@link #overlay} so they see the
+ * buffered values.
+ * <p>
+ * The flush interval is the durability trade-off: a crash loses the fill and battery buffered since the last
+ * flush. The history cannot replay them, since the {@link ReadingHistoryStore} buffers readings in memory too,
+ * for its own flush interval, and drops them while its queue is full. With {@code enabled=false} the columns
+ * are written in the applying transaction instead.
+ */
+@Component
+public class BinWriteBehindBuffer implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinWriteBehindBuffer.class);
+
+    private static final String UPDATE_FILL = "UPDATE smart_bin SET percent_filled = ? WHERE smart_bin_id = ?";
+    private static final String UPDATE_FILL_AND_BATTERY =
+            "UPDATE smart_bin SET percent_filled = ?, smartbin_battery_status = ? WHERE smart_bin_id = ?";
+
+    /**
+     * Latest values of a bin not written yet; a null battery has not changed since the last write.
+     */
+    private record Pending(int percentFilled, Integer batteryStatus) {
+
+        Pending then(Pending newer) {
+            return new Pending(newer.percentFilled, newer.batteryStatus != null ? newer.batteryStatus : batteryStatus);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${smartbin.state.write-behind.enabled:true}")
+    private boolean enabled;
+
+    @Value("${smartbin.state.write-behind.max-dirty:10000}")
+    private int maxDirty;
+
+    private final ConcurrentHashMap<Long, Pending> dirty = new ConcurrentHashMap<>();
+    // taken out of dirty by the running flush, still visible to reads until it has committed
+    private volatile Map<Long, Pending> flushing = Map.of();
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    /**
+     * Writes the new fill of the bins, and their battery as well for the ones in {@code batteryChanged}.
+     * Inside a transaction the values are only buffered once it commits.
+     */
+    public void write(Set<SmartBin> fillChanged, Set<SmartBin> batteryChanged) {
+        Map<Long, Pending> changes = new LinkedHashMap<>();
+        for (SmartBin smartBin : fillChanged) {
+            changes.put(smartBin.getId(), new Pending(smartBin.getPercent_filled(), null));
+        }
+        for (SmartBin smartBin : batteryChanged) {
+            changes.put(smartBin.getId(), new Pending(smartBin.getPercent_filled(), smartBin.getSmartbin_batteryStatus()));
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (!enabled) {
+            update(changes);
+        } else {
+            TransactionCallbacks.afterCommit(() -> buffer(changes));
+        }
+    }
+
+    /**
+     * Applies the buffered values of the bin, if any, to a copy read from the database.
+     */
+    public void overlay(SmartBin smartBin) {
+        Pending pending = pending(smartBin.getId());
+        if (pending != null) {
+            smartBin.setPercent_filled(pending.percentFilled());
+            if (pending.batteryStatus() != null) {
+                smartBin.setSmartbin_batteryStatus(pending.batteryStatus());
+            }
+        }
+    }
+
+    public void overlay(SmartBinDTO smartBin) {
+        Pending pending = pending(smartBin.getId());
+        if (pending != null) {
+            smartBin.setPercent_filled(pending.percentFilled());
+            if (pending.batteryStatus() != null) {
+                smartBin.setSmartbin_batteryStatus(pending.batteryStatus());
+            }
+        }
+    }
+
+    /**
+     * Writes every dirty bin. Called on schedule, when the buffer fills up, and before bins are written elsewhere.
+     */
+    @Scheduled(fixedDelayString = "${smartbin.state.write-behind.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        // published before the entries leave dirty, so reads find every bin in one map or the other
+        Map<Long, Pending> snapshot = new LinkedHashMap<>(dirty);
+        flushing = snapshot;
+        Map<Long, Pending> batch = new LinkedHashMap<>();
+        snapshot.forEach((smartBinId, pending) -> {
+            // an entry replaced meanwhile stays dirty and is written by the next flush
+            if (dirty.remove(smartBinId, pending)) {
+                batch.put(smartBinId, pending);
+            }
+        });
+        flushing = batch;
+        try {
+            transactionTemplate.executeWithoutResult(status -> update(batch));
+            written.add(batch.size());
+            flushes.increment();
+        } catch (RuntimeException e) {
+            // keep them for the next flush, behind anything buffered meanwhile
+            batch.forEach((smartBinId, pending) -> dirty.merge(smartBinId, pending, (newer, older) -> older.then(newer)));
+            failedFlushes.increment();
+            logger.error("flush: unable to write {} bins", batch.size(), e);
+        } finally {
+            flushing = Map.of();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        flush();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("dirty", (long) dirty.size());
+        stats.put("updates", updates.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("written", written.sum());
+        stats.put("flushes", flushes.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.writebehind.dirty", dirty, Map::size).register(registry);
+        FunctionCounter.builder("smartbin.writebehind.updates", updates, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.writebehind.coalesced", coalesced, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.writebehind.written", written, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.writebehind.failed.flushes", failedFlushes, LongAdder::sum).register(registry);
+    }
+
+    private Pending pending(long smartBinId) {
+        Pending pending = dirty.get(smartBinId);
+        return pending != null ? pending : flushing.get(smartBinId);
+    }
+
+    private void buffer(Map<Long, Pending> changes) {
+        changes.forEach((smartBinId, change) -> dirty.compute(smartBinId, (id, pending) -> {
+            if (pending == null) {
+                return change;
+            }
+            coalesced.increment();
+            return pending.then(change);
+        }));
+        updates.add(changes.size());
+        if (dirty.size() >= maxDirty) {
+            flush();
+        }
+    }
+
+    private void update(Map<Long, Pending> changes) {
+        List<Map.Entry<Long, Pending>> fillOnly = new ArrayList<>();
+        List<Map.Entry<Long, Pending>> withBattery = new ArrayList<>();
+        for (Map.Entry<Long, Pending> change : changes.entrySet()) {
+            (change.getValue().batteryStatus() == null ? fillOnly : withBattery).add(change);
+        }
+        if (!fillOnly.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_FILL, fillOnly, fillOnly.size(), (ps, change) -> {
+                ps.setInt(1, change.getValue().percentFilled());
+                ps.setLong(2, change.getKey());
+            });
+        }
+        if (!withBattery.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_FILL_AND_BATTERY, withBattery, withBattery.size(), (ps, change) -> {
+                ps.setInt(1, change.getValue().percentFilled());
+                ps.setInt(2, change.getValue().batteryStatus());
+                ps.setLong(3, change.getKey());
+            });
+        }
+    }
+}
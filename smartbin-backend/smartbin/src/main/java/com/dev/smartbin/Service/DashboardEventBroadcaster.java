@@ -0,0 +1,213 @@
+package com.dev.smartbin.Service;
+
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fan-out of dashboard deltas to every connected SSE client. Each event is serialized once on a single
+ * dispatcher thread, so the number of open dashboards never adds database work or slows down the publishing
+ * thread. The payload is then queued to every client's own bounded buffer, which a sender drains for that client
+ * alone: a slow client only delays itself, and one whose buffer fills up is disconnected (the dashboard
+ * reconnects and reloads).
+ */
+@Component
+public class DashboardEventBroadcaster implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardEventBroadcaster.class);
+
+    public static final String BIN_EVENT = "bin";
+    public static final String BIN_REMOVED_EVENT = "binRemoved";
+    public static final String IMMEDIATE_ACTION_EVENT = "immediateAction";
+    public static final String NOTIFICATION_EVENT = "notification";
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    /**
+     * A connected dashboard; at most one sender drains its buffer at a time, so its events stay in order.
+     */
+    private final class Client {
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Set<DataWithMediaType>> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Client(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void enqueue(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(event)) {
+                // completed by its sender, which may still be blocked writing to it
+                closed = true;
+                clients.remove(this);
+                droppedClients.increment();
+                logger.info("enqueue: dropping slow dashboard client, {} open streams", clients.size());
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = buffer.poll()) != null) {
+                    try {
+                        emitter.send(event);
+                    } catch (IOException | IllegalStateException e) {
+                        closed = true;
+                        clients.remove(this);
+                        logger.debug("drain: dropping disconnected dashboard client", e);
+                    }
+                }
+                if (closed) {
+                    buffer.clear();
+                    completeQuietly();
+                    return;
+                }
+                draining.set(false);
+            } while (!buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void completeQuietly() {
+            try {
+                emitter.complete();
+            } catch (RuntimeException e) {
+                logger.debug("completeQuietly: dashboard client already gone", e);
+            }
+        }
+    }
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final LongAdder droppedEvents = new LongAdder();
+    private final LongAdder droppedClients = new LongAdder();
+    private final long emitterTimeoutMs;
+    private final int clientBufferSize;
+    private final ThreadPoolExecutor dispatcher;
+    // one task per client with pending events, so idle clients hold no thread
+    private final ExecutorService senders = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public DashboardEventBroadcaster(@Value("${smartbin.dashboard.stream.timeout-ms:1800000}") long emitterTimeoutMs,
+                                     @Value("${smartbin.dashboard.stream.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${smartbin.dashboard.stream.client-buffer:1000}") int clientBufferSize) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.clientBufferSize = clientBufferSize;
+        this.dispatcher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-broadcaster");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, executor) -> droppedEvents.increment());
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Client client = new Client(emitter, clientBufferSize);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(error -> clients.remove(client));
+        clients.add(client);
+        logger.info("subscribe: dashboard client connected, {} open streams", clients.size());
+        return emitter;
+    }
+
+    /**
+     * Queues an event for all subscribers; inside a transaction the event is only sent once it commits.
+     */
+    public void publish(String eventName, Object payload) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> dispatcher.execute(() -> broadcast(eventName, payload)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.dashboard.subscribers", clients, List::size).register(registry);
+        Gauge.builder("smartbin.dashboard.queue.depth", dispatcher, executor -> executor.getQueue().size()).register(registry);
+        FunctionCounter.builder("smartbin.dashboard.events.dropped", droppedEvents, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.dashboard.clients.dropped", droppedClients, LongAdder::sum).register(registry);
+    }
+
+    public int getSubscriberCount() {
+        return clients.size();
+    }
+
+    public long getDroppedEventCount() {
+        return droppedEvents.sum();
+    }
+
+    public long getDroppedClientCount() {
+        return droppedClients.sum();
+    }
+
+    @Scheduled(fixedRateString = "${smartbin.dashboard.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!clients.isEmpty()) {
+            dispatcher.execute(() -> send(SseEmitter.event().comment("heartbeat")));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        clients.forEach(Client::completeQuietly);
+        clients.clear();
+    }
+
+    private void broadcast(String eventName, Object payload) {
+        String json;
+        try {
+            json = jsonMapper.writeValueAsString(payload);
+        } catch (RuntimeException e) {
+            logger.error("broadcast: unable to serialize {} event", eventName, e);
+            return;
+        }
+        send(SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON));
+    }
+
+    private void send(SseEmitter.SseEventBuilder builder) {
+        // built once, building appends the event terminator
+        Set<DataWithMediaType> event = builder.build();
+        for (Client client : clients) {
+            client.enqueue(event);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.SmartBin;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of deviceId to SmartBin state, used to keep the ingest path off the database.
+ * Cached bins are detached copies; callers must evict an entry whenever the underlying row changes
+ * outside of the cached state.
+ */
+@Component
+public class DeviceRegistryCache implements MeterBinder {
+
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final LinkedHashMap<String, SmartBin> bins;
+
+    public DeviceRegistryCache(@Value("${smartbin.cache.device-registry.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.bins = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SmartBin> eldest) {
+                if (size() > DeviceRegistryCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<SmartBin> get(String deviceId, Function<String, Optional<SmartBin>> loader) {
+        SmartBin smartBin;
+        synchronized (bins) {
+            smartBin = bins.get(deviceId);
+        }
+        if (smartBin != null) {
+            hits.increment();
+            return Optional.of(smartBin);
+        }
+        misses.increment();
+        Optional<SmartBin> loaded = loader.apply(deviceId);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(SmartBin smartBin) {
+        if (smartBin == null || smartBin.getDevice_id() == null) {
+            return;
+        }
+        synchronized (bins) {
+            bins.put(smartBin.getDevice_id(), smartBin);
+        }
+    }
+
+    public void invalidate(String deviceId) {
+        if (deviceId == null) {
+            return;
+        }
+        synchronized (bins) {
+            bins.remove(deviceId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (bins) {
+            bins.clear();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.cache.device-registry.size", this, cache -> {
+            synchronized (cache.bins) {
+                return cache.bins.size();
+            }
+        }).register(registry);
+        FunctionCounter.builder("smartbin.cache.device-registry.hits", hits, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.cache.device-registry.misses", misses, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.cache.device-registry.evictions", evictions, LongAdder::sum).register(registry);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        synchronized (bins) {
+            stats.put("size", (long) bins.size());
+        }
+        stats.put("maxSize", (long) maxSize);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+}
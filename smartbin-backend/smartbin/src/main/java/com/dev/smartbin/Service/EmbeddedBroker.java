@@ -0,0 +1,215 @@
+package com.dev.smartbin.Service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * In-process publish/subscribe broker with MQTT topic semantics: levels are separated by '/', '+' matches
+ * exactly one level and a trailing '#' matches the rest. Delivery is at least once, like MQTT QoS 1: a message
+ * handed to a subscriber stays in flight until it is acknowledged and is delivered again, flagged as a
+ * duplicate, once the ack timeout has passed. A subscription keeps at most max-inflight messages outstanding;
+ * the others wait behind them in publish order, up to max-queued.
+ */
+@Component
+public class EmbeddedBroker implements MeterBinder {
+
+    public record Message(long id, String topic, byte[] payload, boolean duplicate) {
+    }
+
+    public static final class Subscription {
+        private final String[] filter;
+        private final BiConsumer<Subscription, Message> handler;
+        private final LinkedHashMap<Long, Inflight> inflight = new LinkedHashMap<>();
+        private final ArrayDeque<Message> queued = new ArrayDeque<>();
+
+        private Subscription(String filter, BiConsumer<Subscription, Message> handler) {
+            this.filter = filter.split("/", -1);
+            this.handler = handler;
+        }
+    }
+
+    private record Inflight(Message message, long deliveredAt) {
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder unrouted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder redelivered = new LongAdder();
+    private final LongAdder acknowledged = new LongAdder();
+
+    @Value("${smartbin.broker.max-inflight:10000}")
+    private int maxInflight;
+
+    @Value("${smartbin.broker.max-queued:100000}")
+    private int maxQueued;
+
+    @Value("${smartbin.broker.ack-timeout-ms:30000}")
+    private long ackTimeoutMs;
+
+    public Subscription subscribe(String filter, BiConsumer<Subscription, Message> handler) {
+        Subscription subscription = new Subscription(filter, handler);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Routes the message to every matching subscription. Returns false when a subscription had no room left
+     * and the message was dropped for it, so a publisher that needs the delivery guarantee can retry.
+     */
+    public boolean publish(String topic, byte[] payload) {
+        published.increment();
+        String[] levels = topic.split("/", -1);
+        boolean accepted = true;
+        boolean routed = false;
+        for (Subscription subscription : subscriptions) {
+            if (!matches(subscription.filter, levels)) {
+                continue;
+            }
+            routed = true;
+            Message message = new Message(messageIds.incrementAndGet(), topic, payload, false);
+            boolean deliver;
+            synchronized (subscription) {
+                if (subscription.inflight.size() < maxInflight && subscription.queued.isEmpty()) {
+                    subscription.inflight.put(message.id(), new Inflight(message, System.currentTimeMillis()));
+                    deliver = true;
+                } else if (subscription.queued.size() < maxQueued) {
+                    subscription.queued.add(message);
+                    deliver = false;
+                } else {
+                    dropped.increment();
+                    accepted = false;
+                    continue;
+                }
+            }
+            if (deliver) {
+                deliver(subscription, message);
+            }
+        }
+        if (!routed) {
+            unrouted.increment();
+        }
+        return accepted;
+    }
+
+    /**
+     * Completes delivery of a message, letting the next queued ones through.
+     */
+    public void ack(Subscription subscription, long messageId) {
+        List<Message> next = new ArrayList<>();
+        synchronized (subscription) {
+            if (subscription.inflight.remove(messageId) == null) {
+                return;
+            }
+            acknowledged.increment();
+            long now = System.currentTimeMillis();
+            while (subscription.inflight.size() < maxInflight && !subscription.queued.isEmpty()) {
+                Message message = subscription.queued.poll();
+                subscription.inflight.put(message.id(), new Inflight(message, now));
+                next.add(message);
+            }
+        }
+        next.forEach(message -> deliver(subscription, message));
+    }
+
+    @Scheduled(fixedDelayString = "${smartbin.broker.redelivery-check-ms:1000}")
+    public void redeliverExpired() {
+        long expiredBefore = System.currentTimeMillis() - ackTimeoutMs;
+        for (Subscription subscription : subscriptions) {
+            List<Message> expired = new ArrayList<>();
+            synchronized (subscription) {
+                // in flight messages are kept in delivery order, so the expired ones come first
+                Iterator<Inflight> iterator = subscription.inflight.values().iterator();
+                while (iterator.hasNext()) {
+                    Inflight inflight = iterator.next();
+                    if (inflight.deliveredAt() > expiredBefore) {
+                        break;
+                    }
+                    iterator.remove();
+                    expired.add(inflight.message());
+                }
+                long now = System.currentTimeMillis();
+                for (int i = 0; i < expired.size(); i++) {
+                    Message message = expired.get(i);
+                    Message duplicate = new Message(message.id(), message.topic(), message.payload(), true);
+                    subscription.inflight.put(duplicate.id(), new Inflight(duplicate, now));
+                    expired.set(i, duplicate);
+                }
+            }
+            redelivered.add(expired.size());
+            expired.forEach(message -> deliver(subscription, message));
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        long inflight = 0;
+        long queued = 0;
+        for (Subscription subscription : subscriptions) {
+            synchronized (subscription) {
+                inflight += subscription.inflight.size();
+                queued += subscription.queued.size();
+            }
+        }
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("subscriptions", (long) subscriptions.size());
+        stats.put("published", published.sum());
+        stats.put("unrouted", unrouted.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("delivered", delivered.sum());
+        stats.put("redelivered", redelivered.sum());
+        stats.put("acknowledged", acknowledged.sum());
+        stats.put("inflight", inflight);
+        stats.put("queued", queued);
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("smartbin.broker.published", published, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.broker.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.broker.delivered", delivered, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.broker.redelivered", redelivered, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.broker.acknowledged", acknowledged, LongAdder::sum).register(registry);
+        Gauge.builder("smartbin.broker.inflight", this, broker -> broker.getStats().get("inflight")).register(registry);
+    }
+
+    static boolean matches(String[] filter, String[] levels) {
+        for (int i = 0; i < filter.length; i++) {
+            if (filter[i].equals("#")) {
+                return true;
+            }
+            if (i >= levels.length || !(filter[i].equals("+") || filter[i].equals(levels[i]))) {
+                return false;
+            }
+        }
+        return filter.length == levels.length;
+    }
+
+    private void deliver(Subscription subscription, Message message) {
+        delivered.increment();
+        subscription.handler.accept(subscription, message);
+    }
+}
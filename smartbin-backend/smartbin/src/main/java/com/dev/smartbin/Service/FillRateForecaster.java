@@ -0,0 +1,299 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillForecastDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incremental per-bin fill-rate forecaster. Each reading updates an exponentially weighted fill rate
+ * (percent per hour) in O(1); state lives in parallel primitive arrays indexed by a slot per bin, so
+ * forecasting the whole fleet is a single scan with no database access. A drop in fill is treated as a
+ * collection: the rate is kept and the bin starts filling again from the new level.
+ * <p>
+ * The state is striped by the {@link BinStateEngine} shard of the device, each stripe with its own lock, so the
+ * shard threads feeding readings never wait for each other and a ranking holds one stripe at a time.
+ */
+@Component
+public class FillRateForecaster {
+
+    private static final double MILLIS_PER_HOUR = 3_600_000d;
+
+    private final double alpha;
+    private final long minIntervalMillis;
+    private final Stripe[] stripes;
+
+    private record Candidate(double hoursToFull, FillForecastDTO forecast) {
+    }
+
+    public FillRateForecaster(@Value("${smartbin.forecast.alpha:0.3}") double alpha,
+                              @Value("${smartbin.forecast.min-interval-seconds:60}") long minIntervalSeconds,
+                              @Value("${smartbin.forecast.initial-capacity:1024}") int initialCapacity,
+                              @Value("${smartbin.state.shards:0}") int shards) {
+        this.alpha = alpha;
+        this.minIntervalMillis = minIntervalSeconds * 1000;
+        this.stripes = new Stripe[BinStateEngine.shardCount(shards)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(Math.max(16, initialCapacity / stripes.length));
+        }
+    }
+
+    /**
+     * Seeds a bin's stored fill during the startup pass of {@link BinIndexWarmer}, so its forecast starts from the
+     * stored state; the rate builds up from live readings.
+     */
+    void warm(SmartBinDTO smartBin, long now) {
+        if (smartBin.getDevice_id() != null) {
+            observe(smartBin.getDevice_id(), smartBin.getRegion(), smartBin.getPercent_filled(), now);
+        }
+    }
+
+    /**
+     * Feeds a fill reading; inside a transaction it is applied once the transaction commits.
+     */
+    public void record(String deviceId, String region, int percentFilled, Date readingAt) {
+        long at = readingAt.getTime();
+        TransactionCallbacks.afterCommit(() -> observe(deviceId, region, percentFilled, at));
+    }
+
+    public void forget(String deviceId) {
+        Stripe stripe = stripeOf(deviceId);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.remove(deviceId);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    public FillForecastDTO getForecast(String deviceId) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeOf(deviceId);
+        stripe.lock.readLock().lock();
+        try {
+            Integer slot = stripe.slotByDeviceId.get(deviceId);
+            return slot == null ? null : stripe.toForecast(slot, stripe.hoursToFull(slot, now), now);
+        } finally {
+            stripe.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bins predicted to be full within {@code withinHours}, soonest first, optionally limited to a region. Each
+     * stripe contributes its own soonest {@code limit} bins under its lock; they are merged after.
+     */
+    public List<FillForecastDTO> getOverflowRanking(double withinHours, String region, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        Comparator<Candidate> soonestFirst = Comparator.comparingDouble(Candidate::hoursToFull);
+        List<Candidate> candidates = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            // the latest of the stripe's soonest bins on top, so it is the one replaced
+            PriorityQueue<Candidate> soonest = new PriorityQueue<>(soonestFirst.reversed());
+            stripe.lock.readLock().lock();
+            try {
+                for (int slot = 0; slot < stripe.size; slot++) {
+                    if (region != null && !region.equals(stripe.regions[slot])) {
+                        continue;
+                    }
+                    double hoursToFull = stripe.hoursToFull(slot, now);
+                    if (hoursToFull > withinHours
+                            || (soonest.size() == limit && hoursToFull >= soonest.peek().hoursToFull())) {
+                        continue;
+                    }
+                    if (soonest.size() == limit) {
+                        soonest.poll();
+                    }
+                    soonest.add(new Candidate(hoursToFull, stripe.toForecast(slot, hoursToFull, now)));
+                }
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+            candidates.addAll(soonest);
+        }
+        candidates.sort(soonestFirst);
+        List<FillForecastDTO> ranking = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            ranking.add(candidates.get(i).forecast());
+        }
+        return ranking;
+    }
+
+    public int getTrackedBinCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.readLock().lock();
+            try {
+                count += stripe.size;
+            } finally {
+                stripe.lock.readLock().unlock();
+            }
+        }
+        return count;
+    }
+
+    void observe(String deviceId, String region, int percentFilled, long at) {
+        Stripe stripe = stripeOf(deviceId);
+        stripe.lock.writeLock().lock();
+        try {
+            stripe.observe(deviceId, region, percentFilled, at);
+        } finally {
+            stripe.lock.writeLock().unlock();
+        }
+    }
+
+    private Stripe stripeOf(String deviceId) {
+        return stripes[BinStateEngine.shardIndex(deviceId, stripes.length)];
+    }
+
+    /**
+     * The bins of one shard, guarded by its lock.
+     */
+    private final class Stripe {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, Integer> slotByDeviceId = new HashMap<>();
+
+        private int size;
+        private String[] deviceIds;
+        private String[] regions;
+        // last reading
+        private int[] fill;
+        private long[] fillAt;
+        // reading the current rate interval started from
+        private int[] anchorFill;
+        private long[] anchorAt;
+        private double[] rate;
+        private int[] samples;
+
+        private Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private void observe(String deviceId, String region, int percentFilled, long at) {
+            Integer existing = slotByDeviceId.get(deviceId);
+            if (existing == null) {
+                int slot = newSlot(deviceId);
+                regions[slot] = region;
+                fill[slot] = percentFilled;
+                fillAt[slot] = at;
+                anchorFill[slot] = percentFilled;
+                anchorAt[slot] = at;
+                return;
+            }
+            int slot = existing;
+            regions[slot] = region;
+            if (at < fillAt[slot]) {
+                // late reading, the newer state already accounts for it
+                return;
+            }
+            fill[slot] = percentFilled;
+            fillAt[slot] = at;
+            if (percentFilled < anchorFill[slot]) {
+                anchorFill[slot] = percentFilled;
+                anchorAt[slot] = at;
+                return;
+            }
+            long elapsed = at - anchorAt[slot];
+            if (elapsed < minIntervalMillis) {
+                return;
+            }
+            double observedRate = (percentFilled - anchorFill[slot]) / (elapsed / MILLIS_PER_HOUR);
+            rate[slot] = samples[slot] == 0 ? observedRate : alpha * observedRate + (1 - alpha) * rate[slot];
+            samples[slot]++;
+            anchorFill[slot] = percentFilled;
+            anchorAt[slot] = at;
+        }
+
+        private void remove(String deviceId) {
+            Integer slot = slotByDeviceId.remove(deviceId);
+            if (slot == null) {
+                return;
+            }
+            // move the last slot into the hole so the arrays stay dense
+            int last = --size;
+            if (slot != last) {
+                copySlot(last, slot);
+                slotByDeviceId.put(deviceIds[slot], slot);
+            }
+            deviceIds[last] = null;
+            regions[last] = null;
+        }
+
+        private double hoursToFull(int slot, long now) {
+            if (fill[slot] >= 100) {
+                return 0;
+            }
+            if (rate[slot] <= 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            return (100 - fill[slot]) / rate[slot] - (now - fillAt[slot]) / MILLIS_PER_HOUR;
+        }
+
+        private FillForecastDTO toForecast(int slot, double hoursToFull, long now) {
+            boolean predictable = !Double.isInfinite(hoursToFull);
+            double remaining = Math.max(0d, hoursToFull);
+            return new FillForecastDTO(deviceIds[slot], regions[slot], fill[slot], rate[slot],
+                    predictable ? remaining : null,
+                    predictable ? new Date(now + (long) (remaining * MILLIS_PER_HOUR)) : null,
+                    samples[slot]);
+        }
+
+        private int newSlot(String deviceId) {
+            if (size == deviceIds.length) {
+                grow(deviceIds.length * 2);
+            }
+            int slot = size++;
+            deviceIds[slot] = deviceId;
+            rate[slot] = 0;
+            samples[slot] = 0;
+            slotByDeviceId.put(deviceId, slot);
+            return slot;
+        }
+
+        private void copySlot(int from, int to) {
+            deviceIds[to] = deviceIds[from];
+            regions[to] = regions[from];
+            fill[to] = fill[from];
+            fillAt[to] = fillAt[from];
+            anchorFill[to] = anchorFill[from];
+            anchorAt[to] = anchorAt[from];
+            rate[to] = rate[from];
+            samples[to] = samples[from];
+        }
+
+        private void allocate(int capacity) {
+            deviceIds = new String[capacity];
+            regions = new String[capacity];
+            fill = new int[capacity];
+            fillAt = new long[capacity];
+            anchorFill = new int[capacity];
+            anchorAt = new long[capacity];
+            rate = new double[capacity];
+            samples = new int[capacity];
+        }
+
+        private void grow(int capacity) {
+            deviceIds = Arrays.copyOf(deviceIds, capacity);
+            regions = Arrays.copyOf(regions, capacity);
+            fill = Arrays.copyOf(fill, capacity);
+            fillAt = Arrays.copyOf(fillAt, capacity);
+            anchorFill = Arrays.copyOf(anchorFill, capacity);
+            anchorAt = Arrays.copyOf(anchorAt, capacity);
+            rate = Arrays.copyOf(rate, capacity);
+            samples = Arrays.copyOf(samples, capacity);
+        }
+    }
+}
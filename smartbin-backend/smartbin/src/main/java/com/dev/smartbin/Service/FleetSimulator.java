@@ -0,0 +1,305 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.DeviceOnboardRequestDTO;
+import com.dev.smartbin.Model.SmartBin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator enabled by the {@code simulator} profile. Once the application is ready it spins up a fleet of
+ * virtual devices that register a bin, request onboarding, get accepted and then stream fill readings over HTTP,
+ * exactly like real devices would. Each device fills at its own rate with some noise and is emptied when it
+ * reaches the collection level. At the end latency percentiles, throughput and errors are logged per phase.
+ * <p>
+ * Devices run on virtual threads when the JVM has them (Java 21+), otherwise on a bounded platform thread pool.
+ */
+@Component
+@Profile("simulator")
+public class FleetSimulator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FleetSimulator.class);
+
+    private static final String[] REGIONS = {"East", "West", "North", "South"};
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Value("${smartbin.simulator.devices:100}")
+    private int devices;
+
+    @Value("${smartbin.simulator.readings-per-device:100}")
+    private int readingsPerDevice;
+
+    @Value("${smartbin.simulator.reading-interval-ms:1000}")
+    private long readingIntervalMs;
+
+    @Value("${smartbin.simulator.base-url:http://localhost:${server.port:8080}}")
+    private String baseUrl;
+
+    @Value("${smartbin.simulator.max-platform-threads:1000}")
+    private int maxPlatformThreads;
+
+    @Value("${smartbin.simulator.seed:42}")
+    private long seed;
+
+    @Value("${smartbin.simulator.exit-on-completion:false}")
+    private boolean exitOnCompletion;
+
+    private HttpClient httpClient;
+
+    /**
+     * Latencies and outcomes of one phase; each device records into its own array, merged once at the end.
+     */
+    private static final class PhaseStats {
+        private final String name;
+        private final List<long[]> latencies = new ArrayList<>();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> errorsByCause = new ConcurrentHashMap<>();
+        private long startNanos;
+        private long endNanos;
+
+        private PhaseStats(String name) {
+            this.name = name;
+        }
+
+        private synchronized void addLatencies(long[] deviceLatencies, int count) {
+            latencies.add(Arrays.copyOf(deviceLatencies, count));
+        }
+
+        private void error(String cause) {
+            errors.increment();
+            errorsByCause.computeIfAbsent(cause, key -> new LongAdder()).increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread runner = new Thread(this::run, "fleet-simulator");
+        runner.setDaemon(true);
+        runner.start();
+    }
+
+    private void run() {
+        logger.info("FleetSimulator: {} devices x {} readings every {} ms against {}",
+                devices, readingsPerDevice, readingIntervalMs, baseUrl);
+        PhaseStats onboarding = new PhaseStats("onboarding");
+        PhaseStats readings = new PhaseStats("readings");
+        ExecutorService executor = newDeviceExecutor();
+        try {
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String runId = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+            List<String> deviceIds = new ArrayList<>(devices);
+            for (int i = 0; i < devices; i++) {
+                deviceIds.add("SIM_" + runId + "_" + i);
+            }
+
+            onboarding.startNanos = System.nanoTime();
+            List<Future<?>> registrations = new ArrayList<>(devices);
+            for (int i = 0; i < devices; i++) {
+                String deviceId = deviceIds.get(i);
+                int index = i;
+                registrations.add(executor.submit(() -> onboard(deviceId, index, onboarding)));
+            }
+            awaitAll(registrations);
+            onboarding.endNanos = System.nanoTime();
+
+            readings.startNanos = System.nanoTime();
+            List<Future<?>> streams = new ArrayList<>(devices);
+            for (int i = 0; i < devices; i++) {
+                String deviceId = deviceIds.get(i);
+                long deviceSeed = seed + i;
+                streams.add(executor.submit(() -> streamReadings(deviceId, deviceSeed, readings)));
+            }
+            awaitAll(streams);
+            readings.endNanos = System.nanoTime();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("FleetSimulator: interrupted, reporting partial results");
+        } finally {
+            executor.shutdownNow();
+        }
+        report(onboarding);
+        report(readings);
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(applicationContext, () -> readings.errors.sum() == 0 ? 0 : 1));
+        }
+    }
+
+    private void onboard(String deviceId, int index, PhaseStats stats) {
+        long[] latencies = new long[3];
+        int count = 0;
+        try {
+            SmartBin smartBin = new SmartBin();
+            smartBin.setDevice_id(deviceId);
+            smartBin.setRegion(REGIONS[index % REGIONS.length]);
+            smartBin.setSmartbin_location("Simulated " + REGIONS[index % REGIONS.length]);
+            smartBin.setSmartbin_status("InActive");
+            smartBin.setInstallationStatus("Installed");
+            smartBin.setSmartbin_batteryStatus(100);
+            SplittableRandom random = new SplittableRandom(seed + index);
+            smartBin.setLatitude(18.9 + random.nextDouble() * 0.3);
+            smartBin.setLongitude(72.8 + random.nextDouble() * 0.2);
+
+            DeviceOnboardRequestDTO onboardRequest = new DeviceOnboardRequestDTO();
+            onboardRequest.setDevice_id(deviceId);
+            onboardRequest.setDeviceOnBoardStatus("Requested");
+            onboardRequest.setCreatedAt(new Date());
+
+            List<HttpRequest> steps = List.of(
+                    json("/smartbin/save").POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(smartBin))).build(),
+                    json("/deviceOnboardRequest/save").POST(HttpRequest.BodyPublishers.ofString(jsonMapper.writeValueAsString(onboardRequest))).build(),
+                    json("/deviceOnboardRequest/accept/" + deviceId).PUT(HttpRequest.BodyPublishers.noBody()).build());
+            for (HttpRequest step : steps) {
+                long start = System.nanoTime();
+                boolean ok = send(step, stats);
+                latencies[count++] = System.nanoTime() - start;
+                if (!ok) {
+                    break;
+                }
+            }
+        } finally {
+            stats.addLatencies(latencies, count);
+        }
+    }
+
+    private void streamReadings(String deviceId, long deviceSeed, PhaseStats stats) {
+        SplittableRandom random = new SplittableRandom(deviceSeed);
+        // percentage points per reading; busy bins fill several times faster than quiet ones
+        double fillRate = 0.5 + random.nextDouble() * random.nextDouble() * 6;
+        double collectAt = 90 + random.nextDouble() * 10;
+        double fill = random.nextDouble() * 40;
+        long[] latencies = new long[readingsPerDevice];
+        int count = 0;
+        try {
+            sleep(readingIntervalMs == 0 ? 0 : random.nextLong(readingIntervalMs));
+            for (int i = 0; i < readingsPerDevice; i++) {
+                fill += fillRate * (0.5 + random.nextDouble());
+                if (fill >= collectAt) {
+                    fill = random.nextDouble() * 5;
+                }
+                int fillPercent = (int) Math.min(100, Math.round(fill));
+                HttpRequest request = json("/smartbin/AddGarbageToBin/" + deviceId + "/" + fillPercent)
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+                long start = System.nanoTime();
+                send(request, stats);
+                long latency = System.nanoTime() - start;
+                latencies[count++] = latency;
+                sleep(readingIntervalMs - latency / 1_000_000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            stats.addLatencies(latencies, count);
+        }
+    }
+
+    private HttpRequest.Builder json(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json");
+    }
+
+    private boolean send(HttpRequest request, PhaseStats stats) {
+        stats.requests.increment();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                stats.error("HTTP " + response.statusCode());
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.error(e.getClass().getSimpleName());
+            return false;
+        } catch (Exception e) {
+            stats.error(e.getClass().getSimpleName());
+            return false;
+        }
+    }
+
+    private void report(PhaseStats stats) {
+        long[] all = stats.latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = Math.max(1, stats.endNanos - stats.startNanos) / 1e9;
+        long requests = stats.requests.sum();
+        long errors = stats.errors.sum();
+        Map<String, Long> errorsByCause = new TreeMap<>();
+        stats.errorsByCause.forEach((cause, count) -> errorsByCause.put(cause, count.sum()));
+        logger.info("FleetSimulator {}: {} requests in {} s, {} req/s, errors {} ({}%) {}, latency ms p50 {} p90 {} p99 {} max {}",
+                stats.name, requests, String.format("%.1f", seconds), String.format("%.1f", (requests - errors) / seconds),
+                errors, String.format("%.2f", requests == 0 ? 0.0 : errors * 100.0 / requests), errorsByCause,
+                percentileMillis(all, 0.50), percentileMillis(all, 0.90), percentileMillis(all, 0.99),
+                percentileMillis(all, 1.0));
+    }
+
+    private static String percentileMillis(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return "-";
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return String.format("%.2f", sortedNanos[Math.max(0, index)] / 1e6);
+    }
+
+    private ExecutorService newDeviceExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.min(devices, maxPlatformThreads);
+            if (threads < devices) {
+                logger.warn("FleetSimulator: virtual threads unavailable, {} devices share {} platform threads", devices, threads);
+            }
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    private static void awaitAll(List<? extends Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                logger.error("FleetSimulator: device task failed", e.getCause());
+            }
+        }
+    }
+
+    private static void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
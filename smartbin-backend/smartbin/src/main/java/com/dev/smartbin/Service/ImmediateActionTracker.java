@@ -0,0 +1,86 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Repository.ImmediateActionBinRepo;
+import com.dev.smartbin.Model.ImmediateActionBin;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers, per bin, the id of its immediate action row and the severity it is currently open at
+ * ({@link Severity#LOW} when closed), so the ingest path can tell whether a reading changes anything
+ * without reading Immediate_Action_Bin. A bin's state is loaded once on first use; changes made inside
+ * a transaction that rolls back are forgotten so they are reloaded from the database.
+ */
+@Component
+public class ImmediateActionTracker {
+
+    public record Transition(long actionId, int previousSeverityRank, int severityRank) {
+    }
+
+    private record TrackedAction(long actionId, int severityRank) {
+    }
+
+    private static final TrackedAction NO_ACTION = new TrackedAction(0, Severity.LOW);
+
+    @Autowired
+    private ImmediateActionBinRepo immediateActionBinRepo;
+
+    private final Map<Long, TrackedAction> actionsByBinId = new ConcurrentHashMap<>();
+
+    /**
+     * Moves the bin to {@code severityRank} and returns the transition, or null when the severity is unchanged.
+     * A returned action id of 0 means the bin has no action row yet.
+     */
+    public Transition transition(long binId, int severityRank) {
+        while (true) {
+            TrackedAction current = actionsByBinId.get(binId);
+            if (current == null) {
+                TrackedAction loaded = load(binId);
+                current = actionsByBinId.putIfAbsent(binId, loaded);
+                if (current == null) {
+                    current = loaded;
+                }
+            }
+            if (current.severityRank() == severityRank) {
+                return null;
+            }
+            if (actionsByBinId.replace(binId, current, new TrackedAction(current.actionId(), severityRank))) {
+                forgetOnRollback(binId);
+                return new Transition(current.actionId(), current.severityRank(), severityRank);
+            }
+        }
+    }
+
+    public void recordActionId(long binId, long actionId) {
+        actionsByBinId.computeIfPresent(binId, (id, tracked) -> new TrackedAction(actionId, tracked.severityRank()));
+    }
+
+    public void forget(long binId) {
+        actionsByBinId.remove(binId);
+    }
+
+    private TrackedAction load(long binId) {
+        return immediateActionBinRepo.findImmediateActionStateBySmartBinId(binId)
+                .map(state -> new TrackedAction(state.getId(),
+                        ImmediateActionBin.OPEN.equals(state.getActionState()) ? state.getSeverityRank() : Severity.LOW))
+                .orElse(NO_ACTION);
+    }
+
+    private void forgetOnRollback(long binId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        forget(binId);
+                    }
+                }
+            });
+        }
+    }
+}
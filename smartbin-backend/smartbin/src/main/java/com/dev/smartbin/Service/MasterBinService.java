@@ -2,37 +2,151 @@ package com.dev.smartbin.Service;
 
 import com.dev.smartbin.Model.MasterBins;
 import com.dev.smartbin.Repository.MasterBinRepo;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
+@Timed(value = "smartbin.service", histogram = true)
 public class MasterBinService {
     private static final Logger logger = LoggerFactory.getLogger(MasterBinService.class);
 
     @Autowired
     private MasterBinRepo masterBinRepo;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter authSucceeded;
+    private Counter authFailed;
+    private Counter authUnknownDevice;
+
+    /**
+     * deviceId to salted password hash, warmed from Master_Bin at startup and kept in step with every save.
+     */
+    private final Map<String, String> passwordHashByDeviceId = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void registerMeters() {
+        authSucceeded = authCounter("success");
+        authFailed = authCounter("failure");
+        authUnknownDevice = authCounter("unknown_device");
+    }
+
+    private Counter authCounter(String outcome) {
+        return Counter.builder("smartbin.auth.attempts")
+                .description("Device authentication attempts")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     public List<MasterBins> findAllBin() {
-        logger.info("inside findAllBin");
+        logger.debug("inside findAllBin");
         return masterBinRepo.findAll();
     }
 
+    @Transactional
+    public List<MasterBins> saveMasterBins(List<MasterBins> masterBins) {
+        logger.debug("inside saveMasterBins {}", masterBins.size());
+        for (MasterBins masterBin : masterBins) {
+            hashPasswordIfRequired(masterBin);
+        }
+        List<MasterBins> savedBins = masterBinRepo.saveAllAndFlush(masterBins);
+        savedBins.forEach(this::index);
+        return savedBins;
+    }
+
+    /**
+     * Deletes the device from the master catalogue; once that commits it can no longer authenticate.
+     */
+    @Transactional
+    public String deleteMasterBin(String deviceId) {
+        logger.debug("inside deleteMasterBin {}", deviceId);
+        Optional<MasterBins> masterBin = masterBinRepo.findMasterBinByDeviceId(deviceId);
+        if (masterBin.isEmpty()) {
+            logger.error("deleteMasterBin: Incorrect device id passed");
+            return "FAILED";
+        }
+        masterBinRepo.delete(masterBin.get());
+        // dropped after the commit, a login before it would load the row back into the index
+        TransactionCallbacks.afterCommit(() -> passwordHashByDeviceId.remove(deviceId));
+        return "ACCEPTED";
+    }
 
+    /**
+     * Loads the master catalogue once into the in-memory index, migrating any rows
+     * that still hold a plaintext password to a salted hash.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmDeviceIndex() {
+        List<MasterBins> masterBins = masterBinRepo.findAll();
+        List<MasterBins> migratedBins = new ArrayList<>();
+        for (MasterBins masterBin : masterBins) {
+            if (hashPasswordIfRequired(masterBin)) {
+                migratedBins.add(masterBin);
+            }
+            index(masterBin);
+        }
+        if (!migratedBins.isEmpty()) {
+            masterBinRepo.saveAll(migratedBins);
+        }
+        logger.info("warmDeviceIndex: indexed {} devices, migrated {} plaintext passwords",
+                masterBins.size(), migratedBins.size());
+    }
 
     public Boolean authenticateDevice(String deviceId, String password) {
-        logger.info("inside authenticateDevice");
-        return findAllBin().stream()
-                .anyMatch(p ->
-                        (p.getDevice_id().equals(deviceId) &&
-                                p.getDevice_password().equalsIgnoreCase(password))
-                );
+        logger.debug("inside authenticateDevice");
+        if (ObjectUtils.isEmpty(deviceId) || password == null) {
+            authFailed.increment();
+            return false;
+        }
+        String passwordHash = passwordHashByDeviceId.get(deviceId);
+        if (passwordHash == null) {
+            Optional<MasterBins> masterBin = masterBinRepo.findMasterBinByDeviceId(deviceId);
+            if (masterBin.isEmpty()) {
+                authUnknownDevice.increment();
+                return false;
+            }
+            index(masterBin.get());
+            passwordHash = passwordHashByDeviceId.get(deviceId);
+        }
+        boolean authenticated = passwordHasher.matches(password, passwordHash);
+        (authenticated ? authSucceeded : authFailed).increment();
+        return authenticated;
+    }
+
+    private boolean hashPasswordIfRequired(MasterBins masterBin) {
+        String password = masterBin.getDevice_password();
+        if (password == null || passwordHasher.isHashed(password)) {
+            return false;
+        }
+        masterBin.setDevice_password(passwordHasher.hash(password));
+        return true;
     }
 
+    private void index(MasterBins masterBin) {
+        if (masterBin.getDevice_id() != null && masterBin.getDevice_password() != null) {
+            passwordHashByDeviceId.put(masterBin.getDevice_id(), masterBin.getDevice_password());
+        }
+    }
 
 }
@@ -0,0 +1,206 @@
+package com.dev.smartbin.Service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scheduled housekeeping that keeps the Notification table bounded:
+ * <ol>
+ *     <li>repeated alerts of the same bin, type, severity and read state are collapsed into the newest row,
+ *     which carries the occurrence count, first-seen createdAt and last-seen time;</li>
+ *     <li>read notifications older than the archive age are moved to Notification_Archive;</li>
+ *     <li>archived rows past their retention are purged.</li>
+ * </ol>
+ * All deletes run in bounded chunks, each in its own short transaction.
+ */
+@Component
+public class NotificationCompactor {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCompactor.class);
+
+    private record DuplicateGroup(long smartBinId, String type, String severity, boolean read, long keepId,
+                                  Timestamp firstSeen, Timestamp lastSeen) {
+    }
+
+    private record Duplicate(long id, int occurrences) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final int maxGroupsPerRun;
+    private final Duration archiveAfter;
+    private final Duration archiveRetention;
+
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder collapsedRows = new LongAdder();
+    private final LongAdder archivedRows = new LongAdder();
+    private final LongAdder purgedArchiveRows = new LongAdder();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    public NotificationCompactor(@Value("${smartbin.notification.compaction.chunk-size:1000}") int chunkSize,
+                                 @Value("${smartbin.notification.compaction.max-groups-per-run:10000}") int maxGroupsPerRun,
+                                 @Value("${smartbin.notification.compaction.archive-after-days:7}") int archiveAfterDays,
+                                 @Value("${smartbin.notification.compaction.archive-retention-days:365}") int archiveRetentionDays) {
+        this.chunkSize = chunkSize;
+        this.maxGroupsPerRun = maxGroupsPerRun;
+        this.archiveAfter = Duration.ofDays(archiveAfterDays);
+        this.archiveRetention = Duration.ofDays(archiveRetentionDays);
+    }
+
+    @Scheduled(cron = "${smartbin.notification.compaction.cron:0 45 * * * ?}")
+    public void compact() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        int collapsed = collapseDuplicates();
+        int archived = archiveReadNotifications(new Timestamp(now.minus(archiveAfter).toEpochMilli()), new Timestamp(now.toEpochMilli()));
+        int purged = purgeArchive(new Timestamp(now.minus(archiveRetention).toEpochMilli()));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        runs.increment();
+        collapsedRows.add(collapsed);
+        archivedRows.add(archived);
+        purgedArchiveRows.add(purged);
+        lastRunMillis.set(elapsedMillis);
+        logger.info("compact: collapsed {} duplicate notifications, archived {}, purged {} archived in {} ms",
+                collapsed, archived, purged, elapsedMillis);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("runs", runs.sum());
+        stats.put("collapsedRows", collapsedRows.sum());
+        stats.put("archivedRows", archivedRows.sum());
+        stats.put("purgedArchiveRows", purgedArchiveRows.sum());
+        stats.put("lastRunMillis", lastRunMillis.get());
+        return stats;
+    }
+
+    /**
+     * Collapses each group of duplicates into its newest row. The keeper's first and last seen times are committed
+     * first; then every chunk of older rows adds its occurrences to the keeper and is deleted in one transaction,
+     * so an interrupted run leaves consistent counts and the next run picks up the rest.
+     * <p>
+     * Finding the groups is a GROUP BY ... HAVING COUNT(*) > 1 over the whole notification table (no index covers
+     * the grouping columns), which is why it only runs hourly and is capped at max-groups-per-run.
+     */
+    private int collapseDuplicates() {
+        List<DuplicateGroup> groups = jdbcTemplate.query("SELECT smart_bin_id, type, severity, is_read,"
+                        + " MAX(notification_id) AS keep_id,"
+                        + " MIN(created_at) AS first_seen, MAX(COALESCE(last_seen_at, created_at)) AS last_seen"
+                        + " FROM notification"
+                        + " WHERE smart_bin_id IS NOT NULL AND type IS NOT NULL AND severity IS NOT NULL"
+                        + " GROUP BY smart_bin_id, type, severity, is_read"
+                        + " HAVING COUNT(*) > 1 LIMIT ?",
+                (rs, rowNum) -> new DuplicateGroup(rs.getLong("smart_bin_id"), rs.getString("type"),
+                        rs.getString("severity"), rs.getBoolean("is_read"), rs.getLong("keep_id"),
+                        rs.getTimestamp("first_seen"), rs.getTimestamp("last_seen")),
+                maxGroupsPerRun);
+        int collapsed = 0;
+        for (DuplicateGroup group : groups) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                    "UPDATE notification SET created_at = ?, last_seen_at = ? WHERE notification_id = ?",
+                    group.firstSeen(), group.lastSeen(), group.keepId()));
+            Integer merged;
+            do {
+                merged = transactionTemplate.execute(status -> mergeDuplicates(group));
+                collapsed += merged == null ? 0 : merged;
+            } while (merged != null && merged == chunkSize);
+        }
+        return collapsed;
+    }
+
+    /**
+     * Moves the occurrences of up to a chunk of the group's older rows into its keeper and deletes them.
+     */
+    private int mergeDuplicates(DuplicateGroup group) {
+        List<Duplicate> duplicates = jdbcTemplate.query("SELECT notification_id, occurrence_count FROM notification"
+                        + " WHERE smart_bin_id = ? AND type = ? AND severity = ? AND is_read = ? AND notification_id < ?"
+                        + " ORDER BY notification_id LIMIT ?",
+                (rs, rowNum) -> new Duplicate(rs.getLong("notification_id"), rs.getInt("occurrence_count")),
+                group.smartBinId(), group.type(), group.severity(), group.read() ? 1 : 0, group.keepId(), chunkSize);
+        if (duplicates.isEmpty()) {
+            return 0;
+        }
+        long occurrences = 0;
+        List<Long> ids = new ArrayList<>(duplicates.size());
+        for (Duplicate duplicate : duplicates) {
+            occurrences += duplicate.occurrences();
+            ids.add(duplicate.id());
+        }
+        jdbcTemplate.update("UPDATE notification SET occurrence_count = LEAST(occurrence_count + ?, ?)"
+                + " WHERE notification_id = ?", occurrences, Integer.MAX_VALUE, group.keepId());
+        namedParameterJdbcTemplate.update("DELETE FROM notification WHERE notification_id IN (:ids)",
+                new MapSqlParameterSource("ids", ids));
+        return ids.size();
+    }
+
+    private int archiveReadNotifications(Timestamp cutoff, Timestamp archivedAt) {
+        int archived = 0;
+        List<Long> ids;
+        do {
+            ids = jdbcTemplate.queryForList("SELECT notification_id FROM notification"
+                    + " WHERE is_read = 1 AND created_at < ? ORDER BY created_at LIMIT ?", Long.class, cutoff, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("archived_at", archivedAt);
+            transactionTemplate.executeWithoutResult(status -> {
+                namedParameterJdbcTemplate.update("INSERT INTO notification_archive (notification_id, type, message,"
+                        + " severity, created_at, last_seen_at, occurrence_count, smart_bin_id, archived_at)"
+                        + " SELECT notification_id, type, message, severity, created_at, last_seen_at, occurrence_count,"
+                        + " smart_bin_id, :archived_at FROM notification WHERE notification_id IN (:ids)", parameters);
+                namedParameterJdbcTemplate.update("DELETE FROM notification WHERE notification_id IN (:ids)", parameters);
+            });
+            archived += ids.size();
+        } while (ids.size() == chunkSize);
+        return archived;
+    }
+
+    private int purgeArchive(Timestamp cutoff) {
+        return deleteInChunks("DELETE FROM notification_archive WHERE archived_at < ? LIMIT ?", cutoff);
+    }
+
+    /**
+     * Runs a {@code DELETE ... LIMIT ?} repeatedly, each chunk in its own transaction; the chunk size is bound as
+     * the last parameter.
+     */
+    private int deleteInChunks(String sql, Object... parameters) {
+        Object[] arguments = new Object[parameters.length + 1];
+        System.arraycopy(parameters, 0, arguments, 0, parameters.length);
+        arguments[parameters.length] = chunkSize;
+        int total = 0;
+        Integer deleted;
+        do {
+            deleted = transactionTemplate.execute(status -> jdbcTemplate.update(sql, arguments));
+            total += deleted == null ? 0 : deleted;
+        } while (deleted != null && deleted == chunkSize);
+        return total;
+    }
+}
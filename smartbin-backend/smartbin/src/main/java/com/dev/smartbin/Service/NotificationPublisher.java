@@ -0,0 +1,255 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.NotificationEventDTO;
+import com.dev.smartbin.Model.Notification;
+import com.dev.smartbin.Model.SmartBin;
+import com.dev.smartbin.Repository.NotificationRepo;
+import com.dev.smartbin.Repository.SmartBinRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process bounded queue for notifications, drained by a single background writer
+ * that persists them in batches. Publishing inside a transaction is deferred until commit,
+ * and repeated notifications are filtered by {@link NotificationSuppressor} before they are queued.
+ */
+@Component
+public class NotificationPublisher implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPublisher.class);
+
+    public enum BackpressurePolicy {
+        BLOCK,
+        DROP_LOWEST_SEVERITY
+    }
+
+    @Autowired
+    private NotificationRepo notificationRepo;
+
+    @Autowired
+    private SmartBinRepo smartBinRepo;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardEventBroadcaster dashboardEventBroadcaster;
+
+    @Autowired
+    private NotificationSuppressor notificationSuppressor;
+
+    private final LinkedBlockingQueue<Notification> queue;
+    private final BackpressurePolicy backpressurePolicy;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    private final Object dropLock = new Object();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushNanos = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public NotificationPublisher(@Value("${smartbin.notification.queue.capacity:10000}") int capacity,
+                                 @Value("${smartbin.notification.queue.backpressure:BLOCK}") BackpressurePolicy backpressurePolicy,
+                                 @Value("${smartbin.notification.writer.batch-size:500}") int batchSize,
+                                 @Value("${smartbin.notification.writer.flush-interval-ms:200}") long flushIntervalMs) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.backpressurePolicy = backpressurePolicy;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drainLoop, "notification-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public void publish(Notification notification) {
+        publishAll(List.of(notification));
+    }
+
+    public void publishAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> notifications.forEach(this::admit));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.notifications.queue.depth", queue, LinkedBlockingQueue::size).register(registry);
+        FunctionCounter.builder("smartbin.notifications.published", published, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.notifications.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.notifications.persisted", persisted, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.notifications.failed", failed, LongAdder::sum).register(registry);
+        FunctionTimer.builder("smartbin.notifications.flush", this,
+                        publisher -> publisher.flushes.sum(), publisher -> publisher.flushNanos.sum(), TimeUnit.NANOSECONDS)
+                .register(registry);
+    }
+
+    public Map<String, Number> getStats() {
+        Map<String, Number> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueRemainingCapacity", queue.remainingCapacity());
+        stats.put("published", published.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("persisted", persisted.sum());
+        stats.put("failed", failed.sum());
+        stats.put("flushes", flushes.sum());
+        long flushCount = flushes.sum();
+        stats.put("avgFlushMillis", flushCount == 0 ? 0.0 : flushNanos.sum() / (double) flushCount / 1_000_000);
+        stats.put("lastFlushMillis", lastFlushNanos.get() / 1_000_000.0);
+        stats.put("maxFlushMillis", maxFlushNanos.get() / 1_000_000.0);
+        return stats;
+    }
+
+    private void admit(Notification notification) {
+        int occurrences = notificationSuppressor.admit(notification);
+        if (occurrences > 0) {
+            notification.setOccurrenceCount(occurrences);
+            enqueue(notification);
+        }
+    }
+
+    private void enqueue(Notification notification) {
+        published.increment();
+        if (backpressurePolicy == BackpressurePolicy.BLOCK) {
+            try {
+                queue.put(notification);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+                logger.warn("enqueue: interrupted while waiting for queue space, notification dropped");
+            }
+            return;
+        }
+        if (queue.offer(notification)) {
+            return;
+        }
+        synchronized (dropLock) {
+            Notification lowest = null;
+            for (Notification queued : queue) {
+                if (lowest == null || Severity.rank(queued.getSeverity()) < Severity.rank(lowest.getSeverity())) {
+                    lowest = queued;
+                }
+            }
+            if (lowest != null
+                    && Severity.rank(lowest.getSeverity()) < Severity.rank(notification.getSeverity())
+                    && queue.remove(lowest)
+                    && queue.offer(notification)) {
+                dropped.increment();
+                return;
+            }
+        }
+        dropped.increment();
+        logger.warn("enqueue: notification queue full, dropped {} notification", notification.getSeverity());
+    }
+
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Notification first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                logger.error("drainLoop: unexpected error while writing notifications", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<Notification> batch) {
+        long start = System.nanoTime();
+        // keep the publisher's bin state, the notifications are re-attached to references on every attempt
+        List<SmartBin> smartBins = new ArrayList<>(batch.size());
+        batch.forEach(notification -> smartBins.add(notification.getSmartBin()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch, smartBins));
+            persisted.add(batch.size());
+        } catch (RuntimeException e) {
+            logger.warn("flush: batch of {} notifications failed, retrying individually", batch.size(), e);
+            for (int i = 0; i < batch.size(); i++) {
+                List<Notification> notification = Collections.singletonList(batch.get(i));
+                List<SmartBin> smartBin = Collections.singletonList(smartBins.get(i));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(notification, smartBin));
+                    persisted.increment();
+                } catch (RuntimeException single) {
+                    failed.increment();
+                    logger.error("flush: unable to persist notification {}", batch.get(i).getMessage(), single);
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        flushes.increment();
+        flushNanos.add(elapsed);
+        lastFlushNanos.set(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    private void persist(List<Notification> notifications, List<SmartBin> smartBins) {
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            SmartBin smartBin = smartBins.get(i);
+            notification.setId(0);
+            notification.setSmartBin(smartBin == null ? null : smartBinRepo.getReferenceById(smartBin.getId()));
+        }
+        notificationRepo.saveAll(notifications);
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            SmartBin smartBin = smartBins.get(i);
+            dashboardEventBroadcaster.publish(DashboardEventBroadcaster.NOTIFICATION_EVENT,
+                    new NotificationEventDTO(notification.getId(), notification.getType(), notification.getMessage(),
+                            notification.getSeverity(), notification.getCreatedAt(), notification.isRead(),
+                            smartBin == null ? null : smartBin.getDevice_id(),
+                            smartBin == null ? null : smartBin.getSmartbin_location(),
+                            notification.getOccurrenceCount(), notification.getLastSeenAt()));
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.Notification;
+import com.dev.smartbin.Repository.NotificationRepo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate limits repeated notifications per (bin, type). A notification is let through on the first occurrence,
+ * when its severity is higher than the last one emitted, or once the cooldown since the last emission has passed;
+ * anything else is suppressed and counted towards the next emitted notification's occurrence count.
+ * <p>
+ * Each window is packed into a single long: last emission in epoch seconds, suppressed count and severity rank.
+ */
+@Component
+public class NotificationSuppressor implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationSuppressor.class);
+
+    private static final int RANK_BITS = 8;
+    private static final int SUPPRESSED_BITS = 16;
+    private static final long RANK_MASK = (1L << RANK_BITS) - 1;
+    private static final long SUPPRESSED_MASK = (1L << SUPPRESSED_BITS) - 1;
+
+    @Autowired
+    private NotificationRepo notificationRepo;
+
+    private final boolean enabled;
+    private final long cooldownSeconds;
+
+    private final Map<String, ConcurrentHashMap<Long, Long>> windowsByType = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> suppressedByType = new ConcurrentHashMap<>();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    private volatile MeterRegistry meterRegistry;
+
+    public NotificationSuppressor(@Value("${smartbin.notification.suppression.enabled:true}") boolean enabled,
+                                  @Value("${smartbin.notification.suppression.cooldown-minutes:360}") long cooldownMinutes) {
+        this.enabled = enabled;
+        this.cooldownSeconds = Duration.ofMinutes(cooldownMinutes).toSeconds();
+    }
+
+    /**
+     * Returns the number of occurrences the notification stands for (itself plus everything suppressed since the
+     * last emission for the same bin and type), or 0 when it should be dropped.
+     */
+    public int admit(Notification notification) {
+        if (!enabled || notification.getSmartBin() == null || notification.getType() == null) {
+            emitted.increment();
+            return 1;
+        }
+        long binId = notification.getSmartBin().getId();
+        int severityRank = Severity.rank(notification.getSeverity());
+        long now = System.currentTimeMillis() / 1000;
+        int[] occurrences = new int[1];
+        windowsByType.computeIfAbsent(notification.getType(), type -> new ConcurrentHashMap<>())
+                .compute(binId, (id, window) -> {
+                    if (window == null || severityRank > rankOf(window) || now - emittedAtOf(window) >= cooldownSeconds) {
+                        occurrences[0] = window == null ? 1 : (int) suppressedOf(window) + 1;
+                        return pack(now, 0, severityRank);
+                    }
+                    occurrences[0] = 0;
+                    return pack(emittedAtOf(window), Math.min(suppressedOf(window) + 1, SUPPRESSED_MASK), rankOf(window));
+                });
+        if (occurrences[0] == 0) {
+            suppressed.increment();
+            suppressedByType.computeIfAbsent(notification.getType(), this::newSuppressedCounter).increment();
+        } else {
+            emitted.increment();
+        }
+        return occurrences[0];
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        FunctionCounter.builder("smartbin.notifications.emitted", emitted, LongAdder::sum).register(registry);
+        Gauge.builder("smartbin.notifications.suppression.windows", this,
+                suppressor -> suppressor.windowsByType.values().stream().mapToInt(Map::size).sum()).register(registry);
+        suppressedByType.forEach((type, count) -> registerSuppressedCounter(registry, type, count));
+    }
+
+    private LongAdder newSuppressedCounter(String type) {
+        LongAdder count = new LongAdder();
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registerSuppressedCounter(registry, type, count);
+        }
+        return count;
+    }
+
+    private static void registerSuppressedCounter(MeterRegistry registry, String type, LongAdder count) {
+        FunctionCounter.builder("smartbin.notifications.suppressed", count, LongAdder::sum)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    public void forget(long binId) {
+        windowsByType.values().forEach(windows -> windows.remove(binId));
+    }
+
+    /**
+     * Ends the bin's window for the type, so the next notification is emitted whatever its severity.
+     */
+    public void reset(long binId, String type) {
+        ConcurrentHashMap<Long, Long> windows = windowsByType.get(type);
+        if (windows != null) {
+            windows.remove(binId);
+        }
+    }
+
+    /**
+     * Drops windows whose cooldown has passed; the next notification for them is emitted either way. What a window
+     * suppressed is added to the occurrence count of the last notification emitted for its bin and type, so it is
+     * not lost when no further notification comes; that notification keeps its last_seen_at.
+     */
+    @Scheduled(fixedDelayString = "${smartbin.notification.suppression.eviction-interval-ms:600000}")
+    public void evictExpired() {
+        evictEmittedBefore(System.currentTimeMillis() / 1000 - cooldownSeconds);
+    }
+
+    void evictEmittedBefore(long expiredBefore) {
+        int carried = 0;
+        int lost = 0;
+        for (Map.Entry<String, ConcurrentHashMap<Long, Long>> windows : windowsByType.entrySet()) {
+            for (Map.Entry<Long, Long> window : windows.getValue().entrySet()) {
+                long binId = window.getKey();
+                long state = window.getValue();
+                // a window admit changed meanwhile is newer, it stays
+                if (emittedAtOf(state) > expiredBefore || !windows.getValue().remove(binId, state)) {
+                    continue;
+                }
+                int suppressedCount = (int) suppressedOf(state);
+                if (suppressedCount == 0) {
+                    continue;
+                }
+                if (addToLastNotification(binId, windows.getKey(), suppressedCount)) {
+                    carried++;
+                } else {
+                    lost += suppressedCount;
+                }
+            }
+        }
+        if (carried > 0) {
+            logger.debug("evictExpired: carried suppressed occurrences over to {} notifications", carried);
+        }
+        if (lost > 0) {
+            logger.warn("evictExpired: {} suppressed occurrences could not be added to their notification", lost);
+        }
+    }
+
+    private boolean addToLastNotification(long binId, String type, int occurrences) {
+        try {
+            Long notificationId = notificationRepo.findLastNotificationId(binId, type);
+            return notificationId != null && notificationRepo.addOccurrences(notificationId, occurrences) > 0;
+        } catch (RuntimeException e) {
+            logger.warn("evictExpired: unable to add {} occurrences to the {} notification of bin {}", occurrences, type, binId, e);
+            return false;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("cooldownSeconds", cooldownSeconds);
+        stats.put("emitted", emitted.sum());
+        stats.put("suppressed", suppressed.sum());
+        Map<String, Long> byType = new TreeMap<>();
+        suppressedByType.forEach((type, count) -> byType.put(type, count.sum()));
+        stats.put("suppressedByType", byType);
+        stats.put("windows", windowsByType.values().stream().mapToInt(Map::size).sum());
+        return stats;
+    }
+
+    private static long pack(long emittedAt, long suppressedCount, long severityRank) {
+        return emittedAt << (SUPPRESSED_BITS + RANK_BITS) | suppressedCount << RANK_BITS | severityRank;
+    }
+
+    private static long emittedAtOf(long window) {
+        return window >>> (SUPPRESSED_BITS + RANK_BITS);
+    }
+
+    private static long suppressedOf(long window) {
+        return window >>> RANK_BITS & SUPPRESSED_MASK;
+    }
+
+    private static int rankOf(long window) {
+        return (int) (window & RANK_MASK);
+    }
+}
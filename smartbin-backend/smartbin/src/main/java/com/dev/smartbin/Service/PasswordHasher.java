@@ -0,0 +1,76 @@
+package com.dev.smartbin.Service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2 password hashing for device credentials.
+ * Encoded form is {@code pbkdf2$<iterations>$<base64 salt>$<base64 hash>}.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final int iterations;
+
+    public PasswordHasher(@Value("${smartbin.auth.hash-iterations:10000}") int iterations) {
+        this.iterations = iterations;
+    }
+
+    public String hash(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        secureRandom.nextBytes(salt);
+        byte[] hash = pbkdf2(rawPassword, salt, iterations);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + "$" + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    /**
+     * Compares exactly, case included. A stored value that is not a well-formed hash never matches.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || !isHashed(encodedPassword)) {
+            return false;
+        }
+        String[] parts = encodedPassword.split("\\$");
+        try {
+            int encodedIterations = Integer.parseInt(parts[1]);
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] salt = decoder.decode(parts[2]);
+            byte[] expected = decoder.decode(parts[3]);
+            return MessageDigest.isEqual(expected, pbkdf2(rawPassword, salt, encodedIterations));
+        } catch (IllegalArgumentException e) {
+            // bad iteration count or base64, or an empty salt rejected by PBEKeySpec
+            return false;
+        }
+    }
+
+    public boolean isHashed(String password) {
+        return password != null && password.startsWith(PREFIX + "$") && password.split("\\$").length == 4;
+    }
+
+    private static byte[] pbkdf2(String rawPassword, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, KEY_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to hash device password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
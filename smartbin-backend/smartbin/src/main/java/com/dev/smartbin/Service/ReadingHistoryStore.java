@@ -0,0 +1,416 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.BinHistoryPointDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Append-only history of fill and battery readings. Readings are buffered after commit and written by a
+ * dedicated writer thread: raw rows with one JDBC batch, and 5-minute, hourly and daily rollups (min/max/sum/count
+ * per bin and bucket) pre-aggregated in memory and merged with one batched upsert. Bin history is always
+ * read from the rollups; a retention job trims raw rows and each rollup level in time-ordered chunks.
+ * <p>
+ * The writer drains the queue batch after batch for as long as readings are waiting, so it keeps up with the
+ * ingest rate the database allows; a batch that fails is retried flush-interval-ms apart and dropped after
+ * max-attempts.
+ */
+@Component
+public class ReadingHistoryStore implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadingHistoryStore.class);
+
+    public enum Resolution {
+        FIVE_MINUTES(300),
+        HOURLY(3600),
+        DAILY(86400);
+
+        private final int seconds;
+
+        Resolution(int seconds) {
+            this.seconds = seconds;
+        }
+
+        public int getSeconds() {
+            return seconds;
+        }
+
+        long bucketStart(long epochMillis) {
+            long size = seconds * 1000L;
+            return epochMillis - Math.floorMod(epochMillis, size);
+        }
+    }
+
+    private record Reading(long smartBinId, long readingAt, Integer percentFilled, Integer batteryStatus) {
+    }
+
+    private record BucketKey(long smartBinId, Resolution resolution, long bucketStart) {
+    }
+
+    private static final class Bucket {
+        Integer minFill;
+        Integer maxFill;
+        long fillSum;
+        int fillCount;
+        Integer minBattery;
+        Integer maxBattery;
+        long batterySum;
+        int batteryCount;
+
+        void add(Reading reading) {
+            Integer fill = reading.percentFilled();
+            if (fill != null) {
+                minFill = minFill == null ? fill : Math.min(minFill, fill);
+                maxFill = maxFill == null ? fill : Math.max(maxFill, fill);
+                fillSum += fill;
+                fillCount++;
+            }
+            Integer battery = reading.batteryStatus();
+            if (battery != null) {
+                minBattery = minBattery == null ? battery : Math.min(minBattery, battery);
+                maxBattery = maxBattery == null ? battery : Math.max(maxBattery, battery);
+                batterySum += battery;
+                batteryCount++;
+            }
+        }
+    }
+
+    private static final String INSERT_READING =
+            "INSERT INTO bin_reading (smart_bin_id, reading_at, percent_filled, battery_status) VALUES (?, ?, ?, ?)";
+
+    private static final String ROLLUP_COLUMNS =
+            "INSERT INTO bin_reading_rollup (smart_bin_id, resolution_seconds, bucket_start, min_fill, max_fill,"
+            + " fill_sum, fill_count, min_battery, max_battery, battery_sum, battery_count)";
+
+    private static final String ROLLUP_VALUES = " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String BATTERY_SNAPSHOT_ROLLUP =
+            "SELECT smart_bin_id, ? AS resolution_seconds, ? AS bucket_start, NULL AS min_fill, NULL AS max_fill,"
+            + " 0 AS fill_sum, 0 AS fill_count, smartbin_battery_status AS min_battery,"
+            + " smartbin_battery_status AS max_battery, smartbin_battery_status AS battery_sum, 1 AS battery_count"
+            + " FROM smart_bin WHERE smartbin_battery_status IS NOT NULL";
+
+    /**
+     * ON DUPLICATE KEY UPDATE merging the incoming row into the stored one, with {@code stored} and
+     * {@code incoming} naming a column of either row.
+     */
+    private static String mergeRollup(UnaryOperator<String> stored, UnaryOperator<String> incoming) {
+        return " ON DUPLICATE KEY UPDATE"
+                + " min_fill = " + mergeBound("LEAST", "min_fill", stored, incoming) + ","
+                + " max_fill = " + mergeBound("GREATEST", "max_fill", stored, incoming) + ","
+                + " fill_sum = " + stored.apply("fill_sum") + " + " + incoming.apply("fill_sum") + ","
+                + " fill_count = " + stored.apply("fill_count") + " + " + incoming.apply("fill_count") + ","
+                + " min_battery = " + mergeBound("LEAST", "min_battery", stored, incoming) + ","
+                + " max_battery = " + mergeBound("GREATEST", "max_battery", stored, incoming) + ","
+                + " battery_sum = " + stored.apply("battery_sum") + " + " + incoming.apply("battery_sum") + ","
+                + " battery_count = " + stored.apply("battery_count") + " + " + incoming.apply("battery_count");
+    }
+
+    private static String mergeBound(String function, String column, UnaryOperator<String> stored,
+                                     UnaryOperator<String> incoming) {
+        String current = stored.apply(column);
+        String next = incoming.apply(column);
+        return function + "(COALESCE(" + current + ", " + next + "), COALESCE(" + next + ", " + current + "))";
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LinkedBlockingQueue<Reading> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final int deleteChunkSize;
+    private final Map<Resolution, Duration> rollupRetention = new LinkedHashMap<>();
+    private final Duration rawRetention;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    private String upsertRollup;
+    private String upsertBatterySnapshotRollup;
+
+    public ReadingHistoryStore(@Value("${smartbin.history.queue-capacity:100000}") int capacity,
+                               @Value("${smartbin.history.batch-size:1000}") int batchSize,
+                               @Value("${smartbin.history.flush-interval-ms:1000}") long flushIntervalMs,
+                               @Value("${smartbin.history.max-attempts:3}") int maxAttempts,
+                               @Value("${smartbin.history.retention.delete-chunk-size:5000}") int deleteChunkSize,
+                               @Value("${smartbin.history.retention.raw-days:7}") int rawDays,
+                               @Value("${smartbin.history.retention.five-minute-days:7}") int fiveMinuteDays,
+                               @Value("${smartbin.history.retention.hourly-days:90}") int hourlyDays,
+                               @Value("${smartbin.history.retention.daily-days:730}") int dailyDays) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.deleteChunkSize = deleteChunkSize;
+        this.rawRetention = Duration.ofDays(rawDays);
+        rollupRetention.put(Resolution.FIVE_MINUTES, Duration.ofDays(fiveMinuteDays));
+        rollupRetention.put(Resolution.HOURLY, Duration.ofDays(hourlyDays));
+        rollupRetention.put(Resolution.DAILY, Duration.ofDays(dailyDays));
+    }
+
+    /**
+     * Picks the upsert form and starts the writer. MySQL 8.0.19 and later get the row alias form of the upsert, as
+     * VALUES() in ON DUPLICATE KEY UPDATE is deprecated there; other databases (H2 in MySQL mode, MariaDB) keep VALUES().
+     */
+    @PostConstruct
+    public void init() {
+        boolean rowAlias;
+        try {
+            rowAlias = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), ReadingHistoryStore::supportsRowAlias);
+        } catch (MetaDataAccessException e) {
+            logger.warn("init: unable to read the database version, using VALUES() upserts", e);
+            rowAlias = false;
+        }
+        if (rowAlias) {
+            String merge = mergeRollup(column -> "bin_reading_rollup." + column, column -> "new." + column);
+            upsertRollup = ROLLUP_COLUMNS + ROLLUP_VALUES + " AS new" + merge;
+            upsertBatterySnapshotRollup = ROLLUP_COLUMNS + " SELECT * FROM (" + BATTERY_SNAPSHOT_ROLLUP + ") AS new" + merge;
+        } else {
+            String merge = mergeRollup(column -> column, column -> "VALUES(" + column + ")");
+            upsertRollup = ROLLUP_COLUMNS + ROLLUP_VALUES + merge;
+            upsertBatterySnapshotRollup = ROLLUP_COLUMNS + " " + BATTERY_SNAPSHOT_ROLLUP + merge;
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops the writer once the readings already queued are written.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private static boolean supportsRowAlias(DatabaseMetaData metaData) throws SQLException {
+        if (!"MySQL".equals(metaData.getDatabaseProductName())) {
+            return false;
+        }
+        String[] version = metaData.getDatabaseProductVersion().split("[.-]");
+        try {
+            int major = Integer.parseInt(version[0]);
+            int minor = Integer.parseInt(version[1]);
+            int patch = Integer.parseInt(version[2]);
+            return major > 8 || (major == 8 && (minor > 0 || patch >= 19));
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Buffers a reading; inside a transaction it is only buffered once the transaction commits.
+     */
+    public void record(long smartBinId, Integer percentFilled, Integer batteryStatus, Date readingAt) {
+        Reading reading = new Reading(smartBinId, readingAt.getTime(), percentFilled, batteryStatus);
+        TransactionCallbacks.afterCommit(() -> enqueue(reading));
+    }
+
+    /**
+     * Records the current battery of every bin with set-based INSERT ... SELECT statements, so a fleet-wide
+     * sample never loads the bins.
+     */
+    public void recordBatterySnapshot(Date readingAt) {
+        Timestamp at = new Timestamp(readingAt.getTime());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO bin_reading (smart_bin_id, reading_at, battery_status)"
+                    + " SELECT smart_bin_id, ?, smartbin_battery_status FROM smart_bin"
+                    + " WHERE smartbin_battery_status IS NOT NULL", at);
+            for (Resolution resolution : Resolution.values()) {
+                jdbcTemplate.update(upsertBatterySnapshotRollup,
+                        resolution.getSeconds(), new Timestamp(resolution.bucketStart(readingAt.getTime())));
+            }
+        });
+    }
+
+    /**
+     * Rollups of one bin in {@code [from, to)}, oldest bucket first.
+     */
+    public List<BinHistoryPointDTO> getHistory(long smartBinId, Resolution resolution, Date from, Date to) {
+        return jdbcTemplate.query("SELECT bucket_start, min_fill, max_fill, fill_sum, fill_count,"
+                        + " min_battery, max_battery, battery_sum, battery_count FROM bin_reading_rollup"
+                        + " WHERE smart_bin_id = ? AND resolution_seconds = ? AND bucket_start >= ? AND bucket_start < ?"
+                        + " ORDER BY bucket_start",
+                (rs, rowNum) -> {
+                    int fillCount = rs.getInt("fill_count");
+                    int batteryCount = rs.getInt("battery_count");
+                    return new BinHistoryPointDTO(new Date(rs.getTimestamp("bucket_start").getTime()),
+                            rs.getObject("min_fill", Integer.class), rs.getObject("max_fill", Integer.class),
+                            fillCount == 0 ? null : rs.getLong("fill_sum") / (double) fillCount,
+                            rs.getObject("min_battery", Integer.class), rs.getObject("max_battery", Integer.class),
+                            batteryCount == 0 ? null : rs.getLong("battery_sum") / (double) batteryCount,
+                            Math.max(fillCount, batteryCount));
+                },
+                smartBinId, resolution.getSeconds(), new Timestamp(from.getTime()), new Timestamp(to.getTime()));
+    }
+
+    public Duration getRetention(Resolution resolution) {
+        return rollupRetention.get(resolution);
+    }
+
+    @Scheduled(cron = "${smartbin.history.retention.cron:0 30 * * * ?}")
+    public void applyRetention() {
+        Instant now = Instant.now();
+        int deleted = deleteInChunks("DELETE FROM bin_reading WHERE reading_at < ? LIMIT ?",
+                new Timestamp(now.minus(rawRetention).toEpochMilli()));
+        for (Map.Entry<Resolution, Duration> retention : rollupRetention.entrySet()) {
+            deleted += deleteInChunks("DELETE FROM bin_reading_rollup WHERE resolution_seconds = "
+                            + retention.getKey().getSeconds() + " AND bucket_start < ? LIMIT ?",
+                    new Timestamp(now.minus(retention.getValue()).toEpochMilli()));
+        }
+        logger.info("applyRetention: deleted {} expired history rows", deleted);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.history.queue.depth", queue, LinkedBlockingQueue::size).register(registry);
+        FunctionCounter.builder("smartbin.history.recorded", recorded, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.history.written", written, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.history.dropped", dropped, LongAdder::sum).register(registry);
+        FunctionCounter.builder("smartbin.history.retried", retried, LongAdder::sum).register(registry);
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", (long) queue.size());
+        stats.put("recorded", recorded.sum());
+        stats.put("written", written.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("retried", retried.sum());
+        return stats;
+    }
+
+    private void enqueue(Reading reading) {
+        recorded.increment();
+        if (!queue.offer(reading)) {
+            dropped.increment();
+            logger.warn("enqueue: history queue full, dropped reading of bin {}", reading.smartBinId());
+        }
+    }
+
+    private void drainLoop() {
+        List<Reading> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Reading first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeWithRetry(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                logger.error("drainLoop: unexpected error while writing readings", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetry(List<Reading> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(batch));
+                written.add(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    dropped.add(batch.size());
+                    logger.error("writeWithRetry: unable to write {} readings, dropping them", batch.size(), e);
+                    return;
+                }
+                retried.add(batch.size());
+                logger.warn("writeWithRetry: unable to write {} readings, attempt {} of {}", batch.size(),
+                        attempt, maxAttempts, e);
+                Thread.sleep(flushIntervalMs);
+            }
+        }
+    }
+
+    private void write(List<Reading> batch) {
+        jdbcTemplate.batchUpdate(INSERT_READING, batch, batch.size(), (ps, reading) -> {
+            ps.setLong(1, reading.smartBinId());
+            ps.setTimestamp(2, new Timestamp(reading.readingAt()));
+            ps.setObject(3, reading.percentFilled(), Types.INTEGER);
+            ps.setObject(4, reading.batteryStatus(), Types.INTEGER);
+        });
+
+        Map<BucketKey, Bucket> buckets = new LinkedHashMap<>();
+        for (Reading reading : batch) {
+            for (Resolution resolution : Resolution.values()) {
+                BucketKey key = new BucketKey(reading.smartBinId(), resolution, resolution.bucketStart(reading.readingAt()));
+                buckets.computeIfAbsent(key, k -> new Bucket()).add(reading);
+            }
+        }
+        List<Map.Entry<BucketKey, Bucket>> rollups = new ArrayList<>(buckets.entrySet());
+        jdbcTemplate.batchUpdate(upsertRollup, rollups, rollups.size(), (ps, rollup) -> {
+            BucketKey key = rollup.getKey();
+            Bucket bucket = rollup.getValue();
+            ps.setLong(1, key.smartBinId());
+            ps.setInt(2, key.resolution().getSeconds());
+            ps.setTimestamp(3, new Timestamp(key.bucketStart()));
+            ps.setObject(4, bucket.minFill, Types.INTEGER);
+            ps.setObject(5, bucket.maxFill, Types.INTEGER);
+            ps.setLong(6, bucket.fillSum);
+            ps.setInt(7, bucket.fillCount);
+            ps.setObject(8, bucket.minBattery, Types.INTEGER);
+            ps.setObject(9, bucket.maxBattery, Types.INTEGER);
+            ps.setLong(10, bucket.batterySum);
+            ps.setInt(11, bucket.batteryCount);
+        });
+    }
+
+    private int deleteInChunks(String sql, Timestamp cutoff) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(sql, cutoff, deleteChunkSize);
+            total += deleted;
+        } while (deleted == deleteChunkSize);
+        return total;
+    }
+}
@@ -0,0 +1,178 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.RegionSummaryDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
+import com.dev.smartbin.Model.SmartBin;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-region dashboard totals maintained incrementally from onboarding, ingest, battery and immediate
+ * action events. Every bin's last contribution is remembered, so an event subtracts the old contribution
+ * and adds the new one to striped counters; reading the summary is O(regions) and never scans bins.
+ * Average and maximum fill come from a per-region fill histogram so they stay exact as bins empty.
+ */
+@Component
+public class RegionAggregates {
+
+    private static final String UNASSIGNED_REGION = "Unassigned";
+    private static final int CRITICAL_FILL = 95;
+
+    private record BinState(String region, String status, boolean onboarded, int fill, boolean lowBattery,
+                            boolean actionOpen) {
+
+        BinState withFill(int fill) {
+            return new BinState(region, status, onboarded, fill, lowBattery, actionOpen);
+        }
+
+        BinState withLowBattery(boolean lowBattery) {
+            return new BinState(region, status, onboarded, fill, lowBattery, actionOpen);
+        }
+
+        BinState withActionOpen(boolean actionOpen) {
+            return new BinState(region, status, onboarded, fill, lowBattery, actionOpen);
+        }
+    }
+
+    private static final class RegionCounters {
+        final LongAdder bins = new LongAdder();
+        final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+        final LongAdder onboarded = new LongAdder();
+        final LongAdder fillSum = new LongAdder();
+        final LongAdder lowBattery = new LongAdder();
+        final LongAdder openActions = new LongAdder();
+        final LongAdder[] fillHistogram = new LongAdder[101];
+
+        RegionCounters() {
+            for (int i = 0; i < fillHistogram.length; i++) {
+                fillHistogram[i] = new LongAdder();
+            }
+        }
+    }
+
+    private final Map<String, RegionCounters> regions = new ConcurrentHashMap<>();
+    private final Map<Long, BinState> bins = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a stored bin during the startup pass of {@link BinIndexWarmer}.
+     */
+    void warm(SmartBinDTO smartBin, boolean actionOpen) {
+        BinState state = new BinState(smartBin.getRegion(), smartBin.getSmartbin_status(),
+                smartBin.isIs_smartbin_Onboarded(), smartBin.getPercent_filled(),
+                isLowBattery(smartBin.getSmartbin_batteryStatus()), actionOpen);
+        update(smartBin.getId(), previous -> state);
+    }
+
+    int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * Records the bin's region, status, onboarding, fill and battery; inside a transaction once it commits.
+     */
+    public void binChanged(SmartBin smartBin) {
+        long id = smartBin.getId();
+        String region = smartBin.getRegion();
+        String status = smartBin.getSmartbin_status();
+        boolean onboarded = smartBin.isIs_smartbin_Onboarded();
+        int fill = smartBin.getPercent_filled();
+        boolean lowBattery = isLowBattery(smartBin.getSmartbin_batteryStatus());
+        TransactionCallbacks.afterCommit(() -> update(id, previous ->
+                new BinState(region, status, onboarded, fill, lowBattery, previous != null && previous.actionOpen())));
+    }
+
+    public void fillChanged(long binId, int fill) {
+        TransactionCallbacks.afterCommit(() -> update(binId, previous -> previous == null ? null : previous.withFill(fill)));
+    }
+
+    public void batteryChanged(long binId, Integer battery) {
+        boolean lowBattery = isLowBattery(battery);
+        TransactionCallbacks.afterCommit(() -> update(binId, previous -> previous == null ? null : previous.withLowBattery(lowBattery)));
+    }
+
+    public void actionChanged(long binId, boolean actionOpen) {
+        TransactionCallbacks.afterCommit(() -> update(binId, previous -> previous == null ? null : previous.withActionOpen(actionOpen)));
+    }
+
+    public void binRemoved(long binId) {
+        TransactionCallbacks.afterCommit(() -> update(binId, previous -> null));
+    }
+
+    public List<RegionSummaryDTO> getSummaries() {
+        List<RegionSummaryDTO> summaries = new ArrayList<>(regions.size());
+        new TreeMap<>(regions).forEach((region, counters) -> {
+            long binCount = counters.bins.sum();
+            if (binCount <= 0) {
+                return;
+            }
+            Map<String, Long> countByStatus = new LinkedHashMap<>();
+            new TreeMap<>(counters.byStatus).forEach((status, count) -> {
+                long statusCount = count.sum();
+                if (statusCount > 0) {
+                    countByStatus.put(status, statusCount);
+                }
+            });
+            int maxFill = 0;
+            long criticalFillCount = 0;
+            for (int fill = counters.fillHistogram.length - 1; fill >= 0; fill--) {
+                long count = counters.fillHistogram[fill].sum();
+                if (count > 0 && maxFill == 0) {
+                    maxFill = fill;
+                }
+                if (fill >= CRITICAL_FILL) {
+                    criticalFillCount += count;
+                }
+            }
+            summaries.add(new RegionSummaryDTO(region, binCount, countByStatus, counters.onboarded.sum(),
+                    counters.fillSum.sum() / (double) binCount, maxFill, criticalFillCount,
+                    counters.lowBattery.sum(), counters.openActions.sum()));
+        });
+        return summaries;
+    }
+
+    private void update(long binId, UnaryOperator<BinState> change) {
+        bins.compute(binId, (id, previous) -> {
+            BinState next = change.apply(previous);
+            if (previous != null) {
+                add(previous, -1);
+            }
+            if (next != null) {
+                add(next, 1);
+            }
+            return next;
+        });
+    }
+
+    private void add(BinState state, int sign) {
+        RegionCounters counters = regions.computeIfAbsent(
+                state.region() == null ? UNASSIGNED_REGION : state.region(), region -> new RegionCounters());
+        counters.bins.add(sign);
+        if (state.status() != null) {
+            counters.byStatus.computeIfAbsent(state.status(), status -> new LongAdder()).add(sign);
+        }
+        if (state.onboarded()) {
+            counters.onboarded.add(sign);
+        }
+        int fill = Math.max(0, Math.min(100, state.fill()));
+        counters.fillSum.add((long) sign * fill);
+        counters.fillHistogram[fill].add(sign);
+        if (state.lowBattery()) {
+            counters.lowBattery.add(sign);
+        }
+        if (state.actionOpen()) {
+            counters.openActions.add(sign);
+        }
+    }
+
+    private static boolean isLowBattery(Integer battery) {
+        return battery != null && battery < SmartBinService.LOW_BATTERY_THRESHOLD;
+    }
+}
@@ -0,0 +1,222 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.CollectionRouteDTO;
+import com.dev.smartbin.DTO.RouteStopDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Plans collection trips from a depot. Each region is solved as its own fork-join task: trips of up to
+ * {@code capacity} stops are built by a severity-weighted nearest-neighbour pass (a Critical bin counts as
+ * closer than a Medium one at the same distance, so severe bins land on earlier trips), then every trip is
+ * shortened with 2-opt until no move improves it or the time budget runs out. Once the budget is out the
+ * remaining stops are put on trips in the order given, which is most severe first.
+ */
+@Component
+public class RouteOptimizer {
+
+    private static final double KM_PER_DEGREE = 111.195;
+    private static final String UNASSIGNED_REGION = "Unassigned";
+
+    private final ForkJoinPool pool;
+
+    public RouteOptimizer(@Value("${smartbin.route.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void stop() {
+        pool.shutdownNow();
+    }
+
+    public record Plan(List<CollectionRouteDTO> routes, boolean budgetExhausted) {
+    }
+
+    /**
+     * Stops must carry coordinates.
+     */
+    public Plan optimise(double depotLatitude, double depotLongitude, int capacity, List<RouteStopDTO> stops,
+                         long timeBudgetMillis) {
+        Map<String, List<RouteStopDTO>> stopsByRegion = new LinkedHashMap<>();
+        for (RouteStopDTO stop : stops) {
+            String region = stop.getRegion() == null ? UNASSIGNED_REGION : stop.getRegion();
+            stopsByRegion.computeIfAbsent(region, r -> new ArrayList<>()).add(stop);
+        }
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000;
+        AtomicBoolean budgetExhausted = new AtomicBoolean();
+        List<RegionTask> tasks = new ArrayList<>(stopsByRegion.size());
+        stopsByRegion.forEach((region, regionStops) -> tasks.add(
+                new RegionTask(region, regionStops, depotLatitude, depotLongitude, capacity, deadline, budgetExhausted)));
+
+        List<CollectionRouteDTO> routes = pool.invoke(new RecursiveTask<>() {
+            @Override
+            protected List<CollectionRouteDTO> compute() {
+                List<CollectionRouteDTO> all = new ArrayList<>();
+                for (RegionTask task : ForkJoinTask.invokeAll(tasks)) {
+                    all.addAll(task.join());
+                }
+                return all;
+            }
+        });
+        return new Plan(routes, budgetExhausted.get());
+    }
+
+    private static final class RegionTask extends RecursiveTask<List<CollectionRouteDTO>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String region;
+        private final List<RouteStopDTO> stops;
+        private final int capacity;
+        private final long deadline;
+        private final AtomicBoolean budgetExhausted;
+        // stop i sits at (x[i], y[i]) km from the depot on a local equirectangular projection
+        private final double[] x;
+        private final double[] y;
+        private final double[] severityWeightSquared;
+
+        RegionTask(String region, List<RouteStopDTO> stops, double depotLatitude, double depotLongitude,
+                   int capacity, long deadline, AtomicBoolean budgetExhausted) {
+            this.region = region;
+            this.stops = stops;
+            this.capacity = capacity;
+            this.deadline = deadline;
+            this.budgetExhausted = budgetExhausted;
+            double kmPerDegreeLongitude = KM_PER_DEGREE * Math.cos(Math.toRadians(depotLatitude));
+            this.x = new double[stops.size()];
+            this.y = new double[stops.size()];
+            this.severityWeightSquared = new double[stops.size()];
+            for (int i = 0; i < stops.size(); i++) {
+                RouteStopDTO stop = stops.get(i);
+                x[i] = (stop.getLongitude() - depotLongitude) * kmPerDegreeLongitude;
+                y[i] = (stop.getLatitude() - depotLatitude) * KM_PER_DEGREE;
+                double weight = 1 + stop.getSeverityRank();
+                severityWeightSquared[i] = weight * weight;
+            }
+        }
+
+        @Override
+        protected List<CollectionRouteDTO> compute() {
+            int n = stops.size();
+            boolean[] visited = new boolean[n];
+            List<CollectionRouteDTO> routes = new ArrayList<>();
+            int remaining = n;
+            boolean outOfTime = false;
+            int nextInOrder = 0;
+            while (remaining > 0) {
+                int tripSize = Math.min(capacity, remaining);
+                int[] trip = new int[tripSize];
+                double currentX = 0;
+                double currentY = 0;
+                for (int t = 0; t < tripSize; t++) {
+                    if (!outOfTime && System.nanoTime() > deadline) {
+                        outOfTime = true;
+                        budgetExhausted.set(true);
+                    }
+                    int best;
+                    if (outOfTime) {
+                        while (visited[nextInOrder]) {
+                            nextInOrder++;
+                        }
+                        best = nextInOrder;
+                    } else {
+                        best = nearest(visited, currentX, currentY);
+                    }
+                    visited[best] = true;
+                    trip[t] = best;
+                    currentX = x[best];
+                    currentY = y[best];
+                }
+                remaining -= tripSize;
+                twoOpt(trip);
+
+                List<RouteStopDTO> tripStops = new ArrayList<>(tripSize);
+                for (int stop : trip) {
+                    tripStops.add(stops.get(stop));
+                }
+                routes.add(new CollectionRouteDTO(region, routes.size() + 1, tripStops, length(trip)));
+            }
+            return routes;
+        }
+
+        private int nearest(boolean[] visited, double currentX, double currentY) {
+            int best = -1;
+            double bestCost = Double.MAX_VALUE;
+            for (int i = 0; i < visited.length; i++) {
+                if (visited[i]) {
+                    continue;
+                }
+                // squared distance over squared weight ranks the same as distance over weight
+                double dx = x[i] - currentX;
+                double dy = y[i] - currentY;
+                double cost = (dx * dx + dy * dy) / severityWeightSquared[i];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Reverses segments of the depot-to-depot tour while that shortens it.
+         */
+        private void twoOpt(int[] trip) {
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                for (int i = 0; i < trip.length - 1; i++) {
+                    if (System.nanoTime() > deadline) {
+                        budgetExhausted.set(true);
+                        return;
+                    }
+                    for (int k = i + 1; k < trip.length; k++) {
+                        double before = distance(trip, i - 1, i) + distance(trip, k, k + 1);
+                        double after = distance(trip, i - 1, k) + distance(trip, i, k + 1);
+                        if (after < before - 1e-9) {
+                            reverse(trip, i, k);
+                            improved = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Distance between tour positions a and b; position -1 and trip.length are the depot.
+         */
+        private double distance(int[] trip, int a, int b) {
+            double ax = a < 0 || a >= trip.length ? 0 : x[trip[a]];
+            double ay = a < 0 || a >= trip.length ? 0 : y[trip[a]];
+            double bx = b < 0 || b >= trip.length ? 0 : x[trip[b]];
+            double by = b < 0 || b >= trip.length ? 0 : y[trip[b]];
+            return Math.sqrt((ax - bx) * (ax - bx) + (ay - by) * (ay - by));
+        }
+
+        private double length(int[] trip) {
+            double length = 0;
+            for (int i = -1; i < trip.length; i++) {
+                length += distance(trip, i, i + 1);
+            }
+            return length;
+        }
+
+        private static void reverse(int[] trip, int from, int to) {
+            while (from < to) {
+                int swap = trip[from];
+                trip[from++] = trip[to];
+                trip[to--] = swap;
+            }
+        }
+    }
+}
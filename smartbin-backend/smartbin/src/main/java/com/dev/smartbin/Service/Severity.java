@@ -0,0 +1,34 @@
+package com.dev.smartbin.Service;
+
+/**
+ * Ordering of the free-text severities used by notifications and immediate actions
+ * ("Critical" > "High" > "Medium" > anything else), compared case-insensitively.
+ */
+public final class Severity {
+
+    public static final int CRITICAL = 3;
+    public static final int HIGH = 2;
+    public static final int MEDIUM = 1;
+    public static final int LOW = 0;
+
+    private Severity() {
+    }
+
+    private static final String[] NAMES = {"low", "medium", "high", "critical"};
+
+    public static String name(int rank) {
+        return NAMES[rank];
+    }
+
+    public static int rank(String severity) {
+        if (severity == null) {
+            return LOW;
+        }
+        return switch (severity.toLowerCase()) {
+            case "critical" -> CRITICAL;
+            case "high" -> HIGH;
+            case "medium" -> MEDIUM;
+            default -> LOW;
+        };
+    }
+}
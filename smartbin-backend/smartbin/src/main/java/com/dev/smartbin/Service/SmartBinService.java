@@ -1,6 +1,18 @@
 package com.dev.smartbin.Service;
 
+import com.dev.smartbin.DTO.BinHistoryPointDTO;
+import com.dev.smartbin.DTO.CollectionPlanDTO;
+import com.dev.smartbin.DTO.CollectionRouteDTO;
 import com.dev.smartbin.DTO.DeviceOnboardRequestDTO;
+import com.dev.smartbin.DTO.FillForecastDTO;
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import com.dev.smartbin.DTO.ImmediateActionEventDTO;
+import com.dev.smartbin.DTO.MarkNotificationsReadDTO;
+import com.dev.smartbin.DTO.NotificationEventDTO;
+import com.dev.smartbin.DTO.RegionSummaryDTO;
+import com.dev.smartbin.DTO.RouteStopDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
 import com.dev.smartbin.Model.DeviceOnboardRequest;
 import com.dev.smartbin.Model.ImmediateActionBin;
 import com.dev.smartbin.Model.Notification;
@@ -9,23 +21,52 @@ import com.dev.smartbin.Repository.DeviceOnboardRequestRepo;
 import com.dev.smartbin.Repository.ImmediateActionBinRepo;
 import com.dev.smartbin.Repository.NotificationRepo;
 import com.dev.smartbin.Repository.SmartBinRepo;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
-
+/**
+ * Every public method is timed as {@code smartbin.service} (tagged with the method name); the ingest path,
+ * immediate actions and the battery job additionally count what they touched.
+ */
 @Service
+@Timed(value = "smartbin.service", histogram = true)
 public class SmartBinService {
 
+    private static final String[] ACTION_TRANSITIONS = {"opened", "escalated", "deescalated", "closed"};
+    private static final int OPENED = 0;
+    private static final int ESCALATED = 1;
+    private static final int DEESCALATED = 2;
+    private static final int CLOSED = 3;
+
     @Autowired
     private SmartBinRepo smartBinRepo;
 
@@ -38,15 +79,127 @@ public class SmartBinService {
     @Autowired
     private NotificationRepo notificationRepo;
 
+    @Autowired
+    private DeviceRegistryCache deviceRegistryCache;
+
+    @Autowired
+    private NotificationPublisher notificationPublisher;
+
+    @Autowired
+    private DashboardEventBroadcaster dashboardEventBroadcaster;
+
+    @Autowired
+    private ImmediateActionTracker immediateActionTracker;
+
+    @Autowired
+    private ReadingHistoryStore readingHistoryStore;
+
+    @Autowired
+    private FillRateForecaster fillRateForecaster;
+
+    @Autowired
+    private RouteOptimizer routeOptimizer;
+
+    @Autowired
+    private SpatialBinIndex spatialBinIndex;
+
+    @Autowired
+    private RegionAggregates regionAggregates;
+
+    @Autowired
+    private NotificationCompactor notificationCompactor;
+
+    @Autowired
+    private NotificationSuppressor notificationSuppressor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BinStateEngine binStateEngine;
+
+    @Autowired
+    private BinWriteBehindBuffer binWriteBehindBuffer;
+
+    @Autowired
+    private TelemetryListener telemetryListener;
+
+    @Autowired
+    private TopicIngestGateway topicIngestGateway;
+
+    @Value("${smartbin.route.max-stops:5000}")
+    private int routeMaxStops;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${smartbin.battery.scan-chunk-size:500}")
+    private int batteryScanChunkSize;
+
+    @Value("${smartbin.battery.simulate-drainage:true}")
+    private boolean simulateBatteryDrainage;
+
+    static final int LOW_BATTERY_THRESHOLD = 20;
+
     private static final Logger logger = LoggerFactory.getLogger(SmartBinService.class);
 
+    private Counter singleReadingsAccepted;
+    private Counter singleReadingsRejected;
+    private Counter batchReadingsAccepted;
+    private Counter batchReadingsRejected;
+    private final Counter[][] actionTransitions = new Counter[ACTION_TRANSITIONS.length][Severity.CRITICAL + 1];
+    private Timer batteryJobTimer;
+    private Counter batteryRowsDrained;
+    private Counter batteryLowNotifications;
+
+    @PostConstruct
+    public void registerMeters() {
+        singleReadingsAccepted = readingsCounter("single", "accepted");
+        singleReadingsRejected = readingsCounter("single", "rejected");
+        batchReadingsAccepted = readingsCounter("batch", "accepted");
+        batchReadingsRejected = readingsCounter("batch", "rejected");
+        for (int transition = 0; transition < ACTION_TRANSITIONS.length; transition++) {
+            for (int rank = Severity.LOW; rank <= Severity.CRITICAL; rank++) {
+                actionTransitions[transition][rank] = Counter.builder("smartbin.actions")
+                        .description("Immediate action transitions by resulting severity (previous severity for closed)")
+                        .tag("transition", ACTION_TRANSITIONS[transition])
+                        .tag("severity", Severity.name(rank))
+                        .register(meterRegistry);
+            }
+        }
+        batteryJobTimer = Timer.builder("smartbin.battery.job")
+                .description("Duration of the battery drainage job")
+                .register(meterRegistry);
+        batteryRowsDrained = Counter.builder("smartbin.battery.drained")
+                .description("Bin rows updated by the battery drainage job")
+                .register(meterRegistry);
+        batteryLowNotifications = Counter.builder("smartbin.battery.low.notifications")
+                .description("Low battery notifications published by the battery drainage job")
+                .register(meterRegistry);
+    }
+
+    private Counter readingsCounter(String path, String outcome) {
+        return Counter.builder("smartbin.readings")
+                .description("Fill readings received")
+                .tag("path", path)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
     public SmartBin saveSmartBinData(SmartBin smartBin) {
-        logger.info("inside service saveSmartBinData");
-        return smartBinRepo.saveAndFlush(smartBin);
+        logger.debug("inside service saveSmartBinData");
+        binWriteBehindBuffer.flush();
+        SmartBin savedSmartBin = smartBinRepo.saveAndFlush(smartBin);
+        deviceRegistryCache.invalidate(savedSmartBin.getDevice_id());
+        binStateEngine.evict(savedSmartBin.getDevice_id());
+        spatialBinIndex.index(savedSmartBin);
+        regionAggregates.binChanged(savedSmartBin);
+        return savedSmartBin;
     }
 
+    @Transactional
     public DeviceOnboardRequest saveDeviceOnboardRequest(DeviceOnboardRequestDTO deviceOnboardRequest) {
-        logger.info("inside service saveDeviceOnboardRequest");
+        logger.debug("inside service saveDeviceOnboardRequest");
         Optional<SmartBin> smartBin = smartBinRepo.findSmartBinByDeviceId(deviceOnboardRequest.getDevice_id());
 
         DeviceOnboardRequest onboardRequest = new DeviceOnboardRequest();
@@ -60,14 +213,20 @@ public class SmartBinService {
         return deviceOnboardRequestRepo.saveAndFlush(onboardRequest);
     }
 
-    public List<SmartBin> getSmartBinData() {
-        logger.info("inside service getSmartBinData");
-        return smartBinRepo.findAll();
-
+    /**
+     * Keyset page of bins ordered by id: returns up to {@code limit} rows with id greater than {@code afterId}.
+     */
+    public List<SmartBinDTO> getSmartBinPage(long afterId, int limit, String region, String status,
+                                             Boolean onboarded, Integer minFill, Integer maxFill) {
+        logger.debug("inside service getSmartBinPage after {} limit {}", afterId, limit);
+        List<SmartBinDTO> page = smartBinRepo.findSmartBinPage(afterId, region, status, onboarded, minFill, maxFill, Limit.of(limit));
+        page.forEach(binWriteBehindBuffer::overlay);
+        return page;
     }
 
+    @Transactional
     public String acceptOnboardRequest(String deviceId) {
-        logger.info("inside service acceptOnboardRequest {}", deviceId);
+        logger.debug("inside service acceptOnboardRequest {}", deviceId);
         Optional<DeviceOnboardRequest> deviceOnboardRequestOptional = deviceOnboardRequestRepo.findDeviceOnboardRequestByDeviceId(deviceId);
         if (deviceOnboardRequestOptional.isPresent()) {
             DeviceOnboardRequest onboardRequest = deviceOnboardRequestOptional.get();
@@ -76,9 +235,15 @@ public class SmartBinService {
             deviceOnboardRequestRepo.saveAndFlush(onboardRequest);
 
             SmartBin smartBin = onboardRequest.getSmartBin();
+            binWriteBehindBuffer.overlay(smartBin);
             smartBin.setSmartbin_status("Active");
             smartBin.setIs_smartbin_Onboarded(true);
             smartBinRepo.saveAndFlush(smartBin);
+            deviceRegistryCache.invalidate(deviceId);
+            binStateEngine.evict(deviceId);
+            spatialBinIndex.index(smartBin);
+            regionAggregates.binChanged(smartBin);
+            dashboardEventBroadcaster.publish(DashboardEventBroadcaster.BIN_EVENT, SmartBinDTO.fromSmartBin(smartBin));
             String message=deviceId+" Device is Onboarded to the Application Successfully";
             addNotification(message, "medium", "information", smartBin);
             return "ACCEPTED";
@@ -89,8 +254,9 @@ public class SmartBinService {
 
     }
 
+    @Transactional
     public String rejectOnboardRequest(String deviceId) {
-        logger.info("inside service rejectOnboardRequest");
+        logger.debug("inside service rejectOnboardRequest");
         Optional<DeviceOnboardRequest> deviceOnboardRequestOptional = deviceOnboardRequestRepo.findDeviceOnboardRequestByDeviceId(deviceId);
         if (deviceOnboardRequestOptional.isPresent()) {
             DeviceOnboardRequest onboardRequest = deviceOnboardRequestOptional.get();
@@ -98,6 +264,14 @@ public class SmartBinService {
             addNotification(message, "medium", "information", null);
             deviceOnboardRequestRepo.deleteById(onboardRequest.getId());
             smartBinRepo.deleteById(onboardRequest.getSmartBin().getId());
+            immediateActionTracker.forget(onboardRequest.getSmartBin().getId());
+            fillRateForecaster.forget(deviceId);
+            spatialBinIndex.remove(onboardRequest.getSmartBin().getId());
+            regionAggregates.binRemoved(onboardRequest.getSmartBin().getId());
+            notificationSuppressor.forget(onboardRequest.getSmartBin().getId());
+            deviceRegistryCache.invalidate(deviceId);
+            binStateEngine.evict(deviceId);
+            dashboardEventBroadcaster.publish(DashboardEventBroadcaster.BIN_REMOVED_EVENT, Map.of("deviceId", deviceId));
             return "ACCEPTED";
         } else {
             logger.error("rejectOnboardRequest: Incorrect device id passed");
@@ -110,99 +284,568 @@ public class SmartBinService {
         return deviceOnboardRequestRepo.findAll();
     }
 
+    /**
+     * Applies a single reading through the {@link BinStateEngine}, waiting until it has been committed.
+     */
     public String addGarbageToBin(String deviceId, int fillPercent) {
-        if(fillPercent > 100){
+        if (!isValidPercent(fillPercent)) {
+            singleReadingsRejected.increment();
             return null;
         }
-        Optional<SmartBin> smartBinOpt = smartBinRepo.findSmartBinByDeviceId(deviceId);
-        if (smartBinOpt.isPresent()) {
-            SmartBin smartBin= smartBinOpt.get();
-            smartBin.setPercent_filled(fillPercent);
-            SmartBin smartBinResultOutput = smartBinRepo.saveAndFlush(smartBin);
+        FillReadingDTO reading = new FillReadingDTO();
+        reading.setDeviceId(deviceId);
+        reading.setFillPercent(fillPercent);
+        FillReadingResultDTO result = binStateEngine.submit(List.of(reading)).get(0);
+        if ("ACCEPTED".equals(result.getStatus())) {
+            singleReadingsAccepted.increment();
+        } else {
+            singleReadingsRejected.increment();
+            logger.error("addGarbageToBin: Incorrect device id passed");
+        }
+        return result.getMessage();
+    }
+
+    public boolean isAsyncIngest() {
+        return binStateEngine.isAsync();
+    }
 
-            if(fillPercent > 75){
-                takeNecessaryAction(smartBinResultOutput);
-            }else{
-                logger.info("addGarbageToBin: fillPercent is under Control, No Necessary action");
+    /**
+     * Asynchronous ingest: validates the readings and queues them on the {@link BinStateEngine}, stamping readings
+     * without a timestamp with the time they were received. Unknown devices are only detected when applied.
+     */
+    public List<FillReadingResultDTO> submitFillReadings(List<FillReadingDTO> readings) {
+        List<FillReadingResultDTO> results = new ArrayList<>(readings.size());
+        Date receivedAt = Date.from(Instant.now());
+        for (FillReadingDTO reading : readings) {
+            Integer fillPercent = reading.getFillPercent();
+            if (ObjectUtils.isEmpty(reading.getDeviceId()) || !isValidPercent(fillPercent)
+                    || (reading.getBattery() != null && !isValidPercent(reading.getBattery()))) {
+                results.add(new FillReadingResultDTO(reading.getDeviceId(), fillPercent, "FAILED", "Invalid Fill Reading Passed"));
+                continue;
+            }
+            if (reading.getTimestamp() == null) {
+                reading.setTimestamp(receivedAt);
             }
-            return fillPercent +"% Garbage is Added to the Bin "+deviceId;
+            if (binStateEngine.offer(reading)) {
+                results.add(new FillReadingResultDTO(reading.getDeviceId(), fillPercent, BinStateEngine.QUEUED,
+                        fillPercent + "% Garbage is Queued for the Bin " + reading.getDeviceId()));
+            } else {
+                results.add(new FillReadingResultDTO(reading.getDeviceId(), fillPercent, "FAILED", BinStateEngine.QUEUE_FULL));
+            }
+        }
+        return results;
+    }
 
-        } else {
-            logger.error("addGarbageToBin: Incorrect device id passed");
-            return "Incorrect Device Id Passed";
+    private Optional<SmartBin> findSmartBinByDeviceId(String deviceId) {
+        return deviceRegistryCache.get(deviceId, id -> {
+            Optional<SmartBin> smartBin = smartBinRepo.findSmartBinByDeviceId(id);
+            smartBin.ifPresent(bin -> {
+                entityManager.detach(bin);
+                binWriteBehindBuffer.overlay(bin);
+            });
+            return smartBin;
+        });
+    }
+
+    public Map<String, Long> getDeviceRegistryCacheStats() {
+        return deviceRegistryCache.getStats();
+    }
+
+    public Map<String, Long> getTelemetryStats() {
+        return telemetryListener.getStats();
+    }
+
+    public Map<String, Long> getTopicGatewayStats() {
+        return topicIngestGateway.getStats();
+    }
+
+    public Map<String, Long> getReadingHistoryStats() {
+        return readingHistoryStore.getStats();
+    }
+
+    public SpatialBinIndex.Page findBinsWithinRadius(double latitude, double longitude, double radiusKm, int offset, int limit) {
+        return spatialBinIndex.findWithinRadius(latitude, longitude, radiusKm, offset, limit);
+    }
+
+    public SpatialBinIndex.Page findBinsWithinBoundingBox(double minLatitude, double minLongitude, double maxLatitude,
+                                                          double maxLongitude, long afterId, int limit) {
+        return spatialBinIndex.findWithinBoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude, afterId, limit);
+    }
+
+    public List<RegionSummaryDTO> getRegionSummaries() {
+        return regionAggregates.getSummaries();
+    }
+
+    public Optional<FillForecastDTO> getFillForecast(String deviceId) {
+        return Optional.ofNullable(fillRateForecaster.getForecast(deviceId));
+    }
+
+    public List<FillForecastDTO> getOverflowForecast(double withinHours, String region, int limit) {
+        return fillRateForecaster.getOverflowRanking(withinHours, region, limit);
+    }
+
+    /**
+     * Fill and battery history of a bin over the last {@code days}, read from the rollups. Without an explicit
+     * resolution a day or less uses 5-minute buckets, up to 30 days hourly buckets and anything longer daily buckets.
+     */
+    public Optional<List<BinHistoryPointDTO>> getSmartBinHistory(String deviceId, int days, ReadingHistoryStore.Resolution resolution) {
+        if (resolution == null) {
+            resolution = days <= 1 ? ReadingHistoryStore.Resolution.FIVE_MINUTES
+                    : days <= 30 ? ReadingHistoryStore.Resolution.HOURLY
+                    : ReadingHistoryStore.Resolution.DAILY;
+        }
+        ReadingHistoryStore.Resolution bucketResolution = resolution;
+        Instant to = Instant.now();
+        Duration window = Duration.ofDays(days);
+        if (window.compareTo(readingHistoryStore.getRetention(bucketResolution)) > 0) {
+            window = readingHistoryStore.getRetention(bucketResolution);
+        }
+        Date from = Date.from(to.minus(window));
+        return findSmartBinByDeviceId(deviceId).map(smartBin ->
+                readingHistoryStore.getHistory(smartBin.getId(), bucketResolution, from, Date.from(to)));
+    }
+
+    /**
+     * Applies a batch of fill readings through the {@link BinStateEngine}, waiting until they have been committed.
+     * Readings of a device are applied in timestamp order, so the latest reading per bin wins; a reading that
+     * carries a battery level updates the battery too. Results are returned in the same order as the readings.
+     */
+    public List<FillReadingResultDTO> addGarbageToBinBatch(List<FillReadingDTO> readings) {
+        logger.debug("inside service addGarbageToBinBatch {}", readings.size());
+        FillReadingResultDTO[] results = new FillReadingResultDTO[readings.size()];
+        List<FillReadingDTO> valid = new ArrayList<>(readings.size());
+        for (int i = 0; i < readings.size(); i++) {
+            FillReadingDTO reading = readings.get(i);
+            if (isValidPercent(reading.getFillPercent())) {
+                valid.add(reading);
+            } else {
+                results[i] = new FillReadingResultDTO(reading.getDeviceId(), reading.getFillPercent(), "FAILED", "Invalid Fill Percent Passed");
+            }
+        }
+        List<FillReadingResultDTO> applied = valid.isEmpty() ? List.of() : binStateEngine.submit(valid);
+        for (int i = 0, next = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = applied.get(next++);
+            }
+            if ("ACCEPTED".equals(results[i].getStatus())) {
+                batchReadingsAccepted.increment();
+            } else {
+                batchReadingsRejected.increment();
+            }
         }
+        return Arrays.asList(results);
     }
 
+    /**
+     * Applies battery levels reported by the devices through the {@link BinStateEngine}, the latest report per bin
+     * winning. Returns how many reports were applied; reports for unknown devices or with an invalid level are skipped.
+     */
+    public int addBatteryReportsBatch(List<FillReadingDTO> reports) {
+        logger.debug("inside service addBatteryReportsBatch {}", reports.size());
+        int applied = 0;
+        for (FillReadingResultDTO result : binStateEngine.submit(reports)) {
+            if ("ACCEPTED".equals(result.getStatus())) {
+                applied++;
+            } else {
+                logger.error("addBatteryReportsBatch: Incorrect battery report passed {}", result.getDeviceId());
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Applies one {@link BinStateEngine} shard batch in a single transaction, on the shard's thread. Bins missing
+     * from the shard's state are loaded with one query and kept there detached. Readings are applied in timestamp
+     * order, one without a fill level being a battery report; only bins whose fill or battery changed are handed
+     * to the {@link BinWriteBehindBuffer}, and a low battery notification is published for every bin whose battery
+     * changed to under the threshold. Results are returned in the same order as the readings.
+     */
+    @Transactional
+    public List<FillReadingResultDTO> applyShardBatch(List<FillReadingDTO> readings, Map<String, SmartBin> shardBins) {
+        List<FillReadingDTO> misses = new ArrayList<>();
+        for (FillReadingDTO reading : readings) {
+            if (reading.getDeviceId() != null && !shardBins.containsKey(reading.getDeviceId())) {
+                misses.add(reading);
+            }
+        }
+        for (SmartBin smartBin : findSmartBinsByDeviceIds(misses).values()) {
+            entityManager.detach(smartBin);
+            binWriteBehindBuffer.overlay(smartBin);
+            shardBins.put(smartBin.getDevice_id(), smartBin);
+        }
+
+        FillReadingResultDTO[] results = new FillReadingResultDTO[readings.size()];
+        Set<SmartBin> fillChanged = new LinkedHashSet<>();
+        Set<SmartBin> batteryChanged = new LinkedHashSet<>();
+        for (int index : timestampOrder(readings)) {
+            FillReadingDTO reading = readings.get(index);
+            Integer fillPercent = reading.getFillPercent();
+            Integer battery = reading.getBattery();
+            SmartBin smartBin = shardBins.get(reading.getDeviceId());
+            String rejection = null;
+            if (fillPercent == null ? battery == null : !isValidPercent(fillPercent)) {
+                rejection = "Invalid Fill Percent Passed";
+            } else if (battery != null && !isValidPercent(battery)) {
+                rejection = "Invalid Battery Passed";
+            } else if (smartBin == null) {
+                logger.error("applyShardBatch: Incorrect device id passed {}", reading.getDeviceId());
+                rejection = "Incorrect Device Id Passed";
+            }
+            if (rejection != null) {
+                results[index] = new FillReadingResultDTO(reading.getDeviceId(), fillPercent, "FAILED", rejection);
+                continue;
+            }
+
+            Date readingAt = reading.getTimestamp() == null ? Date.from(Instant.now()) : reading.getTimestamp();
+            if (battery != null && !battery.equals(smartBin.getSmartbin_batteryStatus())) {
+                smartBin.setSmartbin_batteryStatus(battery);
+                regionAggregates.batteryChanged(smartBin.getId(), battery);
+                batteryChanged.add(smartBin);
+            }
+            if (fillPercent != null) {
+                if (fillPercent != smartBin.getPercent_filled()) {
+                    smartBin.setPercent_filled(fillPercent);
+                    regionAggregates.fillChanged(smartBin.getId(), fillPercent);
+                    fillChanged.add(smartBin);
+                }
+                fillRateForecaster.record(smartBin.getDevice_id(), smartBin.getRegion(), fillPercent, readingAt);
+                takeNecessaryAction(smartBin);
+            }
+            readingHistoryStore.record(smartBin.getId(), fillPercent, battery, readingAt);
+            results[index] = new FillReadingResultDTO(reading.getDeviceId(), fillPercent, "ACCEPTED", fillPercent != null
+                    ? fillPercent + "% Garbage is Added to the Bin " + reading.getDeviceId()
+                    : "Battery of the Bin " + reading.getDeviceId() + " is at " + battery + "%");
+        }
+
+        binWriteBehindBuffer.write(fillChanged, batteryChanged);
+
+        List<Notification> notifications = new ArrayList<>();
+        for (SmartBin smartBin : batteryChanged) {
+            int battery = smartBin.getSmartbin_batteryStatus();
+            if (battery < LOW_BATTERY_THRESHOLD) {
+                String message = "Bin "+ smartBin.getDevice_id()+" battery critically low at "+ battery +"%";
+                notifications.add(buildNotification(message, battery <= 5 ? "critical" : "high", "battery", smartBin));
+            }
+        }
+        notificationPublisher.publishAll(notifications);
+        batteryLowNotifications.increment(notifications.size());
+
+        Set<SmartBin> updatedBins = new LinkedHashSet<>(fillChanged);
+        updatedBins.addAll(batteryChanged);
+        for (SmartBin smartBin : updatedBins) {
+            dashboardEventBroadcaster.publish(DashboardEventBroadcaster.BIN_EVENT, SmartBinDTO.fromSmartBin(smartBin));
+        }
+        if (!updatedBins.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> updatedBins.forEach(deviceRegistryCache::put));
+        }
+        return Arrays.asList(results);
+    }
+
+    private Map<String, SmartBin> findSmartBinsByDeviceIds(List<FillReadingDTO> readings) {
+        Set<String> deviceIds = readings.stream()
+                .map(FillReadingDTO::getDeviceId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return deviceIds.isEmpty() ? Map.of() :
+                smartBinRepo.findSmartBinsByDeviceIds(deviceIds).stream()
+                        .collect(Collectors.toMap(SmartBin::getDevice_id, Function.identity(), (first, second) -> first));
+    }
+
+    private static Integer[] timestampOrder(List<FillReadingDTO> readings) {
+        Integer[] order = new Integer[readings.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> readings.get(i).getTimestamp(),
+                Comparator.nullsLast(Comparator.<Date>naturalOrder())));
+        return order;
+    }
+
+    /**
+     * Upserts the bin's single immediate action for its current fill. Nothing is written unless the severity
+     * changes: the action is opened (or re-opened), escalated or de-escalated in place, or closed once the fill
+     * drops to 75% or below. Overflow notifications are only emitted when the action opens or changes severity.
+     */
     private void takeNecessaryAction(SmartBin smartBin) {
+        int severityRank = overflowSeverityRank(smartBin.getPercent_filled());
+        ImmediateActionTracker.Transition transition = immediateActionTracker.transition(smartBin.getId(), severityRank);
+        if (transition == null) {
+            return;
+        }
+        Date now = Date.from(Instant.now());
+        long actionId = transition.actionId();
+        regionAggregates.actionChanged(smartBin.getId(), severityRank != Severity.LOW);
+        countActionTransition(transition);
+        if (severityRank == Severity.LOW) {
+            immediateActionBinRepo.closeImmediateAction(actionId, now);
+            publishImmediateAction(actionId, ImmediateActionBin.CLOSED, smartBin);
+            // the bin was emptied, so the next overflow is a new one and must not be held back by the old rank
+            notificationSuppressor.reset(smartBin.getId(), "overflow");
+            return;
+        }
+
+        String status = overflowStatus(severityRank);
+        if (actionId == 0) {
+            ImmediateActionBin immediateActionBin=new ImmediateActionBin();
+            immediateActionBin.setSmartBin(smartBinRepo.getReferenceById(smartBin.getId()));
+            immediateActionBin.setImmediateAction_status(status);
+            immediateActionBin.setSeverityRank(severityRank);
+            immediateActionBin.setActionState(ImmediateActionBin.OPEN);
+            immediateActionBin.setCreatedAt(now);
+            immediateActionBin.setUpdatedAt(now);
+            actionId = immediateActionBinRepo.save(immediateActionBin).getId();
+            immediateActionTracker.recordActionId(smartBin.getId(), actionId);
+        } else {
+            immediateActionBinRepo.openImmediateAction(actionId, status, severityRank, now);
+        }
+
+        String message;
+        if (severityRank == Severity.CRITICAL) {
+            message="Bin "+ smartBin.getDevice_id() +" at "+smartBin.getSmartbin_location()+" is "+smartBin.getPercent_filled()+"% full - Immediate collection required";
+        } else {
+            message="Bin "+ smartBin.getDevice_id() +" at "+smartBin.getSmartbin_location()+" is "+smartBin.getPercent_filled()+"% full - Schedule pickup soon";
+        }
+        notificationPublisher.publish(buildNotification(message, status.toLowerCase(), "overflow", smartBin));
+        publishImmediateAction(actionId, status, smartBin);
+    }
+
+    private void countActionTransition(ImmediateActionTracker.Transition transition) {
+        if (transition.severityRank() == Severity.LOW) {
+            actionTransitions[CLOSED][transition.previousSeverityRank()].increment();
+        } else if (transition.previousSeverityRank() == Severity.LOW) {
+            actionTransitions[OPENED][transition.severityRank()].increment();
+        } else if (transition.severityRank() > transition.previousSeverityRank()) {
+            actionTransitions[ESCALATED][transition.severityRank()].increment();
+        } else {
+            actionTransitions[DEESCALATED][transition.severityRank()].increment();
+        }
+    }
+
+    private static boolean isValidPercent(Integer percent) {
+        return percent != null && percent >= 0 && percent <= 100;
+    }
 
-        ImmediateActionBin immediateActionBin=new ImmediateActionBin();
-        immediateActionBin.setSmartBin(smartBin);
-        if(smartBin.getPercent_filled() > 75 && smartBin.getPercent_filled() < 85){
-            immediateActionBin.setImmediateAction_status("Medium");
-            String message="Bin "+ smartBin.getDevice_id() +" at "+smartBin.getSmartbin_location()+" is "+smartBin.getPercent_filled()+"% full - Schedule pickup soon";
-            addNotification(message, "medium", "overflow", smartBin);
-        } else if (smartBin.getPercent_filled() >= 85 && smartBin.getPercent_filled() < 95) {
-            String message="Bin "+ smartBin.getDevice_id() +" at "+smartBin.getSmartbin_location()+" is "+smartBin.getPercent_filled()+"% full - Schedule pickup soon";
-            addNotification(message, "high", "overflow", smartBin);
-            immediateActionBin.setImmediateAction_status("High");
-        }else {
-            String message="Bin "+ smartBin.getDevice_id() +" at "+smartBin.getSmartbin_location()+" is "+smartBin.getPercent_filled()+"% full - Immediate collection required";
-            addNotification(message, "critical", "overflow", smartBin);
-            immediateActionBin.setImmediateAction_status("Critical");
+    private static int overflowSeverityRank(int percentFilled) {
+        if (percentFilled <= 75) {
+            return Severity.LOW;
+        } else if (percentFilled < 85) {
+            return Severity.MEDIUM;
+        } else if (percentFilled < 95) {
+            return Severity.HIGH;
         }
-        immediateActionBinRepo.saveAndFlush(immediateActionBin);
+        return Severity.CRITICAL;
+    }
+
+    private static String overflowStatus(int severityRank) {
+        return switch (severityRank) {
+            case Severity.CRITICAL -> "Critical";
+            case Severity.HIGH -> "High";
+            default -> "Medium";
+        };
+    }
+
+    private void publishImmediateAction(long actionId, String status, SmartBin smartBin) {
+        dashboardEventBroadcaster.publish(DashboardEventBroadcaster.IMMEDIATE_ACTION_EVENT,
+                new ImmediateActionEventDTO(actionId, smartBin.getDevice_id(), smartBin.getRegion(),
+                        smartBin.getSmartbin_location(), status, smartBin.getPercent_filled()));
     }
 
     public List<ImmediateActionBin> getAllImmediateActionActiveSmartBin() {
-        List<ImmediateActionBin> immediateActionBins= immediateActionBinRepo.findAll();
-        return immediateActionBins.stream().filter(p->"Active".equalsIgnoreCase(p.getSmartBin().getSmartbin_status())).toList();
+        return getImmediateActionActiveSmartBin(null, 200, "severity").actions();
     }
 
+    public record ImmediateActionPage(List<ImmediateActionBin> actions, String nextCursor) {
+    }
 
-    @Scheduled(cron = "0 0 * * * ?")
-    @Transactional
-    public void scheduleBatteryDrainagePerHour() {
-        logger.info("ScheduleBatteryDrainagePerHour running now");
-        List<SmartBin> smartBinsList = getSmartBinData();
-        for (SmartBin bin : smartBinsList) {
-            String batteryStr = bin.getSmartbin_batteryStatus();
-            if (batteryStr == null) {
-                continue; // skip invalid data safely
-            }
-            int battery;
+    /**
+     * Immediate actions of active bins, keyset paged in the database with the bin fetch-joined.
+     * {@code orderBy} "severity" sorts Critical first then oldest first; "age" sorts oldest first then by severity.
+     * The cursor is {@code <severityRank>:<createdAt millis>:<id>} of the last row returned.
+     */
+    public ImmediateActionPage getImmediateActionActiveSmartBin(String cursor, int limit, String orderBy) {
+        int afterRank = Integer.MAX_VALUE;
+        Date afterCreatedAt = new Date(0);
+        long afterId = 0;
+        if (!ObjectUtils.isEmpty(cursor)) {
+            String[] parts = cursor.split(":");
             try {
-                battery = Integer.parseInt(batteryStr);
+                if (parts.length != 3) {
+                    throw new NumberFormatException();
+                }
+                afterRank = Integer.parseInt(parts[0]);
+                afterCreatedAt = new Date(Long.parseLong(parts[1]));
+                afterId = Long.parseLong(parts[2]);
             } catch (NumberFormatException e) {
-                logger.warn("Invalid battery value for deviceId {}: {}",
-                        bin.getDevice_id(), batteryStr);
-                continue;
+                throw new IllegalArgumentException("Invalid immediate action cursor " + cursor);
             }
-            // Drain battery by 1% per hour
-            battery = Math.max(battery - 1, 0);
-            if(battery < 20 && battery > 5){
-                String message = "Bin "+ bin.getDevice_id()+" battery critically low at "+ battery +"%";
-                addNotification(message, "high", "battery", bin);
-            }else if(battery <= 5){
+        }
+        List<ImmediateActionBin> page = "age".equalsIgnoreCase(orderBy)
+                ? immediateActionBinRepo.findImmediateActionPageByAge("Active", afterRank, afterCreatedAt, afterId, Limit.of(limit))
+                : immediateActionBinRepo.findImmediateActionPageBySeverity("Active", afterRank, afterCreatedAt, afterId, Limit.of(limit));
+        String nextCursor = null;
+        if (page.size() == limit) {
+            ImmediateActionBin last = page.get(page.size() - 1);
+            nextCursor = last.getSeverityRank() + ":" + last.getCreatedAt().getTime() + ":" + last.getId();
+        }
+        return new ImmediateActionPage(page, nextCursor);
+    }
+
+    /**
+     * Plans pickup trips of at most {@code capacity} bins from the depot over the open immediate actions of
+     * active bins, most severe first. Bins without coordinates are reported as unrouted.
+     */
+    public CollectionPlanDTO planCollectionRoutes(double depotLatitude, double depotLongitude, int capacity, long timeBudgetMillis) {
+        long start = System.nanoTime();
+        List<RouteStopDTO> stops = immediateActionBinRepo.findRouteStopsBySmartBinStatus("Active", Limit.of(routeMaxStops));
+        List<RouteStopDTO> routable = new ArrayList<>(stops.size());
+        List<String> unrouted = new ArrayList<>();
+        for (RouteStopDTO stop : stops) {
+            if (stop.getLatitude() == null || stop.getLongitude() == null) {
+                unrouted.add(stop.getDeviceId());
+            } else {
+                routable.add(stop);
+            }
+        }
+        long remainingBudget = Math.max(0, timeBudgetMillis - (System.nanoTime() - start) / 1_000_000);
+        RouteOptimizer.Plan plan = routeOptimizer.optimise(depotLatitude, depotLongitude, capacity, routable, remainingBudget);
+        double totalDistanceKm = plan.routes().stream().mapToDouble(CollectionRouteDTO::getDistanceKm).sum();
+        return new CollectionPlanDTO(plan.routes(), unrouted, totalDistanceKm,
+                (System.nanoTime() - start) / 1_000_000, plan.budgetExhausted());
+    }
+
+    /**
+     * Drains every battery by 1% with one bulk UPDATE, then walks the low-battery bins in (battery, id)
+     * order (keyset pagination) and publishes their notifications chunk by chunk. Only a simulation for bins that
+     * do not report their battery, switched off with {@code smartbin.battery.simulate-drainage}.
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    public void scheduleBatteryDrainagePerHour() {
+        if (!simulateBatteryDrainage) {
+            return;
+        }
+        logger.debug("ScheduleBatteryDrainagePerHour running now");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        binWriteBehindBuffer.flush();
+        int drained = smartBinRepo.drainBatteryByOnePercent();
+        deviceRegistryCache.invalidateAll();
+        binStateEngine.evictAll();
+        readingHistoryStore.recordBatterySnapshot(Date.from(Instant.now()));
+
+        int afterBattery = -1;
+        long afterId = 0;
+        int notified = 0;
+        List<SmartBin> lowBatteryBins;
+        do {
+            lowBatteryBins = smartBinRepo.findLowBatteryBinsAfter(LOW_BATTERY_THRESHOLD, afterBattery, afterId,
+                    Limit.of(batteryScanChunkSize));
+            List<Notification> notifications = new ArrayList<>(lowBatteryBins.size());
+            for (SmartBin bin : lowBatteryBins) {
+                int battery = bin.getSmartbin_batteryStatus();
+                regionAggregates.batteryChanged(bin.getId(), battery);
                 String message = "Bin "+ bin.getDevice_id()+" battery critically low at "+ battery +"%";
-                addNotification(message, "critical", "battery", bin);
+                notifications.add(buildNotification(message, battery <= 5 ? "critical" : "high", "battery", bin));
+                afterBattery = battery;
+                afterId = bin.getId();
             }
-            bin.setSmartbin_batteryStatus(String.valueOf(battery));
+            notificationPublisher.publishAll(notifications);
+            notified += notifications.size();
+        } while (lowBatteryBins.size() == batteryScanChunkSize);
+        batteryRowsDrained.increment(drained);
+        batteryLowNotifications.increment(notified);
+        sample.stop(batteryJobTimer);
+        logger.info("ScheduleBatteryDrainagePerHour drained {} bins, {} low battery notifications", drained, notified);
+    }
+
+    public record NotificationPage(List<NotificationEventDTO> notifications, String nextCursor) {
+    }
+
+    private static final String UNREAD_CURSOR = "unread:";
+    private static final String READ_CURSOR = "read:";
+
+    /**
+     * Unread notifications first, each group newest first. The cursor is {@code unread:<id>} or
+     * {@code read:<id>} of the last row returned; once the unread rows run out the page continues with read ones.
+     */
+    public NotificationPage getNotificationPage(String cursor, int limit, String severity, String type, String deviceId) {
+        boolean read = false;
+        long beforeId = Long.MAX_VALUE;
+        if (!ObjectUtils.isEmpty(cursor)) {
+            if (cursor.startsWith(UNREAD_CURSOR)) {
+                beforeId = Long.parseLong(cursor.substring(UNREAD_CURSOR.length()));
+            } else if (cursor.startsWith(READ_CURSOR)) {
+                read = true;
+                beforeId = Long.parseLong(cursor.substring(READ_CURSOR.length()));
+            } else {
+                throw new IllegalArgumentException("Invalid notification cursor " + cursor);
+            }
+        }
+        Long smartBinId = null;
+        if (!ObjectUtils.isEmpty(deviceId)) {
+            Optional<SmartBin> smartBin = findSmartBinByDeviceId(deviceId);
+            if (smartBin.isEmpty()) {
+                return new NotificationPage(List.of(), null);
+            }
+            smartBinId = smartBin.get().getId();
+        }
+
+        List<NotificationEventDTO> page = new ArrayList<>(
+                notificationRepo.findNotificationPage(read, beforeId, severity, type, smartBinId, Limit.of(limit)));
+        if (!read && page.size() < limit) {
+            page.addAll(notificationRepo.findNotificationPage(true, Long.MAX_VALUE, severity, type, smartBinId,
+                    Limit.of(limit - page.size())));
+        }
+        String nextCursor = null;
+        if (page.size() == limit) {
+            NotificationEventDTO last = page.get(page.size() - 1);
+            nextCursor = (last.isRead() ? READ_CURSOR : UNREAD_CURSOR) + last.getId();
+        }
+        return new NotificationPage(page, nextCursor);
+    }
+
+    public long getUnreadNotificationCount() {
+        return notificationRepo.countUnread();
+    }
+
+    /**
+     * Marks the given notifications, or everything created before {@code before}, as read with a single UPDATE.
+     */
+    public int markNotificationsRead(MarkNotificationsReadDTO request) {
+        if (!ObjectUtils.isEmpty(request.getIds())) {
+            return notificationRepo.markReadByIds(request.getIds());
+        }
+        if (request.getBefore() != null) {
+            return notificationRepo.markReadBefore(request.getBefore());
         }
-        smartBinRepo.saveAll(smartBinsList);
+        return 0;
     }
 
-    public List<Notification> getAllNotification() {
-        return notificationRepo.findAll();
+    public Map<String, Number> getNotificationPipelineStats() {
+        return notificationPublisher.getStats();
+    }
+
+    public Map<String, Long> getNotificationCompactionStats() {
+        return notificationCompactor.getStats();
+    }
+
+    public Map<String, Object> getNotificationSuppressionStats() {
+        return notificationSuppressor.getStats();
     }
 
     public void addNotification(String message, String severity, String type, SmartBin smartBin){
+        notificationPublisher.publish(buildNotification(message, severity, type, smartBin));
+    }
+
+    private Notification buildNotification(String message, String severity, String type, SmartBin smartBin){
         Notification notification=new Notification();
         notification.setMessage(message);
         notification.setSeverity(severity);
         notification.setType(type);
         notification.setSmartBin(smartBin);
-        notification.setCreatedAt(Date.from(Instant.now()));
+        Date now = Date.from(Instant.now());
+        notification.setCreatedAt(now);
+        notification.setLastSeenAt(now);
+        notification.setOccurrenceCount(1);
         notification.setRead(false);
-        notificationRepo.save(notification);
+        return notification;
     }
 }
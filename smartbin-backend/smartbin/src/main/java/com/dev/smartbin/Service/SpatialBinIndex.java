@@ -0,0 +1,259 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.BinLocationDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
+import com.dev.smartbin.Model.SmartBin;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory uniform grid over bin coordinates. Each cell holds its bins in primitive arrays, so radius and
+ * bounding-box queries only touch the cells overlapping the query area and never reach the database.
+ * Bins without coordinates are not indexed. Longitude wrap-around at the antimeridian is not handled.
+ */
+@Component
+public class SpatialBinIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = 111.195;
+
+    private static final class Cell {
+        long[] ids = new long[4];
+        double[] latitudes = new double[4];
+        double[] longitudes = new double[4];
+        String[] deviceIds = new String[4];
+        String[] regions = new String[4];
+        int size;
+
+        void add(long id, double latitude, double longitude, String deviceId, String region) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                deviceIds = Arrays.copyOf(deviceIds, capacity);
+                regions = Arrays.copyOf(regions, capacity);
+            }
+            ids[size] = id;
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            deviceIds[size] = deviceId;
+            regions[size] = region;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    int last = --size;
+                    ids[i] = ids[last];
+                    latitudes[i] = latitudes[last];
+                    longitudes[i] = longitudes[last];
+                    deviceIds[i] = deviceIds[last];
+                    regions[i] = regions[last];
+                    deviceIds[last] = null;
+                    regions[last] = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    public record Page(List<BinLocationDTO> bins, Long nextCursor) {
+    }
+
+    private final double cellDegrees;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final Map<Long, Long> cellKeyByBinId = new HashMap<>();
+
+    public SpatialBinIndex(@Value("${smartbin.spatial.cell-degrees:0.01}") double cellDegrees) {
+        this.cellDegrees = cellDegrees;
+    }
+
+    /**
+     * Indexes a stored bin during the startup pass of {@link BinIndexWarmer}.
+     */
+    void warm(SmartBinDTO smartBin) {
+        apply(smartBin.getId(), smartBin.getLatitude(), smartBin.getLongitude(), smartBin.getDevice_id(), smartBin.getRegion());
+    }
+
+    /**
+     * Indexes the bin at its current coordinates (or drops it when they were cleared); inside a transaction
+     * the index is updated once the transaction commits.
+     */
+    public void index(SmartBin smartBin) {
+        long id = smartBin.getId();
+        Double latitude = smartBin.getLatitude();
+        Double longitude = smartBin.getLongitude();
+        String deviceId = smartBin.getDevice_id();
+        String region = smartBin.getRegion();
+        TransactionCallbacks.afterCommit(() -> apply(id, latitude, longitude, deviceId, region));
+    }
+
+    public void remove(long binId) {
+        TransactionCallbacks.afterCommit(() -> apply(binId, null, null, null, null));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellKeyByBinId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bins within {@code radiusKm} of the point, nearest first; {@code offset} and {@code limit} page through
+     * the ordered matches and the returned cursor is the offset of the next page.
+     */
+    public Page findWithinRadius(double latitude, double longitude, double radiusKm, int offset, int limit) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double longitudeSpan = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(latitude)), 1e-6));
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCell(latitude - latitudeSpan, longitude - longitudeSpan, latitude + latitudeSpan, longitude + longitudeSpan, cell -> {
+                for (int i = 0; i < cell.size; i++) {
+                    if (Math.abs(cell.latitudes[i] - latitude) > latitudeSpan || Math.abs(cell.longitudes[i] - longitude) > longitudeSpan) {
+                        continue;
+                    }
+                    double distance = haversineKm(latitude, longitude, cell.latitudes[i], cell.longitudes[i]);
+                    if (distance <= radiusKm) {
+                        matches.add(new Match(cell, i, distance));
+                    }
+                }
+            });
+            matches.sort((a, b) -> a.distance != b.distance
+                    ? Double.compare(a.distance, b.distance)
+                    : Long.compare(a.cell.ids[a.index], b.cell.ids[b.index]));
+            int from = Math.min(offset, matches.size());
+            int to = Math.min(from + limit, matches.size());
+            List<BinLocationDTO> bins = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                bins.add(matches.get(i).toLocation());
+            }
+            return new Page(bins, to < matches.size() ? Long.valueOf(to) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bins inside the box in id order, keyset-paged by {@code afterId}; the returned cursor is the last id of the page.
+     */
+    public Page findWithinBoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                      long afterId, int limit) {
+        List<Match> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            forEachCell(minLatitude, minLongitude, maxLatitude, maxLongitude, cell -> {
+                for (int i = 0; i < cell.size; i++) {
+                    double lat = cell.latitudes[i];
+                    double lon = cell.longitudes[i];
+                    if (cell.ids[i] > afterId && lat >= minLatitude && lat <= maxLatitude
+                            && lon >= minLongitude && lon <= maxLongitude) {
+                        matches.add(new Match(cell, i, Double.NaN));
+                    }
+                }
+            });
+            matches.sort((a, b) -> Long.compare(a.cell.ids[a.index], b.cell.ids[b.index]));
+            int to = Math.min(limit, matches.size());
+            List<BinLocationDTO> bins = new ArrayList<>(to);
+            for (int i = 0; i < to; i++) {
+                bins.add(matches.get(i).toLocation());
+            }
+            return new Page(bins, to < matches.size() ? Long.valueOf(bins.get(to - 1).getId()) : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Match(Cell cell, int index, double distance) {
+
+        BinLocationDTO toLocation() {
+            return new BinLocationDTO(cell.ids[index], cell.deviceIds[index], cell.regions[index],
+                    cell.latitudes[index], cell.longitudes[index], Double.isNaN(distance) ? null : distance);
+        }
+    }
+
+    private void forEachCell(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                             Consumer<Cell> action) {
+        int minRow = row(minLatitude);
+        int maxRow = row(maxLatitude);
+        int minColumn = column(minLongitude);
+        int maxColumn = column(maxLongitude);
+        long cellsInRange = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (cellsInRange > cells.size()) {
+            // large areas: walking the occupied cells is cheaper than probing empty ones
+            cells.forEach((key, cell) -> {
+                int cellRow = (int) (key >> 32);
+                int cellColumn = (int) (long) key;
+                if (cellRow >= minRow && cellRow <= maxRow && cellColumn >= minColumn && cellColumn <= maxColumn) {
+                    action.accept(cell);
+                }
+            });
+            return;
+        }
+        for (int cellRow = minRow; cellRow <= maxRow; cellRow++) {
+            for (int cellColumn = minColumn; cellColumn <= maxColumn; cellColumn++) {
+                Cell cell = cells.get(cellKey(cellRow, cellColumn));
+                if (cell != null) {
+                    action.accept(cell);
+                }
+            }
+        }
+    }
+
+    private void apply(long binId, Double latitude, Double longitude, String deviceId, String region) {
+        lock.writeLock().lock();
+        try {
+            Long previousKey = cellKeyByBinId.remove(binId);
+            if (previousKey != null) {
+                Cell previous = cells.get(previousKey);
+                previous.remove(binId);
+                if (previous.size == 0) {
+                    cells.remove(previousKey);
+                }
+            }
+            if (latitude == null || longitude == null) {
+                return;
+            }
+            long key = cellKey(row(latitude), column(longitude));
+            cells.computeIfAbsent(key, k -> new Cell()).add(binId, latitude, longitude, deviceId, region);
+            cellKeyByBinId.put(binId, key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees);
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((Math.max(-180, Math.min(180, longitude)) + 180) / cellDegrees);
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,88 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Binary telemetry frame, big-endian:
+ * <pre>
+ *   u16 length     bytes that follow
+ *   u8  version    {@link #VERSION}
+ *   u8  fill       0-100
+ *   u8  battery    0-100, or {@link #NO_BATTERY}
+ *   i64 timestamp  epoch millis, 0 for the time the frame is received
+ *   ..  device id  US-ASCII, the remaining length bytes
+ * </pre>
+ * Over TCP frames are written back to back; a UDP datagram carries one or more whole frames.
+ */
+public final class TelemetryFrame {
+
+    public static final int VERSION = 1;
+    public static final int NO_BATTERY = 0xFF;
+    public static final int LENGTH_BYTES = 2;
+    public static final int FIXED_BYTES = 11;
+    public static final int MAX_DEVICE_ID_BYTES = 64;
+    public static final int MAX_FRAME_BYTES = LENGTH_BYTES + FIXED_BYTES + MAX_DEVICE_ID_BYTES;
+
+    private TelemetryFrame() {
+    }
+
+    /**
+     * Writes one frame, returning false (with the buffer untouched) when it does not fit.
+     */
+    public static boolean encode(ByteBuffer buffer, byte[] deviceId, int fillPercent, int battery, long timestamp) {
+        if (buffer.remaining() < LENGTH_BYTES + FIXED_BYTES + deviceId.length) {
+            return false;
+        }
+        buffer.putShort((short) (FIXED_BYTES + deviceId.length))
+                .put((byte) VERSION)
+                .put((byte) fillPercent)
+                .put((byte) battery)
+                .putLong(timestamp)
+                .put(deviceId);
+        return true;
+    }
+
+    /**
+     * Length of the frame starting at the buffer position, or -1 when its length prefix has not arrived yet.
+     */
+    static int frameLength(ByteBuffer buffer) {
+        if (buffer.remaining() < LENGTH_BYTES) {
+            return -1;
+        }
+        return LENGTH_BYTES + Short.toUnsignedInt(buffer.getShort(buffer.position()));
+    }
+
+    /**
+     * Reads the complete frame at the buffer position, using {@code scratch} (at least
+     * {@link #MAX_DEVICE_ID_BYTES} long) for the device id.
+     *
+     * @throws IllegalArgumentException when the frame is malformed; the stream cannot be resynchronised after that
+     */
+    static FillReadingDTO decode(ByteBuffer buffer, byte[] scratch, Date receivedAt) {
+        int deviceIdBytes = Short.toUnsignedInt(buffer.getShort()) - FIXED_BYTES;
+        if (deviceIdBytes <= 0 || deviceIdBytes > MAX_DEVICE_ID_BYTES) {
+            throw new IllegalArgumentException("Invalid frame length " + (deviceIdBytes + FIXED_BYTES));
+        }
+        int version = Byte.toUnsignedInt(buffer.get());
+        int fillPercent = Byte.toUnsignedInt(buffer.get());
+        int battery = Byte.toUnsignedInt(buffer.get());
+        long timestamp = buffer.getLong();
+        buffer.get(scratch, 0, deviceIdBytes);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported frame version " + version);
+        }
+        if (fillPercent > 100 || (battery > 100 && battery != NO_BATTERY) || timestamp < 0) {
+            throw new IllegalArgumentException("Invalid reading in frame");
+        }
+        FillReadingDTO reading = new FillReadingDTO();
+        reading.setDeviceId(new String(scratch, 0, deviceIdBytes, StandardCharsets.US_ASCII));
+        reading.setFillPercent(fillPercent);
+        reading.setBattery(battery == NO_BATTERY ? null : battery);
+        reading.setTimestamp(timestamp == 0 ? receivedAt : new Date(timestamp));
+        return reading;
+    }
+}
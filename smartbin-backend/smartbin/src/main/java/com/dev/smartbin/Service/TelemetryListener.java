@@ -0,0 +1,301 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded NIO listener for {@link TelemetryFrame binary telemetry}, on the same port over TCP and UDP.
+ * One selector thread decodes frames straight out of direct buffers and hands the readings to
+ * {@link BinStateEngine}, whose shards apply them in batches through {@link SmartBinService#applyShardBatch}.
+ * <p>
+ * When a shard's mailbox is full a TCP connection stops being read until there is room again, so the device is slowed
+ * down by TCP flow control; UDP has no back channel and the reading is dropped. A malformed frame closes the
+ * TCP connection and discards the rest of a datagram.
+ */
+@Component
+public class TelemetryListener implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryListener.class);
+
+    private static final long RESUME_INTERVAL_MS = 10;
+    private static final int MAX_DATAGRAMS_PER_WAKEUP = 256;
+
+    @Autowired
+    private BinStateEngine binStateEngine;
+
+    @Value("${smartbin.telemetry.enabled:false}")
+    private boolean enabled;
+
+    @Value("${smartbin.telemetry.port:7070}")
+    private int port;
+
+    @Value("${smartbin.telemetry.read-buffer-bytes:65536}")
+    private int readBufferBytes;
+
+    private final byte[] deviceIdScratch = new byte[TelemetryFrame.MAX_DEVICE_ID_BYTES];
+    private final List<SelectionKey> paused = new ArrayList<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final LongAdder tcpQueued = new LongAdder();
+    private final LongAdder tcpMalformed = new LongAdder();
+    private final LongAdder udpQueued = new LongAdder();
+    private final LongAdder udpDropped = new LongAdder();
+    private final LongAdder udpMalformed = new LongAdder();
+    private final LongAdder pauses = new LongAdder();
+
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private DatagramChannel datagramChannel;
+    private ByteBuffer datagramBuffer;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        datagramChannel = DatagramChannel.open();
+        datagramChannel.setOption(StandardSocketOptions.SO_RCVBUF, 4 * 1024 * 1024);
+        datagramChannel.bind(new InetSocketAddress(port));
+        datagramChannel.configureBlocking(false);
+        datagramChannel.register(selector, SelectionKey.OP_READ);
+        datagramBuffer = ByteBuffer.allocateDirect(65536);
+
+        running = true;
+        selectorThread = new Thread(this::selectLoop, "telemetry-listener");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        logger.info("start: telemetry listener on TCP and UDP port {}", port);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (selectorThread == null) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        selectorThread.join(TimeUnit.SECONDS.toMillis(10));
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("connections", (long) connections.get());
+        stats.put("tcpQueued", tcpQueued.sum());
+        stats.put("tcpMalformed", tcpMalformed.sum());
+        stats.put("tcpPauses", pauses.sum());
+        stats.put("udpQueued", udpQueued.sum());
+        stats.put("udpDropped", udpDropped.sum());
+        stats.put("udpMalformed", udpMalformed.sum());
+        stats.putAll(binStateEngine.getStats());
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.telemetry.connections", connections, AtomicInteger::get).register(registry);
+        frameCounter(registry, "tcp", "queued", tcpQueued);
+        frameCounter(registry, "tcp", "malformed", tcpMalformed);
+        frameCounter(registry, "udp", "queued", udpQueued);
+        frameCounter(registry, "udp", "dropped", udpDropped);
+        frameCounter(registry, "udp", "malformed", udpMalformed);
+        FunctionCounter.builder("smartbin.telemetry.pauses", pauses, LongAdder::sum)
+                .description("Times a TCP connection stopped being read because the ingest queue was full")
+                .register(registry);
+    }
+
+    private static void frameCounter(MeterRegistry registry, String transport, String outcome, LongAdder counter) {
+        FunctionCounter.builder("smartbin.telemetry.frames", counter, LongAdder::sum)
+                .tag("transport", transport)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private void selectLoop() {
+        while (running) {
+            try {
+                if (paused.isEmpty()) {
+                    selector.select();
+                } else {
+                    selector.select(RESUME_INTERVAL_MS);
+                    resumePaused();
+                }
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext()) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.channel() == datagramChannel) {
+                        receiveDatagrams();
+                    } else {
+                        readStream(key);
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                logger.error("selectLoop: telemetry listener error", e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(readBufferBytes));
+            connections.incrementAndGet();
+        }
+    }
+
+    private void readStream(SelectionKey key) {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        try {
+            if (channel.read(buffer) < 0) {
+                close(key);
+                return;
+            }
+        } catch (IOException e) {
+            logger.debug("readStream: connection reset", e);
+            close(key);
+            return;
+        }
+        if (!drainStream(key, buffer)) {
+            key.interestOps(0);
+            paused.add(key);
+            pauses.increment();
+        }
+    }
+
+    private void resumePaused() {
+        Iterator<SelectionKey> keys = paused.iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            if (!key.isValid()) {
+                keys.remove();
+            } else if (drainStream(key, (ByteBuffer) key.attachment())) {
+                keys.remove();
+                // a malformed frame makes drainStream close the connection
+                if (key.isValid()) {
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues the complete frames in the connection buffer and keeps a trailing partial frame for the next read.
+     * Returns false when the queue filled up, leaving the frames it could not take in the buffer.
+     */
+    private boolean drainStream(SelectionKey key, ByteBuffer buffer) {
+        buffer.flip();
+        Date receivedAt = new Date();
+        try {
+            int frameLength;
+            while ((frameLength = TelemetryFrame.frameLength(buffer)) > 0 && buffer.remaining() >= frameLength) {
+                int frameStart = buffer.position();
+                FillReadingDTO reading = TelemetryFrame.decode(buffer, deviceIdScratch, receivedAt);
+                if (!binStateEngine.offer(reading)) {
+                    buffer.position(frameStart);
+                    return false;
+                }
+                tcpQueued.increment();
+            }
+            if (frameLength > TelemetryFrame.MAX_FRAME_BYTES) {
+                throw new IllegalArgumentException("Invalid frame length " + frameLength);
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            tcpMalformed.increment();
+            logger.warn("drainStream: closing connection {}: {}", key.channel(), e.getMessage());
+            close(key);
+            return true;
+        } finally {
+            buffer.compact();
+        }
+    }
+
+    private void receiveDatagrams() throws IOException {
+        Date receivedAt = new Date();
+        for (int i = 0; i < MAX_DATAGRAMS_PER_WAKEUP; i++) {
+            datagramBuffer.clear();
+            if (datagramChannel.receive(datagramBuffer) == null) {
+                return;
+            }
+            datagramBuffer.flip();
+            try {
+                while (datagramBuffer.hasRemaining()) {
+                    int frameLength = TelemetryFrame.frameLength(datagramBuffer);
+                    if (frameLength < 0 || frameLength > datagramBuffer.remaining()) {
+                        throw new IllegalArgumentException("Truncated frame");
+                    }
+                    FillReadingDTO reading = TelemetryFrame.decode(datagramBuffer, deviceIdScratch, receivedAt);
+                    if (binStateEngine.offer(reading)) {
+                        udpQueued.increment();
+                    } else {
+                        udpDropped.increment();
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                udpMalformed.increment();
+                logger.debug("receiveDatagrams: discarding rest of datagram: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            logger.debug("close: unable to close connection", e);
+        }
+        connections.decrementAndGet();
+    }
+}
@@ -0,0 +1,274 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import com.dev.smartbin.DTO.TopicReadingDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingest gateway subscribed to {@code bins/+/fill} and {@code bins/+/battery} on the {@link EmbeddedBroker}.
+ * Messages are decoded into batched {@link SmartBinService#addGarbageToBinBatch} and
+ * {@link SmartBinService#addBatteryReportsBatch} calls on one worker thread and acknowledged only after their
+ * batch has committed, so a failed batch is redelivered by the broker (at least once).
+ * <p>
+ * Redeliveries are made idempotent on (deviceId, seq): per device and topic the highest applied sequence number
+ * is kept, and a message that is not newer is acknowledged without being applied. Readings are snapshots of the
+ * bin, so a late message overtaken by a newer one is stale as well and skipped the same way.
+ */
+@Component
+public class TopicIngestGateway implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopicIngestGateway.class);
+
+    public static final String FILL_TOPIC = "bins/+/fill";
+    public static final String BATTERY_TOPIC = "bins/+/battery";
+
+    private static final int FILL = 0;
+    private static final int BATTERY = 1;
+
+    @Autowired
+    private EmbeddedBroker broker;
+
+    @Autowired
+    @Lazy
+    private SmartBinService smartBinService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Value("${smartbin.gateway.enabled:false}")
+    private boolean enabled;
+
+    @Value("${smartbin.gateway.batch-size:500}")
+    private int batchSize;
+
+    @Value("${smartbin.gateway.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    private final LinkedBlockingQueue<Received> received;
+    private final List<EmbeddedBroker.Subscription> subscriptions = new ArrayList<>();
+    // highest applied sequence number per device, indexed by FILL and BATTERY; only touched by the worker
+    private final Map<String, long[]> appliedSeq = new HashMap<>();
+
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+
+    private Thread worker;
+    private volatile boolean running;
+
+    private record Received(EmbeddedBroker.Subscription subscription, EmbeddedBroker.Message message) {
+    }
+
+    public TopicIngestGateway(@Value("${smartbin.gateway.queue-capacity:100000}") int capacity) {
+        this.received = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "topic-ingest-gateway");
+        worker.setDaemon(true);
+        worker.start();
+        subscriptions.add(broker.subscribe(FILL_TOPIC, this::receive));
+        subscriptions.add(broker.subscribe(BATTERY_TOPIC, this::receive));
+        logger.info("start: topic ingest gateway subscribed to {} and {}", FILL_TOPIC, BATTERY_TOPIC);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        subscriptions.forEach(broker::unsubscribe);
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("backlog", (long) received.size());
+        stats.put("applied", applied.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("duplicates", duplicates.sum());
+        stats.put("malformed", malformed.sum());
+        stats.put("deferred", deferred.sum());
+        stats.put("failedBatches", failedBatches.sum());
+        broker.getStats().forEach((name, value) -> stats.put("broker." + name, value));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("smartbin.gateway.backlog", received, LinkedBlockingQueue::size).register(registry);
+        messageCounter(registry, "applied", applied);
+        messageCounter(registry, "rejected", rejected);
+        messageCounter(registry, "duplicate", duplicates);
+        messageCounter(registry, "malformed", malformed);
+        messageCounter(registry, "deferred", deferred);
+        FunctionCounter.builder("smartbin.gateway.failed.batches", failedBatches, LongAdder::sum).register(registry);
+    }
+
+    private static void messageCounter(MeterRegistry registry, String outcome, LongAdder counter) {
+        FunctionCounter.builder("smartbin.gateway.messages", counter, LongAdder::sum)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Broker callback; when the backlog is full the message stays unacknowledged and comes back on redelivery.
+     */
+    private void receive(EmbeddedBroker.Subscription subscription, EmbeddedBroker.Message message) {
+        if (!received.offer(new Received(subscription, message))) {
+            deferred.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<Received> batch = new ArrayList<>(batchSize);
+        while (running || !received.isEmpty()) {
+            try {
+                Received first = received.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                received.drainTo(batch, batchSize - 1);
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } catch (RuntimeException e) {
+                logger.error("drainLoop: unable to apply {} messages", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<Received> batch) {
+        List<List<FillReadingDTO>> readings = List.of(new ArrayList<>(), new ArrayList<>());
+        List<List<Received>> acks = List.of(new ArrayList<>(), new ArrayList<>());
+        Map<String, long[]> batchSeq = new HashMap<>();
+        Date receivedAt = new Date();
+        for (Received entry : batch) {
+            String[] levels = entry.message().topic().split("/");
+            int kind = levels.length != 3 ? -1 : switch (levels[2]) {
+                case "fill" -> FILL;
+                case "battery" -> BATTERY;
+                default -> -1;
+            };
+            TopicReadingDTO payload = kind < 0 ? null : decode(entry.message());
+            if (payload == null || payload.getSeq() == null || payload.getValue() == null) {
+                malformed.increment();
+                ack(entry);
+                continue;
+            }
+            String deviceId = levels[1];
+            long seq = payload.getSeq();
+            if (seq <= sequence(appliedSeq, deviceId)[kind]) {
+                duplicates.increment();
+                ack(entry);
+                continue;
+            }
+            long[] seen = sequence(batchSeq, deviceId);
+            acks.get(kind).add(entry);
+            if (seq <= seen[kind]) {
+                // repeated within the batch, acknowledged with it
+                duplicates.increment();
+                continue;
+            }
+            seen[kind] = seq;
+            FillReadingDTO reading = new FillReadingDTO();
+            reading.setDeviceId(deviceId);
+            if (kind == FILL) {
+                reading.setFillPercent(payload.getValue());
+            } else {
+                reading.setBattery(payload.getValue());
+            }
+            reading.setTimestamp(payload.getTimestamp() == null ? receivedAt : payload.getTimestamp());
+            readings.get(kind).add(reading);
+        }
+
+        for (int kind : new int[]{FILL, BATTERY}) {
+            List<FillReadingDTO> kindReadings = readings.get(kind);
+            if (kindReadings.isEmpty()) {
+                acks.get(kind).forEach(this::ack);
+                continue;
+            }
+            int accepted;
+            try {
+                accepted = kind == FILL ? countAccepted(smartBinService.addGarbageToBinBatch(kindReadings))
+                        : smartBinService.addBatteryReportsBatch(kindReadings);
+            } catch (RuntimeException e) {
+                // not acknowledged, the broker redelivers the whole batch
+                failedBatches.increment();
+                logger.error("apply: unable to apply {} {} messages", kindReadings.size(), kind == FILL ? "fill" : "battery", e);
+                continue;
+            }
+            applied.add(accepted);
+            rejected.add(kindReadings.size() - accepted);
+            for (Map.Entry<String, long[]> seen : batchSeq.entrySet()) {
+                if (seen.getValue()[kind] != Long.MIN_VALUE) {
+                    sequence(appliedSeq, seen.getKey())[kind] = seen.getValue()[kind];
+                }
+            }
+            acks.get(kind).forEach(this::ack);
+        }
+    }
+
+    private TopicReadingDTO decode(EmbeddedBroker.Message message) {
+        try {
+            return jsonMapper.readValue(message.payload(), TopicReadingDTO.class);
+        } catch (JacksonException e) {
+            logger.debug("decode: malformed payload on {}: {}", message.topic(), e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private static long[] sequence(Map<String, long[]> sequences, String deviceId) {
+        return sequences.computeIfAbsent(deviceId, id -> new long[]{Long.MIN_VALUE, Long.MIN_VALUE});
+    }
+
+    private static int countAccepted(List<FillReadingResultDTO> results) {
+        int accepted = 0;
+        for (FillReadingResultDTO result : results) {
+            if ("ACCEPTED".equals(result.getStatus())) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    private void ack(Received entry) {
+        broker.ack(entry.subscription(), entry.message().id());
+    }
+}
@@ -6,6 +6,7 @@ import com.dev.smartbin.Model.SmartBin;
 import com.dev.smartbin.Repository.DeviceOnboardRequestRepo;
 import com.dev.smartbin.Repository.MasterBinRepo;
 import com.dev.smartbin.Repository.SmartBinRepo;
+import com.dev.smartbin.Service.MasterBinService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
@@ -24,6 +25,9 @@ public class SmartbinApplication implements CommandLineRunner {
 	@Autowired
 	private MasterBinRepo masterBinRepo;
 
+	@Autowired
+	private MasterBinService masterBinService;
+
 	@Autowired
 	private SmartBinRepo smartBinRepo;
 
@@ -39,7 +43,7 @@ public class SmartbinApplication implements CommandLineRunner {
 	public void run(String... args) throws Exception {
 
 		List<MasterBins> binsList = getMasterBins();
-		masterBinRepo.saveAllAndFlush(binsList);
+		masterBinService.saveMasterBins(binsList);
 
 //		SmartBin smartBin=new SmartBin();
 //		smartBin.setDevice_id("SB_1234");
@@ -0,0 +1,75 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.RegionSummaryDTO;
+import com.dev.smartbin.DTO.SmartBinDTO;
+import com.dev.smartbin.Repository.ImmediateActionBinRepo;
+import com.dev.smartbin.Repository.SmartBinRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BinIndexWarmerTests {
+
+    @Test
+    void oneScanOfTheBinsFeedsEveryIndex() {
+        List<SmartBinDTO> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            firstPage.add(bin(id, "North", 40));
+        }
+        List<SmartBinDTO> lastPage = List.of(bin(1001, "South", 90), bin(1002, "South", 10));
+        SmartBinRepo smartBinRepo = mock(SmartBinRepo.class);
+        when(smartBinRepo.findSmartBinPage(anyLong(), isNull(), isNull(), isNull(), isNull(), isNull(), any(Limit.class)))
+                .thenReturn(firstPage, lastPage);
+        ImmediateActionBinRepo immediateActionBinRepo = mock(ImmediateActionBinRepo.class);
+        when(immediateActionBinRepo.findOpenActionSmartBinIds()).thenReturn(List.of(5L, 1001L));
+
+        SpatialBinIndex spatialBinIndex = new SpatialBinIndex(0.01);
+        FillRateForecaster fillRateForecaster = new FillRateForecaster(0.5, 60, 16, 4);
+        RegionAggregates regionAggregates = new RegionAggregates();
+        BinIndexWarmer warmer = new BinIndexWarmer();
+        ReflectionTestUtils.setField(warmer, "smartBinRepo", smartBinRepo);
+        ReflectionTestUtils.setField(warmer, "immediateActionBinRepo", immediateActionBinRepo);
+        ReflectionTestUtils.setField(warmer, "spatialBinIndex", spatialBinIndex);
+        ReflectionTestUtils.setField(warmer, "fillRateForecaster", fillRateForecaster);
+        ReflectionTestUtils.setField(warmer, "regionAggregates", regionAggregates);
+
+        warmer.warm();
+
+        verify(smartBinRepo, times(2)).findSmartBinPage(anyLong(), isNull(), isNull(), isNull(), isNull(), isNull(), any(Limit.class));
+        verify(smartBinRepo).findSmartBinPage(eq(1000L), isNull(), isNull(), isNull(), isNull(), isNull(), any(Limit.class));
+        assertEquals(1002, spatialBinIndex.size());
+        assertEquals(1002, fillRateForecaster.getTrackedBinCount());
+        assertEquals(90, fillRateForecaster.getForecast("SB_1001").getPercentFilled());
+        List<RegionSummaryDTO> summaries = regionAggregates.getSummaries();
+        assertEquals(List.of("North", "South"), summaries.stream().map(RegionSummaryDTO::getRegion).toList());
+        assertEquals(1000, summaries.get(0).getBinCount());
+        assertEquals(1, summaries.get(0).getOpenActionCount());
+        assertEquals(2, summaries.get(1).getBinCount());
+        assertEquals(1, summaries.get(1).getOpenActionCount());
+    }
+
+    private static SmartBinDTO bin(long id, String region, int percentFilled) {
+        SmartBinDTO smartBin = new SmartBinDTO();
+        smartBin.setId(id);
+        smartBin.setDevice_id("SB_" + id);
+        smartBin.setRegion(region);
+        smartBin.setSmartbin_status("ACTIVE");
+        smartBin.setPercent_filled(percentFilled);
+        smartBin.setLatitude(12.9 + id * 0.0001);
+        smartBin.setLongitude(77.5);
+        return smartBin;
+    }
+}
@@ -0,0 +1,210 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import com.dev.smartbin.Model.SmartBin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BinStateEngineTests {
+
+    private SmartBinService smartBinService;
+    private DeviceRegistryCache deviceRegistryCache;
+    private BinWriteBehindBuffer binWriteBehindBuffer;
+    private BinStateEngine engine;
+
+    // what the mocked service saw, in the order the shards applied it
+    private final List<String> appliedReadings = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> loadedBins = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        smartBinService = mock(SmartBinService.class);
+        deviceRegistryCache = mock(DeviceRegistryCache.class);
+        binWriteBehindBuffer = mock(BinWriteBehindBuffer.class);
+        when(binWriteBehindBuffer.getStats()).thenReturn(Map.of());
+        when(smartBinService.applyShardBatch(anyList(), anyMap()))
+                .thenAnswer(invocation -> apply(invocation.getArgument(0), invocation.getArgument(1)));
+
+        engine = engine(BinStateEngine.IngestMode.SYNC, 4, 5000);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    void readingsOfOneDeviceAreAppliedInOrderAndResultsMatchTheInput() {
+        List<FillReadingDTO> readings = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            for (int device = 0; device < 10; device++) {
+                readings.add(reading("SB_" + device, i));
+            }
+        }
+        for (int i = 0; i < 500; i++) {
+            assertTrue(engine.offer(readings.get(i)));
+        }
+
+        List<FillReadingResultDTO> results = engine.submit(readings.subList(500, readings.size()));
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(readings.get(500 + i).getDeviceId(), results.get(i).getDeviceId());
+            assertEquals(readings.get(500 + i).getFillPercent(), results.get(i).getFillPercent());
+        }
+        for (int device = 0; device < 10; device++) {
+            String prefix = "SB_" + device + ":";
+            List<String> applied = appliedReadings.stream().filter(reading -> reading.startsWith(prefix)).toList();
+            assertEquals(100, applied.size());
+            for (int i = 0; i < applied.size(); i++) {
+                assertEquals(prefix + i, applied.get(i));
+            }
+            // loaded once and then kept in the shard
+            assertEquals(1, Collections.frequency(loadedBins, "SB_" + device));
+        }
+        assertEquals(1000, engine.getStats().get("applied"));
+    }
+
+    @Test
+    void evictionReloadsTheBinAfterTheReadingsQueuedBeforeIt() {
+        engine.offer(reading("SB_EVICT", 1));
+        engine.offer(reading("SB_EVICT", 2));
+        engine.offer(reading("SB_KEPT", 1));
+        engine.evict("SB_EVICT");
+        engine.submit(List.of(reading("SB_EVICT", 3), reading("SB_KEPT", 2)));
+
+        assertEquals(List.of("SB_EVICT:1", "SB_EVICT:2", "SB_EVICT:3"),
+                appliedReadings.stream().filter(reading -> reading.startsWith("SB_EVICT:")).toList());
+        assertEquals(2, Collections.frequency(loadedBins, "SB_EVICT"));
+        assertEquals(1, Collections.frequency(loadedBins, "SB_KEPT"));
+
+        engine.evictAll();
+        engine.submit(List.of(reading("SB_EVICT", 4), reading("SB_KEPT", 3)));
+        assertEquals(3, Collections.frequency(loadedBins, "SB_EVICT"));
+        assertEquals(2, Collections.frequency(loadedBins, "SB_KEPT"));
+    }
+
+    @Test
+    void failedBatchIsRethrownAndItsBinsReloaded() {
+        engine.submit(List.of(reading("SB_FAIL", 1)));
+        IllegalStateException failure = new IllegalStateException("deadlock");
+        when(smartBinService.applyShardBatch(anyList(), anyMap()))
+                .thenThrow(failure)
+                .thenAnswer(invocation -> apply(invocation.getArgument(0), invocation.getArgument(1)));
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> engine.submit(List.of(reading("SB_FAIL", 2)))));
+        verify(deviceRegistryCache).invalidate("SB_FAIL");
+        assertEquals(1, engine.getStats().get("failed"));
+
+        engine.submit(List.of(reading("SB_FAIL", 3)));
+        assertEquals(2, Collections.frequency(loadedBins, "SB_FAIL"));
+    }
+
+    @Test
+    void badReadingOnlyFailsItselfAndNotTheRestOfItsBatch() throws InterruptedException {
+        BinStateEngine single = engine(BinStateEngine.IngestMode.ASYNC, 1, 5000);
+        when(smartBinService.applyShardBatch(anyList(), anyMap())).thenAnswer(invocation -> {
+            List<FillReadingDTO> readings = invocation.getArgument(0);
+            if (readings.stream().anyMatch(reading -> reading.getDeviceId().equals("SB_BAD"))) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return apply(readings, invocation.getArgument(1));
+        });
+        single.start();
+        try {
+            for (String deviceId : List.of("SB_A", "SB_B", "SB_BAD", "SB_C", "SB_D")) {
+                assertTrue(single.offer(reading(deviceId, 1)));
+            }
+            single.submit(List.of(reading("SB_E", 1)));
+
+            assertEquals(List.of("SB_A:1", "SB_B:1", "SB_C:1", "SB_D:1", "SB_E:1"), appliedReadings);
+            assertEquals(5, single.getStats().get("applied"));
+            assertEquals(1, single.getStats().get("failed"));
+        } finally {
+            single.stop();
+        }
+    }
+
+    @Test
+    void stoppedEngineRejectsReadings() throws InterruptedException {
+        engine.stop();
+
+        assertThrows(IllegalStateException.class, () -> engine.submit(List.of(reading("SB_STOPPED", 1))));
+        assertFalse(engine.offer(reading("SB_STOPPED", 2)));
+        assertEquals(1, engine.getStats().get("rejected"));
+    }
+
+    @Test
+    void submitGivesUpAfterTheTimeout() throws InterruptedException {
+        BinStateEngine slow = engine(BinStateEngine.IngestMode.SYNC, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        when(smartBinService.applyShardBatch(anyList(), anyMap())).thenAnswer(invocation -> {
+            release.await();
+            return apply(invocation.getArgument(0), invocation.getArgument(1));
+        });
+        slow.start();
+        try {
+            IllegalStateException timeout = assertThrows(IllegalStateException.class,
+                    () -> slow.submit(List.of(reading("SB_SLOW", 1))));
+            assertEquals("Timed out waiting for the bin state engine", timeout.getMessage());
+        } finally {
+            release.countDown();
+            slow.stop();
+        }
+    }
+
+    private BinStateEngine engine(BinStateEngine.IngestMode mode, int shards, long submitTimeoutMs) {
+        BinStateEngine stateEngine = new BinStateEngine(mode, shards, 1000, 8, submitTimeoutMs);
+        ReflectionTestUtils.setField(stateEngine, "smartBinService", smartBinService);
+        ReflectionTestUtils.setField(stateEngine, "deviceRegistryCache", deviceRegistryCache);
+        ReflectionTestUtils.setField(stateEngine, "binWriteBehindBuffer", binWriteBehindBuffer);
+        return stateEngine;
+    }
+
+    /**
+     * Stands in for {@link SmartBinService#applyShardBatch}: loads missing bins into the shard's state like it does.
+     */
+    private List<FillReadingResultDTO> apply(List<FillReadingDTO> readings, Map<String, SmartBin> shardBins) {
+        List<FillReadingResultDTO> results = new ArrayList<>(readings.size());
+        for (FillReadingDTO reading : readings) {
+            if (!shardBins.containsKey(reading.getDeviceId())) {
+                SmartBin smartBin = new SmartBin();
+                smartBin.setDevice_id(reading.getDeviceId());
+                shardBins.put(reading.getDeviceId(), smartBin);
+                loadedBins.add(reading.getDeviceId());
+            }
+            appliedReadings.add(reading.getDeviceId() + ":" + reading.getFillPercent());
+            results.add(new FillReadingResultDTO(reading.getDeviceId(), reading.getFillPercent(), "ACCEPTED", null));
+        }
+        return results;
+    }
+
+    private static FillReadingDTO reading(String deviceId, int fillPercent) {
+        FillReadingDTO reading = new FillReadingDTO();
+        reading.setDeviceId(deviceId);
+        reading.setFillPercent(fillPercent);
+        reading.setTimestamp(new Date());
+        return reading;
+    }
+}
@@ -0,0 +1,139 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.SmartBin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+
+class BinWriteBehindBufferTests {
+
+    private JdbcTemplate jdbcTemplate;
+    private BinWriteBehindBuffer buffer;
+    // parameters of every row written, "fill,bin" or "fill,battery,bin"
+    private final List<String> writtenRows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        buffer = new BinWriteBehindBuffer();
+        ReflectionTestUtils.setField(buffer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(buffer, "transactionTemplate", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "maxDirty", 1000);
+        doAnswer(this::record).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void updatesOfABinAreCoalescedIntoOneWrite() {
+        buffer.write(Set.of(bin(1L, 10, null)), Set.of());
+        buffer.write(Set.of(), Set.of(bin(1L, 20, 50)));
+        buffer.write(Set.of(bin(1L, 30, null)), Set.of());
+        buffer.write(Set.of(bin(2L, 5, null)), Set.of());
+
+        SmartBin read = bin(1L, 0, 100);
+        buffer.overlay(read);
+        assertEquals(30, read.getPercent_filled());
+        assertEquals(50, read.getSmartbin_batteryStatus());
+        assertEquals(2, buffer.getStats().get("coalesced"));
+        assertEquals(2, buffer.getStats().get("dirty"));
+
+        buffer.flush();
+
+        assertEquals(List.of("5,2", "30,50,1"), writtenRows);
+        assertEquals(2, buffer.getStats().get("written"));
+        assertEquals(0, buffer.getStats().get("dirty"));
+        buffer.flush();
+        assertEquals(1, buffer.getStats().get("flushes"));
+    }
+
+    @Test
+    void updatesInATransactionAreBufferedOnlyOnceItCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.write(Set.of(bin(1L, 40, null)), Set.of());
+        assertEquals(0, buffer.getStats().get("dirty"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, buffer.getStats().get("dirty"));
+    }
+
+    @Test
+    void failedFlushIsKeptBehindUpdatesBufferedMeanwhile() {
+        buffer.write(Set.of(), Set.of(bin(1L, 10, 40)));
+        doAnswer(invocation -> {
+            // a newer fill arrives while the failing flush runs
+            buffer.write(Set.of(bin(1L, 60, null)), Set.of());
+            throw new DataAccessResourceFailureException("connection lost");
+        }).doAnswer(this::record).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        buffer.flush();
+
+        assertEquals(1, buffer.getStats().get("failedFlushes"));
+        assertEquals(1, buffer.getStats().get("dirty"));
+        SmartBin read = bin(1L, 0, 100);
+        buffer.overlay(read);
+        assertEquals(60, read.getPercent_filled());
+        assertEquals(40, read.getSmartbin_batteryStatus());
+
+        buffer.flush();
+
+        // the newer fill wins, the battery of the failed write is not lost
+        assertEquals(List.of("60,40,1"), writtenRows);
+        assertEquals(0, buffer.getStats().get("dirty"));
+    }
+
+    private Object record(InvocationOnMock invocation) throws SQLException {
+        Collection<Object> rows = invocation.getArgument(1);
+        ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+        for (Object row : rows) {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            setter.setValues(ps, row);
+            writtenRows.add(mockingDetails(ps).getInvocations().stream()
+                    .map(parameter -> String.valueOf(parameter.getArguments()[1]))
+                    .collect(Collectors.joining(",")));
+        }
+        return new int[0][];
+    }
+
+    private static SmartBin bin(long id, int percentFilled, Integer batteryStatus) {
+        SmartBin smartBin = new SmartBin();
+        smartBin.setId(id);
+        smartBin.setPercent_filled(percentFilled);
+        if (batteryStatus != null) {
+            smartBin.setSmartbin_batteryStatus(batteryStatus);
+        }
+        return smartBin;
+    }
+}
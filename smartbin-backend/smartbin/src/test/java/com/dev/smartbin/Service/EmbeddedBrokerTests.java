@@ -0,0 +1,88 @@
+package com.dev.smartbin.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddedBrokerTests {
+
+    private EmbeddedBroker broker;
+    private final List<EmbeddedBroker.Message> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        broker = new EmbeddedBroker();
+        ReflectionTestUtils.setField(broker, "maxInflight", 1);
+        ReflectionTestUtils.setField(broker, "maxQueued", 1);
+        ReflectionTestUtils.setField(broker, "ackTimeoutMs", 60_000L);
+    }
+
+    @Test
+    void topicFiltersFollowMqttRules() {
+        assertTrue(matches("bins/+/fill", "bins/SB_1/fill"));
+        assertFalse(matches("bins/+/fill", "bins/SB_1/battery"));
+        assertFalse(matches("bins/+/fill", "bins/SB_1/fill/extra"));
+        assertFalse(matches("bins/+/fill", "bins/fill"));
+        assertTrue(matches("bins/#", "bins/SB_1/fill"));
+        assertTrue(matches("#", "bins"));
+        assertFalse(matches("bins/SB_1", "bins/SB_1/"));
+        assertTrue(matches("bins/+", "bins/"));
+    }
+
+    @Test
+    void unacknowledgedMessagesAreRedeliveredAsDuplicatesAfterTheTimeout() {
+        EmbeddedBroker.Subscription subscription = broker.subscribe("bins/+/fill", (s, message) -> received.add(message));
+        assertTrue(broker.publish("bins/SB_1/fill", new byte[]{1}));
+        assertEquals(1, received.size());
+        assertFalse(received.get(0).duplicate());
+
+        // still within the ack timeout
+        broker.redeliverExpired();
+        assertEquals(1, received.size());
+
+        ReflectionTestUtils.setField(broker, "ackTimeoutMs", 0L);
+        broker.redeliverExpired();
+        assertEquals(2, received.size());
+        assertEquals(received.get(0).id(), received.get(1).id());
+        assertTrue(received.get(1).duplicate());
+
+        broker.ack(subscription, received.get(1).id());
+        broker.redeliverExpired();
+        assertEquals(2, received.size());
+        assertEquals(1, broker.getStats().get("redelivered"));
+        assertEquals(1, broker.getStats().get("acknowledged"));
+        assertEquals(0, broker.getStats().get("inflight"));
+    }
+
+    @Test
+    void messagesWaitBehindTheInflightOneAndOverflowIsDropped() {
+        EmbeddedBroker.Subscription subscription = broker.subscribe("bins/#", (s, message) -> received.add(message));
+        assertTrue(broker.publish("bins/SB_1/fill", new byte[]{1}));
+        assertTrue(broker.publish("bins/SB_1/fill", new byte[]{2}));
+        assertFalse(broker.publish("bins/SB_1/fill", new byte[]{3}));
+        assertTrue(broker.publish("other/SB_1", new byte[]{4}));
+        assertEquals(1, received.size());
+
+        broker.ack(subscription, received.get(0).id());
+        assertEquals(2, received.size());
+        assertEquals(2, received.get(1).payload()[0]);
+        // a second ack of the same message is ignored
+        broker.ack(subscription, received.get(0).id());
+
+        assertEquals(1, broker.getStats().get("dropped"));
+        assertEquals(1, broker.getStats().get("unrouted"));
+        assertEquals(1, broker.getStats().get("acknowledged"));
+        assertEquals(1, broker.getStats().get("inflight"));
+    }
+
+    private static boolean matches(String filter, String topic) {
+        return EmbeddedBroker.matches(filter.split("/", -1), topic.split("/", -1));
+    }
+}
@@ -0,0 +1,129 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillForecastDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FillRateForecasterTests {
+
+    private static final long HOUR = 3_600_000L;
+
+    private FillRateForecaster forecaster;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        forecaster = new FillRateForecaster(0.5, 60, 16, 4);
+        now = System.currentTimeMillis();
+    }
+
+    @Test
+    void rateIsExponentiallyWeighted() {
+        forecaster.observe("SB_1", "East", 0, now - 2 * HOUR);
+        forecaster.observe("SB_1", "East", 10, now - HOUR);
+        assertEquals(10d, forecaster.getForecast("SB_1").getFillRatePerHour(), 1e-9);
+
+        forecaster.observe("SB_1", "East", 30, now);
+        FillForecastDTO forecast = forecaster.getForecast("SB_1");
+        assertEquals(15d, forecast.getFillRatePerHour(), 1e-9);
+        assertEquals(2, forecast.getSamples());
+        assertEquals(70d / 15d, forecast.getHoursToFull(), 0.01);
+    }
+
+    @Test
+    void dropInFillKeepsTheRate() {
+        forecaster.observe("SB_1", "East", 20, now - 3 * HOUR);
+        forecaster.observe("SB_1", "East", 40, now - 2 * HOUR);
+        forecaster.observe("SB_1", "East", 5, now - HOUR);
+        assertEquals(20d, forecaster.getForecast("SB_1").getFillRatePerHour(), 1e-9);
+        assertEquals(5, forecaster.getForecast("SB_1").getPercentFilled());
+
+        // the next interval starts from the emptied level
+        forecaster.observe("SB_1", "East", 35, now);
+        assertEquals(25d, forecaster.getForecast("SB_1").getFillRatePerHour(), 1e-9);
+    }
+
+    @Test
+    void shortIntervalsAndLateReadingsDoNotChangeTheRate() {
+        forecaster.observe("SB_1", "East", 10, now - HOUR);
+        forecaster.observe("SB_1", "East", 12, now - HOUR + 30_000);
+        assertEquals(0, forecaster.getForecast("SB_1").getSamples());
+
+        forecaster.observe("SB_1", "East", 20, now);
+        forecaster.observe("SB_1", "East", 90, now - 2 * HOUR);
+        FillForecastDTO forecast = forecaster.getForecast("SB_1");
+        assertEquals(10d, forecast.getFillRatePerHour(), 1e-9);
+        assertEquals(20, forecast.getPercentFilled());
+    }
+
+    @Test
+    void binWithoutRateIsNotPredictable() {
+        forecaster.observe("SB_1", "East", 40, now);
+        FillForecastDTO forecast = forecaster.getForecast("SB_1");
+        assertNull(forecast.getHoursToFull());
+        assertNull(forecast.getPredictedFullAt());
+        assertNull(forecaster.getForecast("SB_2"));
+    }
+
+    @Test
+    void rankingIsSoonestFirstWithinHorizonAndRegion() {
+        fillAt(1L, "East", 50, 10);   // 5h to full
+        fillAt(2L, "East", 90, 10);   // 1h
+        fillAt(3L, "West", 80, 10);   // 2h
+        fillAt(4L, "East", 10, 1);    // 90h
+        fillAt(5L, "East", 100, 10);  // full
+
+        assertEquals(List.of("SB_5", "SB_2", "SB_3", "SB_1"), deviceIds(forecaster.getOverflowRanking(24, null, 10)));
+        assertEquals(List.of("SB_5", "SB_2", "SB_1"), deviceIds(forecaster.getOverflowRanking(24, "East", 10)));
+        assertEquals(List.of("SB_5", "SB_2"), deviceIds(forecaster.getOverflowRanking(24, null, 2)));
+    }
+
+    @Test
+    void rankingMergesTheSoonestBinsOfEveryStripe() {
+        // bin n is full in 201 - n hours, so the highest ids come first whichever stripe holds them
+        for (long binId = 1; binId <= 200; binId++) {
+            forecaster.observe("SB_" + binId, "East", 0, now - (201 - binId) * HOUR);
+            forecaster.observe("SB_" + binId, "East", 50, now);
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (long binId = 200; binId > 190; binId--) {
+            expected.add("SB_" + binId);
+        }
+        assertEquals(expected, deviceIds(forecaster.getOverflowRanking(1000, null, 10)));
+        assertTrue(forecaster.getOverflowRanking(1000, "West", 10).isEmpty());
+    }
+
+    @Test
+    void forgetKeepsTheOtherBinsAndGrowsPastCapacity() {
+        for (long binId = 1; binId <= 40; binId++) {
+            fillAt(binId, "East", (int) binId, 1);
+        }
+        assertEquals(40, forecaster.getTrackedBinCount());
+
+        forecaster.forget("SB_1");
+        forecaster.forget("SB_20");
+        assertEquals(38, forecaster.getTrackedBinCount());
+        assertNull(forecaster.getForecast("SB_1"));
+        assertNull(forecaster.getForecast("SB_20"));
+        assertEquals("SB_40", forecaster.getForecast("SB_40").getDeviceId());
+        assertEquals(40, forecaster.getForecast("SB_40").getPercentFilled());
+        assertEquals(21, forecaster.getForecast("SB_21").getPercentFilled());
+    }
+
+    private void fillAt(long binId, String region, int percentFilled, int ratePerHour) {
+        forecaster.observe("SB_" + binId, region, Math.max(0, percentFilled - ratePerHour), now - HOUR);
+        forecaster.observe("SB_" + binId, region, percentFilled, now);
+    }
+
+    private static List<String> deviceIds(List<FillForecastDTO> forecasts) {
+        return forecasts.stream().map(FillForecastDTO::getDeviceId).toList();
+    }
+}
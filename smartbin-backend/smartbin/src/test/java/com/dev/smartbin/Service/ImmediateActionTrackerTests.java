@@ -0,0 +1,121 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.ImmediateActionBin;
+import com.dev.smartbin.Repository.ImmediateActionBinRepo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImmediateActionTrackerTests {
+
+    private ImmediateActionBinRepo immediateActionBinRepo;
+    private ImmediateActionTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        immediateActionBinRepo = mock(ImmediateActionBinRepo.class);
+        tracker = new ImmediateActionTracker();
+        ReflectionTestUtils.setField(tracker, "immediateActionBinRepo", immediateActionBinRepo);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void binWithoutActionOpensEscalatesAndCloses() {
+        when(immediateActionBinRepo.findImmediateActionStateBySmartBinId(1L)).thenReturn(Optional.empty());
+
+        assertEquals(new ImmediateActionTracker.Transition(0, Severity.LOW, Severity.HIGH),
+                tracker.transition(1L, Severity.HIGH));
+        tracker.recordActionId(1L, 42L);
+        assertNull(tracker.transition(1L, Severity.HIGH));
+        assertEquals(new ImmediateActionTracker.Transition(42L, Severity.HIGH, Severity.CRITICAL),
+                tracker.transition(1L, Severity.CRITICAL));
+        assertEquals(new ImmediateActionTracker.Transition(42L, Severity.CRITICAL, Severity.LOW),
+                tracker.transition(1L, Severity.LOW));
+        assertNull(tracker.transition(1L, Severity.LOW));
+
+        verify(immediateActionBinRepo, times(1)).findImmediateActionStateBySmartBinId(1L);
+    }
+
+    @Test
+    void closedActionLoadsAsLow() {
+        when(immediateActionBinRepo.findImmediateActionStateBySmartBinId(2L))
+                .thenReturn(Optional.of(state(7L, Severity.CRITICAL, ImmediateActionBin.CLOSED)));
+
+        assertNull(tracker.transition(2L, Severity.LOW));
+        assertEquals(new ImmediateActionTracker.Transition(7L, Severity.LOW, Severity.MEDIUM),
+                tracker.transition(2L, Severity.MEDIUM));
+    }
+
+    @Test
+    void rolledBackTransitionIsReloaded() {
+        when(immediateActionBinRepo.findImmediateActionStateBySmartBinId(3L))
+                .thenReturn(Optional.of(state(9L, Severity.HIGH, ImmediateActionBin.OPEN)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(new ImmediateActionTracker.Transition(9L, Severity.HIGH, Severity.CRITICAL),
+                tracker.transition(3L, Severity.CRITICAL));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // the database still has the action open at High
+        assertEquals(new ImmediateActionTracker.Transition(9L, Severity.HIGH, Severity.CRITICAL),
+                tracker.transition(3L, Severity.CRITICAL));
+        verify(immediateActionBinRepo, times(2)).findImmediateActionStateBySmartBinId(3L);
+    }
+
+    @Test
+    void committedTransitionIsKept() {
+        when(immediateActionBinRepo.findImmediateActionStateBySmartBinId(4L))
+                .thenReturn(Optional.of(state(11L, Severity.HIGH, ImmediateActionBin.OPEN)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        tracker.transition(4L, Severity.CRITICAL);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertNull(tracker.transition(4L, Severity.CRITICAL));
+        verify(immediateActionBinRepo, times(1)).findImmediateActionStateBySmartBinId(4L);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static ImmediateActionBinRepo.ImmediateActionState state(long id, int severityRank, String actionState) {
+        return new ImmediateActionBinRepo.ImmediateActionState() {
+            @Override
+            public long getId() {
+                return id;
+            }
+
+            @Override
+            public int getSeverityRank() {
+                return severityRank;
+            }
+
+            @Override
+            public String getActionState() {
+                return actionState;
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.MasterBins;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MasterBinServiceTests {
+
+    @Autowired
+    private MasterBinService masterBinService;
+
+    @Test
+    void deletedDeviceNoLongerAuthenticates() {
+        MasterBins masterBin = new MasterBins();
+        masterBin.setDevice_id("SB_MASTER_DELETE");
+        masterBin.setDevice_password("Secret-1");
+        masterBinService.saveMasterBins(List.of(masterBin));
+        assertTrue(masterBinService.authenticateDevice("SB_MASTER_DELETE", "Secret-1"));
+
+        assertEquals("ACCEPTED", masterBinService.deleteMasterBin("SB_MASTER_DELETE"));
+
+        assertFalse(masterBinService.authenticateDevice("SB_MASTER_DELETE", "Secret-1"));
+        assertEquals("FAILED", masterBinService.deleteMasterBin("SB_MASTER_DELETE"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.SmartBin;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "smartbin.notification.compaction.chunk-size=2")
+class NotificationCompactorTests {
+
+    @Autowired
+    private NotificationCompactor notificationCompactor;
+
+    @Autowired
+    private SmartBinService smartBinService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void duplicatesAreCollapsedAndOldReadOnesArchived() {
+        long binId = saveBin("SB_COMPACT");
+        Instant now = Instant.now();
+        int[] occurrences = {1, 1, 2, 1, 1};
+        for (int i = 0; i < occurrences.length; i++) {
+            insert(binId, "battery", "high", false, occurrences[i], now.minus(Duration.ofHours(5 - i)));
+        }
+        insert(binId, "overflow", "critical", true, 1, now.minus(Duration.ofDays(11)));
+        insert(binId, "overflow", "critical", true, 1, now.minus(Duration.ofDays(10)));
+        insert(binId, "overflow", "critical", false, 1, now.minus(Duration.ofDays(10)));
+        jdbcTemplate.update("INSERT INTO notification_archive (notification_id, type, message, severity, created_at,"
+                        + " occurrence_count, smart_bin_id, archived_at) VALUES (?, 'battery', 'old', 'high', ?, 1, ?, ?)",
+                1_000_000L, Timestamp.from(now.minus(Duration.ofDays(500))), binId,
+                Timestamp.from(now.minus(Duration.ofDays(400))));
+        Map<String, Long> before = notificationCompactor.getStats();
+
+        notificationCompactor.compact();
+
+        Map<String, Object> battery = jdbcTemplate.queryForMap("SELECT occurrence_count, created_at, last_seen_at"
+                + " FROM notification WHERE smart_bin_id = ? AND type = 'battery'", binId);
+        assertEquals(6, ((Number) battery.get("occurrence_count")).intValue());
+        assertEquals(now.minus(Duration.ofHours(5)).toEpochMilli(), ((Timestamp) battery.get("created_at")).getTime());
+        assertEquals(now.minus(Duration.ofHours(1)).toEpochMilli(), ((Timestamp) battery.get("last_seen_at")).getTime());
+
+        assertEquals(1, count("SELECT COUNT(*) FROM notification WHERE smart_bin_id = ? AND type = 'overflow'", binId));
+        assertEquals(2, count("SELECT occurrence_count FROM notification_archive WHERE smart_bin_id = ? AND type = 'overflow'", binId));
+        assertEquals(0, count("SELECT COUNT(*) FROM notification_archive WHERE notification_id = 1000000"));
+
+        Map<String, Long> after = notificationCompactor.getStats();
+        assertEquals(5, after.get("collapsedRows") - before.get("collapsedRows"));
+        assertEquals(1, after.get("archivedRows") - before.get("archivedRows"));
+        assertEquals(1, after.get("purgedArchiveRows") - before.get("purgedArchiveRows"));
+    }
+
+    private long saveBin(String deviceId) {
+        SmartBin smartBin = new SmartBin();
+        smartBin.setDevice_id(deviceId);
+        smartBin.setRegion("East");
+        smartBin.setSmartbin_location("Test");
+        smartBin.setSmartbin_status("Active");
+        smartBin.setInstallationStatus("Installed");
+        return smartBinService.saveSmartBinData(smartBin).getId();
+    }
+
+    private void insert(long binId, String type, String severity, boolean read, int occurrences, Instant createdAt) {
+        jdbcTemplate.update("INSERT INTO notification (type, message, severity, created_at, is_read, occurrence_count,"
+                        + " smart_bin_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                type, type + " alert", severity, Timestamp.from(createdAt), read ? 1 : 0, occurrences, binId);
+    }
+
+    private long count(String sql, Object... arguments) {
+        return jdbcTemplate.queryForObject(sql, Long.class, arguments);
+    }
+}
@@ -0,0 +1,106 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.Notification;
+import com.dev.smartbin.Model.SmartBin;
+import com.dev.smartbin.Repository.NotificationRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationSuppressorTests {
+
+    private final NotificationSuppressor suppressor = new NotificationSuppressor(true, 360);
+
+    @Test
+    void repeatsAreSuppressedUntilSeverityRises() {
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "medium")));
+        // a different type and a different bin have windows of their own
+        assertEquals(1, suppressor.admit(notification(1L, "battery", "high")));
+        assertEquals(1, suppressor.admit(notification(2L, "overflow", "high")));
+
+        assertEquals(3, suppressor.admit(notification(1L, "overflow", "critical")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "critical")));
+    }
+
+    @Test
+    void closedActionReopensAtTheSameSeverity() {
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "critical")));
+        suppressor.reset(1L, "overflow");
+
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "critical")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "critical")));
+    }
+
+    @Test
+    void suppressedCountSaturatesWithoutCorruptingTheWindow() {
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "medium")));
+        for (int i = 0; i < 70_000; i++) {
+            assertEquals(0, suppressor.admit(notification(1L, "overflow", "medium")));
+        }
+        // 16 bits of suppressed count; the rank and emission time next to it are intact
+        assertEquals(65_536, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(2, suppressor.admit(notification(1L, "overflow", "critical")));
+    }
+
+    @Test
+    void cooldownOfZeroAdmitsEverything() {
+        NotificationSuppressor noCooldown = new NotificationSuppressor(true, 0);
+        assertEquals(1, noCooldown.admit(notification(1L, "overflow", "high")));
+        assertEquals(1, noCooldown.admit(notification(1L, "overflow", "high")));
+    }
+
+    @Test
+    void evictedWindowAddsWhatItSuppressedToTheLastNotification() {
+        NotificationRepo notificationRepo = mock(NotificationRepo.class);
+        when(notificationRepo.findLastNotificationId(1L, "overflow")).thenReturn(42L);
+        when(notificationRepo.addOccurrences(42L, 2)).thenReturn(1);
+        ReflectionTestUtils.setField(suppressor, "notificationRepo", notificationRepo);
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(1, suppressor.admit(notification(2L, "overflow", "high")));
+
+        suppressor.evictEmittedBefore(System.currentTimeMillis() / 1000 + 1);
+
+        verify(notificationRepo).addOccurrences(42L, 2);
+        // nothing was suppressed for bin 2
+        verify(notificationRepo, never()).findLastNotificationId(2L, "overflow");
+        assertEquals(0, suppressor.getStats().get("windows"));
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "high")));
+    }
+
+    @Test
+    void windowsWithinTheCooldownAreKept() {
+        NotificationRepo notificationRepo = mock(NotificationRepo.class);
+        ReflectionTestUtils.setField(suppressor, "notificationRepo", notificationRepo);
+        assertEquals(1, suppressor.admit(notification(1L, "overflow", "high")));
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "high")));
+
+        suppressor.evictExpired();
+
+        verify(notificationRepo, never()).addOccurrences(anyLong(), anyInt());
+        verify(notificationRepo, never()).findLastNotificationId(anyLong(), anyString());
+        assertEquals(0, suppressor.admit(notification(1L, "overflow", "high")));
+    }
+
+    private static Notification notification(long binId, String type, String severity) {
+        SmartBin smartBin = new SmartBin();
+        smartBin.setId(binId);
+        Notification notification = new Notification();
+        notification.setSmartBin(smartBin);
+        notification.setType(type);
+        notification.setSeverity(severity);
+        return notification;
+    }
+}
@@ -0,0 +1,35 @@
+package com.dev.smartbin.Service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTests {
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(1000);
+
+    @Test
+    void hashMatchesOnlyTheExactPassword() {
+        String hash = passwordHasher.hash("Secret-1");
+
+        assertTrue(passwordHasher.isHashed(hash));
+        assertTrue(passwordHasher.matches("Secret-1", hash));
+        assertFalse(passwordHasher.matches("secret-1", hash));
+        assertFalse(passwordHasher.matches(null, hash));
+        assertFalse(passwordHasher.matches("Secret-1", passwordHasher.hash("Secret-2")));
+    }
+
+    @Test
+    void malformedStoredValuesNeverMatch() {
+        String[] parts = passwordHasher.hash("Secret-1").split("\\$");
+
+        assertFalse(passwordHasher.matches("Secret-1", "Secret-1"));
+        assertFalse(passwordHasher.matches("Secret-1", null));
+        assertFalse(passwordHasher.matches("Secret-1", "pbkdf2$many$" + parts[2] + "$" + parts[3]));
+        assertFalse(passwordHasher.matches("Secret-1", "pbkdf2$0$" + parts[2] + "$" + parts[3]));
+        assertFalse(passwordHasher.matches("Secret-1", "pbkdf2$1000$not*base64$" + parts[3]));
+        assertFalse(passwordHasher.matches("Secret-1", "pbkdf2$1000$" + parts[2] + "$not*base64"));
+        assertFalse(passwordHasher.matches("Secret-1", "pbkdf2$1000$$" + parts[3]));
+    }
+}
@@ -0,0 +1,62 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.Model.SmartBin;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"smartbin.history.batch-size=1000", "smartbin.history.flush-interval-ms=60000"})
+class ReadingHistoryStoreTests {
+
+    @Autowired
+    private ReadingHistoryStore readingHistoryStore;
+
+    @Autowired
+    private SmartBinService smartBinService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writerDrainsTheWholeQueueWithoutWaitingForTheInterval() throws InterruptedException {
+        long binId = saveBin("SB_HISTORY_DRAIN");
+        long writtenBefore = readingHistoryStore.getStats().get("written");
+        long start = System.currentTimeMillis() - 25_000;
+        for (int i = 0; i < 25_000; i++) {
+            readingHistoryStore.record(binId, i % 101, null, new Date(start + i));
+        }
+
+        // far more than one flush interval's worth of batches used to allow, well within a single interval
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (readingHistoryStore.getStats().get("written") - writtenBefore < 25_000) {
+            assertTrue(System.currentTimeMillis() < deadline, "history writer fell behind");
+            Thread.sleep(50);
+        }
+
+        assertEquals(25_000L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bin_reading WHERE smart_bin_id = ?", Long.class, binId));
+        assertEquals(25_000L, jdbcTemplate.queryForObject("SELECT SUM(fill_count) FROM bin_reading_rollup"
+                + " WHERE smart_bin_id = ? AND resolution_seconds = 86400", Long.class, binId));
+        assertEquals(0, readingHistoryStore.getStats().get("dropped"));
+    }
+
+    private long saveBin(String deviceId) {
+        SmartBin smartBin = new SmartBin();
+        smartBin.setDevice_id(deviceId);
+        smartBin.setRegion("East");
+        smartBin.setSmartbin_location("Test");
+        smartBin.setSmartbin_status("Active");
+        smartBin.setInstallationStatus("Installed");
+        return smartBinService.saveSmartBinData(smartBin).getId();
+    }
+}
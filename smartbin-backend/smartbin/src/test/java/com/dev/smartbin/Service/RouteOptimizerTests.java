@@ -0,0 +1,104 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.CollectionRouteDTO;
+import com.dev.smartbin.DTO.RouteStopDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteOptimizerTests {
+
+    private static final double DEPOT_LATITUDE = 52.0;
+    private static final double DEPOT_LONGITUDE = 13.0;
+
+    private final RouteOptimizer routeOptimizer = new RouteOptimizer(2);
+
+    @AfterEach
+    void tearDown() {
+        routeOptimizer.stop();
+    }
+
+    @Test
+    void tripsRespectCapacityAndCoverEveryStopOnce() {
+        List<RouteStopDTO> stops = randomStops(53, "East", 1);
+        stops.addAll(randomStops(7, "West", 100));
+
+        RouteOptimizer.Plan plan = routeOptimizer.optimise(DEPOT_LATITUDE, DEPOT_LONGITUDE, 10, stops, 5_000);
+
+        assertFalse(plan.budgetExhausted());
+        assertCovered(stops, plan, 10);
+        assertEquals(6, plan.routes().stream().filter(route -> route.getRegion().equals("East")).count());
+        assertEquals(1, plan.routes().stream().filter(route -> route.getRegion().equals("West")).count());
+        List<Integer> eastTrips = plan.routes().stream().filter(route -> route.getRegion().equals("East"))
+                .map(CollectionRouteDTO::getTrip).toList();
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), eastTrips);
+    }
+
+    @Test
+    void severeBinsGoOnTheFirstTrip() {
+        List<RouteStopDTO> stops = new ArrayList<>();
+        // medium bins north of the depot, critical ones further out to the south
+        for (int i = 0; i < 4; i++) {
+            stops.add(stop(i, "East", 0.002 * (i + 1), 0, Severity.MEDIUM));
+        }
+        for (int i = 4; i < 8; i++) {
+            stops.add(stop(i, "East", -0.003 * (i - 3), 0, Severity.CRITICAL));
+        }
+
+        RouteOptimizer.Plan plan = routeOptimizer.optimise(DEPOT_LATITUDE, DEPOT_LONGITUDE, 4, stops, 5_000);
+
+        assertTrue(plan.routes().get(0).getStops().stream().allMatch(stop -> stop.getSeverityRank() == Severity.CRITICAL));
+    }
+
+    @Test
+    void exhaustedBudgetStillRoutesEveryStop() {
+        List<RouteStopDTO> stops = randomStops(2_000, "East", 7);
+
+        RouteOptimizer.Plan plan = routeOptimizer.optimise(DEPOT_LATITUDE, DEPOT_LONGITUDE, 25, stops, 0);
+
+        assertTrue(plan.budgetExhausted());
+        assertCovered(stops, plan, 25);
+        // past the deadline stops are taken in the order given
+        assertEquals(stops.subList(0, 25), plan.routes().get(0).getStops());
+    }
+
+    private static void assertCovered(List<RouteStopDTO> stops, RouteOptimizer.Plan plan, int capacity) {
+        Set<Long> routed = new HashSet<>();
+        int count = 0;
+        for (CollectionRouteDTO route : plan.routes()) {
+            assertTrue(route.getStops().size() <= capacity);
+            assertTrue(route.getDistanceKm() > 0);
+            for (RouteStopDTO stop : route.getStops()) {
+                routed.add(stop.getActionId());
+                count++;
+            }
+        }
+        assertEquals(stops.size(), count);
+        assertEquals(stops.size(), routed.size());
+    }
+
+    private static List<RouteStopDTO> randomStops(int count, String region, long seed) {
+        Random random = new Random(seed);
+        List<RouteStopDTO> stops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stops.add(stop(seed * 100_000 + i, region, random.nextDouble() * 0.2 - 0.1, random.nextDouble() * 0.2 - 0.1,
+                    1 + random.nextInt(3)));
+        }
+        return stops;
+    }
+
+    private static RouteStopDTO stop(long actionId, String region, double latitudeOffset, double longitudeOffset,
+                                     int severityRank) {
+        return new RouteStopDTO(actionId, "SB_" + actionId, region, DEPOT_LATITUDE + latitudeOffset,
+                DEPOT_LONGITUDE + longitudeOffset, Severity.name(severityRank), severityRank, 90);
+    }
+}
@@ -0,0 +1,91 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import com.dev.smartbin.Model.SmartBin;
+import com.dev.smartbin.Repository.ImmediateActionBinRepo;
+import com.dev.smartbin.Repository.SmartBinRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SmartBinServiceBatchTests {
+
+    @Autowired
+    private SmartBinService smartBinService;
+
+    @Autowired
+    private SmartBinRepo smartBinRepo;
+
+    @Autowired
+    private ImmediateActionBinRepo immediateActionBinRepo;
+
+    @Autowired
+    private BinWriteBehindBuffer binWriteBehindBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void batchReadingOverThresholdOpensImmediateAction() {
+        saveBin("SB_BATCH_OVER");
+        long actionsBefore = immediateActionBinRepo.count();
+
+        List<FillReadingResultDTO> results = smartBinService.addGarbageToBinBatch(List.of(
+                reading("SB_BATCH_OVER", 60), reading("SB_BATCH_OVER", 90), reading("SB_BATCH_UNKNOWN", 90)));
+
+        assertEquals("ACCEPTED", results.get(0).getStatus());
+        assertEquals("ACCEPTED", results.get(1).getStatus());
+        assertEquals("FAILED", results.get(2).getStatus());
+        // the fill reaches the row with the next write-behind flush
+        binWriteBehindBuffer.flush();
+        assertEquals(90, smartBinRepo.findSmartBinByDeviceId("SB_BATCH_OVER").get().getPercent_filled());
+        assertEquals(actionsBefore + 1, immediateActionBinRepo.count());
+    }
+
+    @Test
+    void overflowIsNotifiedAgainAfterTheActionCloses() throws InterruptedException {
+        saveBin("SB_BATCH_REOPEN");
+
+        smartBinService.addGarbageToBinBatch(List.of(reading("SB_BATCH_REOPEN", 95)));
+        smartBinService.addGarbageToBinBatch(List.of(reading("SB_BATCH_REOPEN", 10)));
+        smartBinService.addGarbageToBinBatch(List.of(reading("SB_BATCH_REOPEN", 96)));
+
+        // notifications are written by a background writer
+        long overflowNotifications = 0;
+        for (int attempt = 0; attempt < 50 && overflowNotifications < 2; attempt++) {
+            Thread.sleep(100);
+            overflowNotifications = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM notification n"
+                    + " JOIN smart_bin s ON s.smart_bin_id = n.smart_bin_id"
+                    + " WHERE s.device_id = 'SB_BATCH_REOPEN' AND n.type = 'overflow'", Long.class);
+        }
+        assertEquals(2, overflowNotifications);
+    }
+
+    private void saveBin(String deviceId) {
+        SmartBin smartBin = new SmartBin();
+        smartBin.setDevice_id(deviceId);
+        smartBin.setRegion("East");
+        smartBin.setSmartbin_location("Test");
+        smartBin.setSmartbin_status("Active");
+        smartBin.setInstallationStatus("Installed");
+        smartBinService.saveSmartBinData(smartBin);
+    }
+
+    private static FillReadingDTO reading(String deviceId, int fillPercent) {
+        FillReadingDTO reading = new FillReadingDTO();
+        reading.setDeviceId(deviceId);
+        reading.setFillPercent(fillPercent);
+        reading.setTimestamp(new Date());
+        return reading;
+    }
+}
@@ -0,0 +1,127 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.BinLocationDTO;
+import com.dev.smartbin.Model.SmartBin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpatialBinIndexTests {
+
+    private static final double CENTER_LATITUDE = 52.52;
+    private static final double CENTER_LONGITUDE = 13.40;
+
+    private SpatialBinIndex index;
+    private List<SmartBin> bins;
+
+    @BeforeEach
+    void setUp() {
+        index = new SpatialBinIndex(0.01);
+        bins = new ArrayList<>();
+        Random random = new Random(13);
+        for (long id = 1; id <= 500; id++) {
+            SmartBin smartBin = bin(id, CENTER_LATITUDE + random.nextDouble() * 0.2 - 0.1,
+                    CENTER_LONGITUDE + random.nextDouble() * 0.2 - 0.1);
+            index.index(smartBin);
+            bins.add(smartBin);
+        }
+    }
+
+    @Test
+    void radiusPagesAreNearestFirstAndComplete() {
+        double radiusKm = 3;
+        List<BinLocationDTO> paged = new ArrayList<>();
+        Long cursor = 0L;
+        while (cursor != null) {
+            SpatialBinIndex.Page page = index.findWithinRadius(CENTER_LATITUDE, CENTER_LONGITUDE, radiusKm, cursor.intValue(), 7);
+            assertTrue(page.bins().size() <= 7);
+            paged.addAll(page.bins());
+            cursor = page.nextCursor();
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (SmartBin smartBin : bins) {
+            if (distanceKm(smartBin) <= radiusKm) {
+                expected.add(smartBin.getId());
+            }
+        }
+        assertEquals(expected.size(), paged.size());
+        assertTrue(paged.stream().map(BinLocationDTO::getId).toList().containsAll(expected));
+        for (int i = 1; i < paged.size(); i++) {
+            assertTrue(paged.get(i - 1).getDistanceKm() <= paged.get(i).getDistanceKm());
+        }
+    }
+
+    @Test
+    void boundingBoxPagesAreInIdOrderAndComplete() {
+        assertBoxPaging(52.50, 13.35, 52.55, 13.45);
+        // larger than the occupied cells, walked cell by cell instead of probing the range
+        assertBoxPaging(40, 0, 60, 30);
+    }
+
+    @Test
+    void movedAndRemovedBinsAreReindexed() {
+        SmartBin moved = bins.get(0);
+        moved.setLatitude(10.0);
+        moved.setLongitude(10.0);
+        index.index(moved);
+        SpatialBinIndex.Page page = index.findWithinBoundingBox(9.99, 9.99, 10.01, 10.01, 0, 10);
+        assertEquals(List.of(moved.getId()), page.bins().stream().map(BinLocationDTO::getId).toList());
+        assertNull(page.nextCursor());
+
+        moved.setLatitude(null);
+        index.index(moved);
+        index.remove(bins.get(1).getId());
+        assertEquals(498, index.size());
+        assertTrue(index.findWithinBoundingBox(9.99, 9.99, 10.01, 10.01, 0, 10).bins().isEmpty());
+        assertTrue(index.findWithinBoundingBox(40, 0, 60, 30, 0, 1000).bins().stream()
+                .noneMatch(bin -> bin.getId() == bins.get(1).getId()));
+    }
+
+    private void assertBoxPaging(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        List<Long> paged = new ArrayList<>();
+        long afterId = 0;
+        while (true) {
+            SpatialBinIndex.Page page = index.findWithinBoundingBox(minLatitude, minLongitude, maxLatitude, maxLongitude, afterId, 11);
+            page.bins().forEach(bin -> paged.add(bin.getId()));
+            if (page.nextCursor() == null) {
+                break;
+            }
+            afterId = page.nextCursor();
+        }
+
+        List<Long> expected = new ArrayList<>();
+        for (SmartBin smartBin : bins) {
+            if (smartBin.getLatitude() >= minLatitude && smartBin.getLatitude() <= maxLatitude
+                    && smartBin.getLongitude() >= minLongitude && smartBin.getLongitude() <= maxLongitude) {
+                expected.add(smartBin.getId());
+            }
+        }
+        assertEquals(expected, paged);
+    }
+
+    private static double distanceKm(SmartBin smartBin) {
+        double dLat = Math.toRadians(smartBin.getLatitude() - CENTER_LATITUDE);
+        double dLon = Math.toRadians(smartBin.getLongitude() - CENTER_LONGITUDE);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) + Math.cos(Math.toRadians(CENTER_LATITUDE))
+                * Math.cos(Math.toRadians(smartBin.getLatitude())) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0088 * Math.asin(Math.sqrt(a));
+    }
+
+    private static SmartBin bin(long id, double latitude, double longitude) {
+        SmartBin smartBin = new SmartBin();
+        smartBin.setId(id);
+        smartBin.setDevice_id("SB_" + id);
+        smartBin.setRegion("East");
+        smartBin.setLatitude(latitude);
+        smartBin.setLongitude(longitude);
+        return smartBin;
+    }
+}
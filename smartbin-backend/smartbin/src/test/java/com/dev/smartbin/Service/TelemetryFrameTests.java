@@ -0,0 +1,87 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryFrameTests {
+
+    private static final byte[] DEVICE_ID = "SB_FRAME_1".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] scratch = new byte[TelemetryFrame.MAX_DEVICE_ID_BYTES];
+    private final Date receivedAt = new Date(1_000L);
+
+    @Test
+    void framesRoundTripBackToBack() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * TelemetryFrame.MAX_FRAME_BYTES);
+        assertTrue(TelemetryFrame.encode(buffer, DEVICE_ID, 85, 40, 5_000L));
+        assertTrue(TelemetryFrame.encode(buffer, DEVICE_ID, 0, TelemetryFrame.NO_BATTERY, 0L));
+        buffer.flip();
+
+        assertEquals(TelemetryFrame.LENGTH_BYTES + TelemetryFrame.FIXED_BYTES + DEVICE_ID.length,
+                TelemetryFrame.frameLength(buffer));
+        FillReadingDTO first = TelemetryFrame.decode(buffer, scratch, receivedAt);
+        assertEquals("SB_FRAME_1", first.getDeviceId());
+        assertEquals(85, first.getFillPercent());
+        assertEquals(40, first.getBattery());
+        assertEquals(new Date(5_000L), first.getTimestamp());
+
+        FillReadingDTO second = TelemetryFrame.decode(buffer, scratch, receivedAt);
+        assertEquals(0, second.getFillPercent());
+        assertNull(second.getBattery());
+        assertEquals(receivedAt, second.getTimestamp());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void partialLengthPrefixAndFullBufferAreReported() {
+        ByteBuffer prefix = ByteBuffer.allocate(1).put((byte) 0);
+        prefix.flip();
+        assertEquals(-1, TelemetryFrame.frameLength(prefix));
+
+        ByteBuffer small = ByteBuffer.allocate(TelemetryFrame.LENGTH_BYTES + TelemetryFrame.FIXED_BYTES);
+        assertFalse(TelemetryFrame.encode(small, DEVICE_ID, 50, 50, 0L));
+        assertEquals(0, small.position());
+    }
+
+    @Test
+    void malformedFramesAreRejected() {
+        assertMalformed(frame(TelemetryFrame.FIXED_BYTES, TelemetryFrame.VERSION, 50, 50, 0L), "Invalid frame length 11");
+        assertMalformed(frame(TelemetryFrame.FIXED_BYTES + TelemetryFrame.MAX_DEVICE_ID_BYTES + 1, TelemetryFrame.VERSION,
+                50, 50, 0L), "Invalid frame length 76");
+        assertMalformed(frame(TelemetryFrame.FIXED_BYTES + DEVICE_ID.length, 2, 50, 50, 0L), "Unsupported frame version 2");
+        assertMalformed(frame(TelemetryFrame.FIXED_BYTES + DEVICE_ID.length, TelemetryFrame.VERSION, 101, 50, 0L),
+                "Invalid reading in frame");
+        assertMalformed(frame(TelemetryFrame.FIXED_BYTES + DEVICE_ID.length, TelemetryFrame.VERSION, 50, 101, 0L),
+                "Invalid reading in frame");
+        assertMalformed(frame(TelemetryFrame.FIXED_BYTES + DEVICE_ID.length, TelemetryFrame.VERSION, 50, 50, -1L),
+                "Invalid reading in frame");
+    }
+
+    private void assertMalformed(ByteBuffer buffer, String message) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TelemetryFrame.decode(buffer, scratch, receivedAt));
+        assertEquals(message, e.getMessage());
+    }
+
+    private static ByteBuffer frame(int length, int version, int fillPercent, int battery, long timestamp) {
+        ByteBuffer buffer = ByteBuffer.allocate(TelemetryFrame.LENGTH_BYTES + TelemetryFrame.FIXED_BYTES + DEVICE_ID.length);
+        buffer.putShort((short) length)
+                .put((byte) version)
+                .put((byte) fillPercent)
+                .put((byte) battery)
+                .putLong(timestamp)
+                .put(DEVICE_ID);
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,133 @@
+package com.dev.smartbin.Service;
+
+import com.dev.smartbin.DTO.FillReadingDTO;
+import com.dev.smartbin.DTO.FillReadingResultDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TopicIngestGatewayTests {
+
+    private EmbeddedBroker broker;
+    private SmartBinService smartBinService;
+    private TopicIngestGateway gateway;
+
+    @BeforeEach
+    void setUp() {
+        broker = new EmbeddedBroker();
+        ReflectionTestUtils.setField(broker, "maxInflight", 100);
+        ReflectionTestUtils.setField(broker, "maxQueued", 100);
+        ReflectionTestUtils.setField(broker, "ackTimeoutMs", 60_000L);
+        smartBinService = mock(SmartBinService.class);
+        when(smartBinService.addGarbageToBinBatch(anyList())).thenAnswer(invocation -> accepted(invocation.getArgument(0)));
+
+        gateway = new TopicIngestGateway(100);
+        ReflectionTestUtils.setField(gateway, "broker", broker);
+        ReflectionTestUtils.setField(gateway, "smartBinService", smartBinService);
+        ReflectionTestUtils.setField(gateway, "jsonMapper", JsonMapper.builder().build());
+        ReflectionTestUtils.setField(gateway, "enabled", true);
+        ReflectionTestUtils.setField(gateway, "batchSize", 500);
+        ReflectionTestUtils.setField(gateway, "flushIntervalMs", 10L);
+        gateway.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        gateway.stop();
+    }
+
+    @Test
+    void duplicateAndStaleSequenceNumbersAreAcknowledgedWithoutBeingApplied() {
+        publish("bins/SB_1/fill", "{\"seq\": 5, \"value\": 80}");
+        awaitStat("applied", 1);
+
+        publish("bins/SB_1/fill", "{\"seq\": 5, \"value\": 80}");
+        publish("bins/SB_1/fill", "{\"seq\": 4, \"value\": 70}");
+        awaitStat("duplicates", 2);
+        // the battery topic keeps its own sequence
+        when(smartBinService.addBatteryReportsBatch(anyList())).thenReturn(1);
+        publish("bins/SB_1/battery", "{\"seq\": 1, \"value\": 40}");
+        awaitStat("applied", 2);
+
+        verify(smartBinService, times(1)).addGarbageToBinBatch(anyList());
+        verify(smartBinService, times(1)).addBatteryReportsBatch(anyList());
+        await(() -> broker.getStats().get("inflight") == 0);
+    }
+
+    @Test
+    void failedBatchIsRedeliveredAndAppliedOnce() {
+        when(smartBinService.addGarbageToBinBatch(anyList()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenAnswer(invocation -> accepted(invocation.getArgument(0)));
+
+        publish("bins/SB_2/fill", "{\"seq\": 1, \"value\": 95}");
+        awaitStat("failedBatches", 1);
+        assertEquals(0, gateway.getStats().get("applied"));
+        // not acknowledged, so it is still in flight with the broker
+        assertEquals(1, broker.getStats().get("inflight"));
+
+        ReflectionTestUtils.setField(broker, "ackTimeoutMs", 0L);
+        broker.redeliverExpired();
+        awaitStat("applied", 1);
+        await(() -> broker.getStats().get("inflight") == 0);
+
+        // once applied, the same message published again is a duplicate
+        publish("bins/SB_2/fill", "{\"seq\": 1, \"value\": 95}");
+        awaitStat("duplicates", 1);
+        verify(smartBinService, times(2)).addGarbageToBinBatch(anyList());
+    }
+
+    @Test
+    void malformedMessagesAreAcknowledgedAndCounted() {
+        publish("bins/SB_3/fill", "not json");
+        publish("bins/SB_3/fill", "{\"value\": 10}");
+        publish("bins/SB_3/fill", "{\"seq\": 1}");
+        awaitStat("malformed", 3);
+
+        await(() -> broker.getStats().get("inflight") == 0);
+        verify(smartBinService, never()).addGarbageToBinBatch(anyList());
+    }
+
+    private void publish(String topic, String payload) {
+        assertTrue(broker.publish(topic, payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private void awaitStat(String name, long expected) {
+        await(() -> gateway.getStats().get(name) == expected);
+        assertEquals(expected, gateway.getStats().get(name));
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out waiting for the gateway");
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static List<FillReadingResultDTO> accepted(List<FillReadingDTO> readings) {
+        return readings.stream()
+                .map(reading -> new FillReadingResultDTO(reading.getDeviceId(), reading.getFillPercent(), "ACCEPTED", null))
+                .toList();
+    }
+}
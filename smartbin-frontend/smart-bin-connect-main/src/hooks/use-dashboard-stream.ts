@@ -0,0 +1,68 @@
+import { useEffect, useRef } from "react";
+
+const DASHBOARD_STREAM_URL = "http://localhost:8080/dashboard/stream";
+
+export interface BinStreamEvent {
+  id: number;
+  device_id: string;
+  region: string;
+  smartbin_location: string;
+  installationStatus: string;
+  smartbin_status: string;
+  smartbin_batteryStatus: number | null;
+  is_smartbin_Onboarded: boolean;
+  percent_filled: number;
+}
+
+export interface BinRemovedStreamEvent {
+  deviceId: string;
+}
+
+export interface ImmediateActionStreamEvent {
+  id: number;
+  deviceId: string;
+  region: string;
+  location: string;
+  immediateAction_status: string;
+  percentFilled: number;
+}
+
+export interface NotificationStreamEvent {
+  id: number;
+  type: string;
+  message: string;
+  severity: "critical" | "high" | "medium" | "low";
+  createdAt: string;
+  read: boolean;
+  deviceId: string | null;
+  location: string | null;
+  occurrenceCount: number;
+  lastSeenAt: string | null;
+}
+
+export interface DashboardStreamHandlers {
+  bin?: (event: BinStreamEvent) => void;
+  binRemoved?: (event: BinRemovedStreamEvent) => void;
+  immediateAction?: (event: ImmediateActionStreamEvent) => void;
+  notification?: (event: NotificationStreamEvent) => void;
+}
+
+/**
+ * Subscribes to the server-sent dashboard deltas for the lifetime of the component.
+ */
+export function useDashboardStream(handlers: DashboardStreamHandlers) {
+  const handlersRef = useRef(handlers);
+  handlersRef.current = handlers;
+
+  useEffect(() => {
+    const source = new EventSource(DASHBOARD_STREAM_URL);
+    const eventNames: (keyof DashboardStreamHandlers)[] = ["bin", "binRemoved", "immediateAction", "notification"];
+    eventNames.forEach((eventName) => {
+      source.addEventListener(eventName, (event) => {
+        const handler = handlersRef.current[eventName] as ((payload: unknown) => void) | undefined;
+        handler?.(JSON.parse((event as MessageEvent<string>).data));
+      });
+    });
+    return () => source.close();
+  }, []);
+}
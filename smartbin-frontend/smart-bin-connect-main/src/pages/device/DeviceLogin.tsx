@@ -94,11 +94,15 @@ export default function DeviceLogin() {
       return;
     }
 
-    const apiUrl = `http://localhost:8080/masterbins/authenticate/${manufacturingId}/${password}`;
+    const apiUrl = "http://localhost:8080/masterbins/authenticate";
 
     try {
       const response = await fetch(apiUrl, {
-        method: "GET",
+        method: "POST",
+        headers: {
+          "Content-Type": "application/json",
+        },
+        body: JSON.stringify({ device_id: manufacturingId, password }),
       });
 
       if (!response.ok) {
@@ -2,26 +2,39 @@ import BinCard from '@/components/dashboard/BinCard';
 import StatCard from '@/components/dashboard/StatCard';
 import MunicipalLayout from '@/components/layout/MunicipalLayout';
 import { Card, CardContent, CardHeader, CardTitle } from '@/components/ui/card';
+import { Button } from '@/components/ui/button';
 import { Progress } from '@/components/ui/progress';
 import { SmartBin } from '@/types/smartbin';
 import {
   AlertTriangle,
   Battery,
+  Loader2,
   Trash2,
   TrendingUp
 } from 'lucide-react';
-import { useCallback, useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
+import { useDashboardStream } from '@/hooks/use-dashboard-stream';
+
+const BIN_PAGE_SIZE = 60;
 
 export default function MunicipalDashboard() {
   const [bins, setBins] = useState([]);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [notifications, setNotifications] = useState([]);
-  const getImmediateActionBins = useCallback((): SmartBin[] => {
-    return bins.filter(bin =>
-      bin.percentFilled >= 80 ||
-      bin.batteryStatus <= 20 ||
-      bin.status === 'error'
-    );
-  }, [bins]);
+  const [regionSummaries, setRegionSummaries] = useState<RegionSummary[]>([]);
+  const summaryRefresh = useRef<ReturnType<typeof setTimeout> | null>(null);
+
+  type RegionSummary = {
+    region: string,
+    binCount: number,
+    countByStatus: Record<string, number>,
+    avgFill: number,
+    maxFill: number,
+    criticalFillCount: number,
+    lowBatteryCount: number,
+    openActionCount: number,
+  }
 
   type BinResposne = {
     "device_id": string,
@@ -35,25 +48,69 @@ export default function MunicipalDashboard() {
     "smartbin_status": string,
   }
 
-  const fetchBins = async () => {
+  const mapBin = (bin: BinResposne): SmartBin => ({
+    id: String(bin.id),
+    manufacturingId: bin.device_id,
+    location: bin.smartbin_location,
+    zone: bin.region,
+    installationStatus: bin.installationStatus as SmartBin['installationStatus'],
+    status: bin.smartbin_status as SmartBin['status'],
+    percentFilled: bin.percent_filled,
+    batteryStatus: bin.smartbin_batteryStatus,
+    lastUpdated: new Date(),
+    onboarded: bin.is_smartbin_Onboarded,
+  });
+
+  const fetchRegionSummaries = async () => {
     try {
-      const response = await fetch('http://localhost:8080/smartbin/find');
-      const data = await response.json();
-      const mappedData: SmartBin[] = data.map((bin: BinResposne) => ({
-        id: bin.id,
-        manufacturingId: bin.device_id,
-        location: bin.smartbin_location,
-        zone: bin.region,
-        installationStatus: bin.installationStatus,
-        status: bin.smartbin_status,
-        percentFilled: bin.percent_filled,
-        batteryStatus: bin.smartbin_batteryStatus,
-        lastUpdated: new Date(),
-        onboarded: bin.is_smartbin_Onboarded,
-      }));
-      setBins(mappedData);
+      const response = await fetch('http://localhost:8080/smartbin/regions/summary');
+      setRegionSummaries(await response.json());
+    } catch (error) {
+      console.error('Error fetching region summaries:', error);
+    }
+  };
+
+  // the totals are cheap to read but change with every reading, so refresh them at most once a second
+  const scheduleSummaryRefresh = () => {
+    if (summaryRefresh.current === null) {
+      summaryRefresh.current = setTimeout(() => {
+        summaryRefresh.current = null;
+        fetchRegionSummaries();
+      }, 1000);
+    }
+  };
+
+  useDashboardStream({
+    bin: (event) => {
+      scheduleSummaryRefresh();
+      const updated = mapBin(event);
+      // bins not loaded yet come with their page; new bins have the highest ids, so they only join the last page
+      setBins(prev => prev.some(b => b.id === updated.id)
+        ? prev.map(b => b.id === updated.id ? updated : b)
+        : nextCursor === null ? [...prev, updated] : prev);
+    },
+    binRemoved: (event) => {
+      scheduleSummaryRefresh();
+      setBins(prev => prev.filter(b => b.manufacturingId !== event.deviceId));
+    },
+    immediateAction: () => scheduleSummaryRefresh(),
+  });
+
+  // one page of the grid at a time, in id order; the server returns the cursor of the next page in X-Next-Cursor
+  const fetchBins = async (cursor: string | null = null) => {
+    try {
+      setLoadingMore(cursor !== null);
+      const response = await fetch(`http://localhost:8080/smartbin/find?after=${cursor ?? '0'}&limit=${BIN_PAGE_SIZE}`);
+      const page: BinResposne[] = await response.json();
+      const mapped = page.map(mapBin);
+      setBins(prev => cursor === null
+        ? mapped
+        : [...prev, ...mapped.filter(b => !prev.some(p => p.id === b.id))]);
+      setNextCursor(response.headers.get('X-Next-Cursor'));
     } catch (error) {
       console.error('Error fetching bins:', error);
+    } finally {
+      setLoadingMore(false);
     }
   };
 
@@ -70,25 +127,30 @@ export default function MunicipalDashboard() {
   useEffect(() => {
     document.title = 'Dashboard - SmartBin Municipal Portal';
     fetchBins();
+    fetchRegionSummaries();
     fetchNotifications();
+    return () => {
+      if (summaryRefresh.current !== null) {
+        clearTimeout(summaryRefresh.current);
+      }
+    };
   }, []);
   console.log('bins', bins)
 
-  const activeBins = bins.filter(b => b.status === 'active').length;
-  const immediateActionCount = getImmediateActionBins().length;
+  // totals come from the server-side region aggregates instead of the full bin list
+  const totalBins = regionSummaries.reduce((acc, r) => acc + r.binCount, 0);
+  const activeBins = regionSummaries.reduce((acc, r) => acc + (r.countByStatus['Active'] ?? 0), 0);
+  const immediateActionCount = regionSummaries.reduce((acc, r) => acc + r.openActionCount, 0);
   const criticalAlerts = notifications.filter(n => n.severity === 'critical' && !n.read).length;
-  const avgFillLevel = Math.round(bins.reduce((acc, b) => acc + b.percentFilled, 0) / bins.length);
-
-  // Zone stats
-  const zones = [...new Set(bins.map(b => b.zone))];
-  const zoneStats = zones.map(zone => {
-    const zoneBins = bins.filter(b => b.zone === zone);
-    return {
-      zone,
-      count: zoneBins.length,
-      avgFill: Math.round(zoneBins.reduce((acc, b) => acc + b.percentFilled, 0) / zoneBins.length),
-    };
-  });
+  const avgFillLevel = totalBins === 0
+    ? 0
+    : Math.round(regionSummaries.reduce((acc, r) => acc + r.avgFill * r.binCount, 0) / totalBins);
+
+  const zoneStats = regionSummaries.map(summary => ({
+    zone: summary.region,
+    count: summary.binCount,
+    avgFill: Math.round(summary.avgFill),
+  }));
 
   return (
     <MunicipalLayout>
@@ -103,7 +165,7 @@ export default function MunicipalDashboard() {
         <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-4 gap-4">
           <StatCard
             title="Total Bins"
-            value={bins.length}
+            value={totalBins}
             icon={Trash2}
             description={`${activeBins} active`}
             variant="success"
@@ -158,6 +220,14 @@ export default function MunicipalDashboard() {
               <BinCard key={bin.id} bin={bin} />
             ))}
           </div>
+          {nextCursor !== null && (
+            <div className="flex justify-center pt-4">
+              <Button variant="outline" onClick={() => fetchBins(nextCursor)} disabled={loadingMore}>
+                {loadingMore && <Loader2 className="h-4 w-4 mr-1 animate-spin" />}
+                Load More
+              </Button>
+            </div>
+          )}
         </div>
       </div>
     </MunicipalLayout>
@@ -15,6 +15,7 @@ import {
 import { cn } from '@/lib/utils';
 import { useState, useEffect } from 'react';
 import { toast } from 'sonner';
+import { useDashboardStream } from '@/hooks/use-dashboard-stream';
 
 // Interface for nested smartBin object in API response
 interface SmartBinData {
@@ -24,7 +25,7 @@ interface SmartBinData {
   is_smartbin_Onboarded: boolean;
   percent_filled: number;
   region: string;
-  smartbin_batteryStatus: string;
+  smartbin_batteryStatus: number | null;
   smartbin_location: string;
   smartbin_status: string;
 }
@@ -64,13 +65,38 @@ export default function ImmediateAction() {
       deviceId: smartBin?.device_id || 'Unknown Device',
       status: apiItem.immediateAction_status || 'Unknown',
       percentFilled: smartBin?.percent_filled || 0,
-      batteryStatus: parseInt(smartBin?.smartbin_batteryStatus || '0', 10),
+      batteryStatus: smartBin?.smartbin_batteryStatus ?? 0,
       location: smartBin?.smartbin_location || 'Unknown Location',
       region: smartBin?.region || 'Unknown Region',
       smartbinStatus: smartBin?.smartbin_status || 'unknown',
     };
   };
 
+  useDashboardStream({
+    immediateAction: (event) => {
+      setBins(prev => {
+        // a bin keeps a single action row; once its fill drops back the action is closed
+        if (event.immediateAction_status === 'Closed') {
+          return prev.filter(b => b.id !== event.id);
+        }
+        const existing = prev.find(b => b.id === event.id);
+        const updated: ImmediateActionBin = {
+          id: event.id,
+          deviceId: event.deviceId,
+          status: event.immediateAction_status,
+          percentFilled: event.percentFilled,
+          batteryStatus: existing?.batteryStatus ?? 0,
+          location: event.location,
+          region: event.region,
+          smartbinStatus: existing?.smartbinStatus ?? 'Active',
+        };
+        return existing
+          ? prev.map(b => b.id === event.id ? updated : b)
+          : [updated, ...prev];
+      });
+    },
+  });
+
   const fetchImmediateActionBins = async () => {
     try {
       setLoading(true);
@@ -17,19 +17,7 @@ import {
 import { cn } from '@/lib/utils';
 import { useState, useEffect } from 'react';
 import { toast } from 'sonner';
-
-// Interface for nested smartBin object in API response
-interface SmartBinData {
-  device_id: string;
-  id: number;
-  installationStatus: string;
-  is_smartbin_Onboarded: boolean;
-  percent_filled: number;
-  region: string;
-  smartbin_batteryStatus: string;
-  smartbin_location: string;
-  smartbin_status: string;
-}
+import { useDashboardStream } from '@/hooks/use-dashboard-stream';
 
 // Interface for API response
 interface ApiNotification {
@@ -39,9 +27,15 @@ interface ApiNotification {
   read: boolean;
   severity: 'critical' | 'high' | 'medium' | 'low';
   type: string;
-  smartBin: SmartBinData | null;
+  deviceId: string | null;
+  location: string | null;
+  occurrenceCount: number;
+  lastSeenAt: string | null;
 }
 
+const API_BASE = 'http://localhost:8080/notification';
+const PAGE_SIZE = 50;
+
 // Interface for component usage
 interface Notification {
   id: number;
@@ -52,15 +46,21 @@ interface Notification {
   type: string;
   location: string | null;
   deviceId: string | null;
+  occurrenceCount: number;
+  lastSeenAt: Date | null;
 }
 
 export default function Notifications() {
   const [notifications, setNotifications] = useState<Notification[]>([]);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [unreadCount, setUnreadCount] = useState(0);
 
   // Fetch notifications from API
   useEffect(() => {
     fetchNotifications();
+    fetchUnreadCount();
   }, []);
 
   const mapApiResponse = (apiItem: ApiNotification): Notification => {
@@ -71,21 +71,51 @@ export default function Notifications() {
       read: apiItem.read,
       severity: apiItem.severity,
       type: apiItem.type,
-      location: apiItem.smartBin?.smartbin_location || null,
-      deviceId: apiItem.smartBin?.device_id || null,
+      location: apiItem.location,
+      deviceId: apiItem.deviceId,
+      occurrenceCount: apiItem.occurrenceCount ?? 1,
+      lastSeenAt: apiItem.lastSeenAt ? new Date(apiItem.lastSeenAt) : null,
     };
   };
 
-  const fetchNotifications = async () => {
+  useDashboardStream({
+    notification: (event) => {
+      const notification: Notification = {
+        id: event.id,
+        createdAt: new Date(event.createdAt),
+        message: event.message,
+        read: event.read,
+        severity: event.severity,
+        type: event.type,
+        location: event.location,
+        deviceId: event.deviceId,
+        occurrenceCount: event.occurrenceCount ?? 1,
+        lastSeenAt: event.lastSeenAt ? new Date(event.lastSeenAt) : null,
+      };
+      setNotifications(prev => [notification, ...prev.filter(n => n.id !== notification.id)]);
+      if (!notification.read) {
+        setUnreadCount(prev => prev + 1);
+      }
+    },
+  });
+
+  // Pages come unread first, newest first; the server returns the cursor of the next page in X-Next-Cursor
+  const fetchNotifications = async (cursor: string | null = null) => {
     try {
-      setLoading(true);
-      const response = await fetch('http://localhost:8080/notification/find');
+      if (cursor === null) {
+        setLoading(true);
+      } else {
+        setLoadingMore(true);
+      }
+      const query = `limit=${PAGE_SIZE}` + (cursor !== null ? `&cursor=${encodeURIComponent(cursor)}` : '');
+      const response = await fetch(`${API_BASE}/find?${query}`);
       if (response.ok) {
         const data: ApiNotification[] = await response.json();
-        console.log('Notifications API Response:', data);
         const mappedData = data.map(mapApiResponse);
-        console.log('Mapped Notifications Data:', mappedData);
-        setNotifications(mappedData);
+        setNotifications(prev => cursor === null
+          ? mappedData
+          : [...prev, ...mappedData.filter(n => !prev.some(p => p.id === n.id))]);
+        setNextCursor(response.headers.get('X-Next-Cursor'));
       } else {
         toast.error('Failed to fetch notifications');
       }
@@ -94,6 +124,30 @@ export default function Notifications() {
       toast.error('Error connecting to server');
     } finally {
       setLoading(false);
+      setLoadingMore(false);
+    }
+  };
+
+  const fetchUnreadCount = async () => {
+    try {
+      const response = await fetch(`${API_BASE}/unread/count`);
+      if (response.ok) {
+        const data: { unread: number } = await response.json();
+        setUnreadCount(data.unread);
+      }
+    } catch (error) {
+      console.error('Error fetching unread count:', error);
+    }
+  };
+
+  const postMarkRead = async (body: { ids?: number[], before?: string }) => {
+    const response = await fetch(`${API_BASE}/markRead`, {
+      method: 'POST',
+      headers: { 'Content-Type': 'application/json' },
+      body: JSON.stringify(body),
+    });
+    if (!response.ok) {
+      throw new Error(`markRead failed with status ${response.status}`);
     }
   };
 
@@ -102,6 +156,27 @@ export default function Notifications() {
     setNotifications(prev =>
       prev.map(n => n.id === id ? { ...n, read: true } : n)
     );
+    setUnreadCount(prev => Math.max(0, prev - 1));
+    try {
+      await postMarkRead({ ids: [id] });
+    } catch (error) {
+      console.error('Error marking notification read:', error);
+      toast.error('Failed to mark notification as read');
+      fetchUnreadCount();
+    }
+  };
+
+  const markAllRead = async () => {
+    const before = new Date().toISOString();
+    setNotifications(prev => prev.map(n => ({ ...n, read: true })));
+    setUnreadCount(0);
+    try {
+      await postMarkRead({ before });
+    } catch (error) {
+      console.error('Error marking notifications read:', error);
+      toast.error('Failed to mark notifications as read');
+    }
+    fetchUnreadCount();
   };
 
   const getIcon = (type: string) => {
@@ -149,11 +224,11 @@ export default function Notifications() {
     return `${Math.floor(hours / 24)} days ago`;
   };
 
-  const sortedNotifications = [...notifications].sort((a, b) =>
-    b.createdAt.getTime() - a.createdAt.getTime()
-  );
-
-  const unreadCount = notifications.filter(n => !n.read).length;
+  // keep the server's unread-first order; only notifications marked read on this page drop below the unread ones
+  const sortedNotifications = [
+    ...notifications.filter(n => !n.read),
+    ...notifications.filter(n => n.read),
+  ];
 
   return (
     <MunicipalLayout>
@@ -169,6 +244,12 @@ export default function Notifications() {
               }
             </p>
           </div>
+          {unreadCount > 0 && (
+            <Button variant="outline" size="sm" onClick={markAllRead}>
+              <CheckCircle2 className="h-4 w-4 mr-1" />
+              Mark All Read
+            </Button>
+          )}
         </div>
 
         {/* Loading State */}
@@ -211,6 +292,9 @@ export default function Notifications() {
                           <Badge variant="outline" className="text-xs capitalize">
                             {notification.type}
                           </Badge>
+                          {notification.occurrenceCount > 1 && (
+                            <Badge variant="outline" className="text-xs">×{notification.occurrenceCount}</Badge>
+                          )}
                           {!notification.read && (
                             <Badge variant="secondary" className="text-xs">New</Badge>
                           )}
@@ -223,6 +307,9 @@ export default function Notifications() {
                             <Clock className="h-3 w-3" />
                             {formatTime(notification.createdAt)}
                           </span>
+                          {notification.occurrenceCount > 1 && notification.lastSeenAt && (
+                            <span>Last seen: {formatTime(notification.lastSeenAt)}</span>
+                          )}
                           {notification.location && (
                             <span>Location: {notification.location}</span>
                           )}
@@ -245,6 +332,14 @@ export default function Notifications() {
                 </Card>
               );
             })}
+            {nextCursor !== null && (
+              <div className="flex justify-center pt-2">
+                <Button variant="outline" onClick={() => fetchNotifications(nextCursor)} disabled={loadingMore}>
+                  {loadingMore && <Loader2 className="h-4 w-4 mr-1 animate-spin" />}
+                  Load More
+                </Button>
+              </div>
+            )}
           </div>
         ) : (
           /* Empty State */